@@ -5,6 +5,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
@@ -12,6 +13,7 @@ import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.project.MavenProject;
 import org.openqa.selenium.WebDriver;
 
+import com.github.searls.jasmine.daemon.ConnectsToDaemon;
 import com.github.searls.jasmine.exception.StringifiesStackTraces;
 import com.github.searls.jasmine.io.ScansDirectory;
 import com.github.searls.jasmine.model.ScriptSearch;
@@ -47,10 +49,78 @@ public abstract class AbstractJasmineMojo extends AbstractMojo {
    *
    *   Some valid examples: FIREFOX_3_6, INTERNET_EXPLORER_6, INTERNET_EXPLORER_7, INTERNET_EXPLORER_8
    *
+   *   Several profiles can be given, separated by commas (e.g. FIREFOX_3_6,INTERNET_EXPLORER_8). jasmine:test then
+   *   generates the spec runner once and runs it on a driver per profile in parallel, writes a JUnit XML report per
+   *   profile (e.g. TEST-jasmine-FIREFOX_3_6.xml) and fails if the specs fail on any of them.
+   *
    * @parameter default-value="FIREFOX_3"
    */
   protected String browserVersion;
 
+  /**
+   * What jasmine:test runs the specs in with the default webDriverClassName: htmlunit (HtmlUnit's emulation of
+   * browserVersion) or rhino, which runs jasmine.js, the preloads, sources and specs in bare Rhino with a window that
+   * has timers and load events but no DOM to speak of. Specs of pure logic run in a fraction of the time in rhino;
+   * specs that create, find or inspect elements have to run in htmlunit. Results and JUnit XML reports are the same
+   * either way. rhino doesn't run the REQUIRE_JS specRunnerTemplate (which needs a DOM to load modules), and has
+   * a single "browser version", so browserVersion is ignored; nor does it use a customRunnerTemplate. Choose the
+   * engine per execution, e.g. an execution with rhino for the spec directory of pure logic and one with htmlunit for
+   * the rest.
+   *
+   *   A plugin dependency can add engines: implementations of com.github.searls.jasmine.runner.SpecEngine listed
+   *   in its META-INF/services/com.github.searls.jasmine.runner.SpecEngine, picked by the name they give.
+   *
+   * @parameter default-value="htmlunit" expression="${jasmine.engine}"
+   */
+  protected String engine;
+
+  /**
+   * Keeps the web drivers used by jasmine:test warm for later executions instead of quitting them. Drivers are
+   * pooled for the rest of the build by engine and browserVersion, and are reset to a blank page between uses,
+   * so a reactor build only pays browser startup once. Drivers of a custom webDriverClassName, which come from
+   * each project's dependencies, are quit after each execution.
+   *
+   * @parameter default-value="true" expression="${jasmine.reuseWebDrivers}"
+   */
+  protected boolean reuseWebDrivers;
+
+  /**
+   * True to run the specs in a separate JVM instead of in Maven's, so HtmlUnit gets a heap (and garbage collector)
+   * of its own, and running out of memory fails the specs rather than the whole build. Log messages and results
+   * stream back to the build as the specs run. Forks are kept for later executions when reuseWebDrivers is true.
+   * This setting only applies to HtmlUnit; it loads the spec runner from ${jasmineTargetDir} even when inMemoryRunner
+   * is set, gives each shard its own failure count for maxFailures, and doesn't work with warmShards.
+   *
+   * @parameter default-value="false" expression="${jasmine.fork}"
+   */
+  protected boolean fork;
+
+  /**
+   * Whitespace separated arguments for the JVM forked to run the specs in, e.g. "-Xmx1g -XX:+UseParallelGC".
+   *
+   * @parameter expression="${jasmine.forkArgLine}"
+   */
+  protected String forkArgLine;
+
+  /**
+   * True to run the specs (and compile CoffeeScript) in a background JVM that outlives the build, so HtmlUnit, Rhino
+   * and the CoffeeScript compiler are already warm, and their caches full, when the next build comes along. The
+   * daemon is started by the first build that needs it, with the forkArgLine JVM arguments, and is shared by every
+   * build on the machine run with the same version of the plugin; it reads the spec runner and scripts from disk,
+   * so only what changed since the last build gets compiled again. This setting takes precedence over fork and has
+   * the same restrictions; starting the daemon takes Java 7 or later.
+   *
+   * @parameter default-value="false" expression="${jasmine.daemon}"
+   */
+  protected boolean daemon;
+
+  /**
+   * How many minutes the daemon (see daemon) waits for another build before it exits.
+   *
+   * @parameter default-value="30" expression="${jasmine.daemonIdleTimeout}"
+   */
+  protected int daemonIdleTimeout;
+
   /**
    * Determines the format that jasmine:test will print to console.
    *   Valid options:
@@ -139,6 +209,157 @@ public abstract class AbstractJasmineMojo extends AbstractMojo {
    */
   protected boolean debug;
 
+  /**
+   * Number of shards jasmine:test splits the spec files into. Each shard gets its own spec runner and
+   * runs in its own browser, in parallel with the other shards. The results and JUnit XML reports of all
+   * shards are merged into a single report.
+   *
+   *   Valid options:
+   *     a positive number - (default is 1, which runs every spec in a single runner)
+   *     "auto" - pick a shard count from the available processors and heap
+   *
+   * @parameter default-value="1" expression="${jasmine.shards}"
+   */
+  protected String shards;
+
+  /**
+   * True to run the shards on warm pages instead of giving each one a spec runner of its own. Each browser loads
+   * Jasmine, the preloads and the sources once, and then runs its share of the shards one after the other on that
+   * page, each with a new jasmine.Env and with its spec files loaded into a scope of their own, so whatever a
+   * shard's spec files declare at the top level (with var or function) doesn't leak into the next shard. Changes
+   * specs make to the page itself (e.g. to the DOM, to the sources' objects or through undeclared globals) do
+   * carry over. This setting only applies to HtmlUnit, and not to
+   * the REQUIRE_JS specRunnerTemplate.
+   *
+   * @parameter default-value="false" expression="${jasmine.warmShards}"
+   */
+  protected boolean warmShards;
+
+  /**
+   * True to have HtmlUnit load the spec runner, sources and specs straight from the project directory, through an
+   * in-memory web connection, instead of copying them to ${jasmineTargetDir} and loading the runner from a file.
+   * CoffeeScript is compiled as it's loaded. This setting does nothing if the plugin is configured not to use HtmlUnit.
+   *
+   * @parameter default-value="false" expression="${jasmine.inMemoryRunner}"
+   */
+  protected boolean inMemoryRunner;
+
+  /**
+   * Number of slowest specs (and suites) jasmine:test lists after its results. 0 (the default) doesn't list any.
+   * Spec durations are written to the JUnit XML report either way.
+   *
+   * @parameter default-value="0" expression="${jasmine.slowestSpecs}"
+   */
+  protected int slowestSpecs;
+
+  /**
+   * Number of spec failures after which jasmine:test stops running specs. The rest of the specs are skipped,
+   * and the results so far are reported right away. 0 (the default) runs every spec regardless of failures.
+   *
+   * @parameter default-value="0" expression="${jasmine.maxFailures}"
+   */
+  protected int maxFailures;
+
+  /**
+   * Comma separated patterns of the spec files jasmine:test runs, relative to jsTestSrcDir, for a focused run
+   * without editing specIncludes, e.g. -Djasmine.spec=PlayerSpec or -Djasmine.spec=player/**. A pattern without a
+   * directory matches the file in any directory, and one without an extension matches any extension, so
+   * "PlayerSpec" stands for "**&#47;PlayerSpec.*". The other spec files aren't loaded at all. A focused run isn't
+   * remembered by skipWhenUpToDate, affectedSpecsOnly or failingSpecsFirst.
+   *
+   * @parameter expression="${jasmine.spec}"
+   */
+  protected String spec;
+
+  /**
+   * Text that a spec's full name (the descriptions of its suites and its own, separated by spaces) has to contain
+   * for jasmine:test to run it, e.g. -Djasmine.specFilter="Player when song has been paused". Specs that don't
+   * match are left out of the results, and the build fails if none match. Combine it with spec to also keep the other
+   * spec files from being loaded.
+   *
+   * @parameter expression="${jasmine.specFilter}"
+   */
+  protected String specFilter;
+
+  /**
+   * Seconds a single spec may take (e.g. waiting on an async block that never finishes) before jasmine:test fails it,
+   * skips the rest of it (including its afterEach blocks) and moves on to the next spec. 0 (the default) lets every
+   * spec take as long as its waitsFor timeouts and the overall timeout allow; set it longer than any of those.
+   *
+   * @parameter default-value="0" expression="${jasmine.specTimeout}"
+   */
+  protected int specTimeout;
+
+  /**
+   * Number of JavaScript instructions a single spec may run in HtmlUnit (or Rhino, see engine) before jasmine:test aborts it with an error,
+   * which fails the spec, so a spec stuck in an endless loop can't hold up the rest. Rhino runs somewhere between
+   * 35 and 65 million instructions a second, so the default stops an endless loop in about 15 to 30 seconds. 0 doesn't limit specs. Other web drivers ignore this;
+   * they rely on specTimeout (which only applies once a spec gives the browser a chance to run timers) and timeout.
+   *
+   * @parameter default-value="1000000000" expression="${jasmine.specInstructionBudget}"
+   */
+  protected long specInstructionBudget;
+
+  /**
+   * True to have jasmine:test run specs on a virtual clock: setTimeout, setInterval and Date are replaced, and when
+   * the next timer isn't due yet the clock skips straight to it, so specs that wait on timers (debouncing, polling,
+   * Jasmine's waits and waitsFor) finish as fast as they can run instead of in real time. Timers still run in the
+   * order they're due. Specs that wait on something other than a timer (e.g. a real XMLHttpRequest) may find the
+   * clock has moved on without it. Durations in reports are still real time.
+   *
+   * @parameter default-value="false" expression="${jasmine.virtualTime}"
+   */
+  protected boolean virtualTime;
+
+  /**
+   * True to have jasmine:test run specs in a lean headless runner: jasmine-html.js and jasmine.css (which only the HTML
+   * reporter of jasmine:bdd needs) are left out of the runner, which is a bare page without a title or body content,
+   * and HtmlUnit skips CSS and blocks popups. Specs that depend on styles (e.g. computed styles or visibility set by a
+   * stylesheet) or on window.open should leave this off. A customRunnerTemplate is still used as it is, just without
+   * jasmine-html.js and jasmine.css.
+   *
+   * @parameter default-value="false" expression="${jasmine.lean}"
+   */
+  protected boolean lean;
+
+  /**
+   * True to skip running the specs when nothing they depend on changed since the last passing run of jasmine:test:
+   * not a single script (going by content), customRunnerTemplate, customRunnerConfiguration, browserVersion, other
+   * relevant configuration or the plugin itself. The results of that run are printed again, and its JUnit XML reports
+   * are kept. Projects that load scripts from the web always run their specs.
+   *
+   * @parameter default-value="true" expression="${jasmine.skipWhenUpToDate}"
+   */
+  protected boolean skipWhenUpToDate;
+
+  /**
+   * True to run the spec files that failed in the previous run of jasmine:test before all the others (and, in sharded
+   * runs, in the first shard), so you find out whether a fix worked as soon as possible. The failing spec files are
+   * remembered in ${jasmineTargetDir}. Spec files that define no suites (e.g. helpers) stay ahead of them. Off by
+   * default, since specs that depend on running in a certain order can break when moved.
+   *
+   * @parameter default-value="false" expression="${jasmine.failingSpecsFirst}"
+   */
+  protected boolean failingSpecsFirst;
+
+  /**
+   * True to only run the specs affected by what changed since the last passing run of jasmine:test: the specs that
+   * changed themselves, or that depend (transitively, through define([...]) and require([...]) calls) on a changed
+   * module. Every spec runs when there's no earlier passing run, or when a preload changed. This setting only
+   * applies to the REQUIRE_JS specRunnerTemplate.
+   *
+   * @parameter default-value="false" expression="${jasmine.affectedSpecsOnly}"
+   */
+  protected boolean affectedSpecsOnly;
+
+  /**
+   * True to run every spec even though affectedSpecsOnly or skipWhenUpToDate is set, e.g. after changing require.js'
+   * configuration.
+   *
+   * @parameter default-value="false" expression="${jasmine.forceAllSpecs}"
+   */
+  protected boolean forceAllSpecs;
+
   /**
    * @parameter default-value="${project.build.directory}${file.separator}${project.build.finalName}"
    */
@@ -159,6 +380,14 @@ public abstract class AbstractJasmineMojo extends AbstractMojo {
    */
   protected String junitXmlReportFileName;
 
+  /**
+   * True to write a JUnit XML report per top level describe (e.g. TEST-jasmine.HelloWorld.xml), instead of a
+   * single ${junitXmlReportFileName} for every spec. The reports are written in parallel.
+   *
+   * @parameter default-value="false" expression="${jasmine.junitXmlReportPerSuite}"
+   */
+  protected boolean junitXmlReportPerSuite;
+
   /**
    * @parameter default-value="spec"
    */
@@ -204,13 +433,17 @@ public abstract class AbstractJasmineMojo extends AbstractMojo {
    */
   protected int serverPort;
 
-  /** List of properties to register in {@link System#getProperties()}.
+  /** List of properties to register in {@link System#getProperties()} while a custom webDriverClassName is
+   * being created, so it can get context from the current execution. System properties are global, so only one
+   * execution (e.g. of a parallel build) registers them at a time, and HtmlUnit doesn't get them at all.
    *
    * @parameter
    */
   @SuppressWarnings("rawtypes")
   private Map systemProperties = new HashMap();
 
+  private static final Object SYSTEM_PROPERTIES_LOCK = new Object();
+
   /**
    * Determines the strategy to use when generation the JasmineSpecRunner. This feature allows for custom
    * implementation of the runner generator. Typically this is used when using different script runners.
@@ -238,7 +471,6 @@ public abstract class AbstractJasmineMojo extends AbstractMojo {
   public final void execute() throws MojoExecutionException, MojoFailureException {
     sources = new ScriptSearch(jsSrcDir,sourceIncludes,sourceExcludes);
     specs = new ScriptSearch(jsTestSrcDir,specIncludes,specExcludes);
-    registerSystemProperties();
     try {
       run();
     } catch(MojoFailureException e) {
@@ -266,6 +498,14 @@ public abstract class AbstractJasmineMojo extends AbstractMojo {
     return jasmineTargetDir;
   }
 
+  public String getJunitXmlReportFileName() {
+    return junitXmlReportFileName;
+  }
+
+  public String getFormat() {
+    return format;
+  }
+
   public String getSrcDirectoryName() {
     return srcDirectoryName;
   }
@@ -299,13 +539,54 @@ public abstract class AbstractJasmineMojo extends AbstractMojo {
       return scriptLoaderPath;
   }
 
-  /** Registers system properties in {@link System#getProperties()} so custom
-   * {@link WebDriver}s are able to get context from the current execution.
+  public int getMaxFailures() {
+    return maxFailures;
+  }
+
+  public String getSpecFilter() {
+    return specFilter;
+  }
+
+  public int getSpecTimeout() {
+    return specTimeout;
+  }
+
+  public boolean isVirtualTime() {
+    return virtualTime;
+  }
+
+  public boolean isLean() {
+    return lean;
+  }
+
+  /** @return what connects to the daemon (see daemon) started from this version of the plugin. */
+  protected ConnectsToDaemon connectsToDaemon() {
+    return new ConnectsToDaemon(forkArgLine, getClass().getClassLoader(), daemonIdleTimeout * 60000L);
+  }
+
+  /** Registers system properties in {@link System#getProperties()} and calls the given callable
+   * before any other execution can register its own, so custom {@link WebDriver}s are able to get
+   * context from the current execution. The properties get their previous values back afterwards.
    */
-  private void registerSystemProperties() {
-    for (Object key : systemProperties.keySet()) {
-      System.setProperty(String.valueOf(key),
-          String.valueOf(systemProperties.get(key)));
+  protected <T> T withSystemProperties(Callable<T> callable) throws Exception {
+    synchronized (SYSTEM_PROPERTIES_LOCK) {
+      Map<String, String> previous = new HashMap<String, String>();
+      try {
+        for (Object key : systemProperties.keySet()) {
+          String name = String.valueOf(key);
+          previous.put(name, System.getProperty(name));
+          System.setProperty(name, String.valueOf(systemProperties.get(key)));
+        }
+        return callable.call();
+      } finally {
+        for (String name : previous.keySet()) {
+          if (previous.get(name) == null) {
+            System.clearProperty(name);
+          } else {
+            System.setProperty(name, previous.get(name));
+          }
+        }
+      }
     }
   }
 }
@@ -6,6 +6,7 @@ import java.io.IOException;
  * @component
  * @goal generateManualRunner
  * @phase generate-sources
+ * @threadSafe
  */
 public class GenerateManualRunnerMojo extends AbstractJasmineMojo {
 
@@ -4,11 +4,13 @@ import java.io.File;
 import java.io.IOException;
 
 import com.github.searls.jasmine.coffee.CompilesAllCoffeeInDirectory;
+import com.github.searls.jasmine.daemon.DaemonCoffeeScript;
 import com.github.searls.jasmine.io.DirectoryCopier;
 
 /**
  * @goal resources
  * @phase process-resources
+ * @threadSafe
  */
 public class ProcessResourcesMojo extends AbstractJasmineMojo {
 
@@ -25,10 +27,23 @@ public class ProcessResourcesMojo extends AbstractJasmineMojo {
     if (sources.getDirectory().exists()) {
       File destination = new File(jasmineTargetDir, srcDirectoryName);
       directoryCopier.copyDirectory(sources.getDirectory(), destination);
-      compilesAllCoffeeInDirectory.compile(destination);
+      compileCoffee(destination);
     } else {
       getLog().warn(MISSING_DIR_WARNING);
     }
   }
 
+  private void compileCoffee(File destination) throws IOException {
+    if (!daemon) {
+      compilesAllCoffeeInDirectory.compile(destination);
+      return;
+    }
+    DaemonCoffeeScript coffeeScript = new DaemonCoffeeScript(connectsToDaemon(), getLog());
+    try {
+      compilesAllCoffeeInDirectory.compile(destination, coffeeScript);
+    } finally {
+      coffeeScript.close();
+    }
+  }
+
 }
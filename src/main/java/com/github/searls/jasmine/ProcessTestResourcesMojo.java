@@ -4,6 +4,7 @@ import java.io.File;
 import java.io.IOException;
 
 import com.github.searls.jasmine.coffee.CompilesAllCoffeeInDirectory;
+import com.github.searls.jasmine.daemon.DaemonCoffeeScript;
 import com.github.searls.jasmine.io.DirectoryCopier;
 
 /**
@@ -11,6 +12,7 @@ import com.github.searls.jasmine.io.DirectoryCopier;
  *
  * @goal testResources
  * @phase process-test-resources
+ * @threadSafe
  */
 public class ProcessTestResourcesMojo extends AbstractJasmineMojo {
 
@@ -27,10 +29,23 @@ public class ProcessTestResourcesMojo extends AbstractJasmineMojo {
     if (specs.getDirectory().exists()) {
       File destination = new File(jasmineTargetDir, specDirectoryName);
       directoryCopier.copyDirectory(specs.getDirectory(), destination);
-      compilesAllCoffeeInDirectory.compile(destination);
+      compileCoffee(destination);
     } else {
       getLog().warn(MISSING_DIR_WARNING);
     }
   }
 
+  private void compileCoffee(File destination) throws IOException {
+    if (!daemon) {
+      compilesAllCoffeeInDirectory.compile(destination);
+      return;
+    }
+    DaemonCoffeeScript coffeeScript = new DaemonCoffeeScript(connectsToDaemon(), getLog());
+    try {
+      compilesAllCoffeeInDirectory.compile(destination, coffeeScript);
+    } finally {
+      coffeeScript.close();
+    }
+  }
+
 }
@@ -1,6 +1,7 @@
 package com.github.searls.jasmine;
 
 import com.github.searls.jasmine.io.RelativizesFilePaths;
+import com.github.searls.jasmine.server.CollectsSpecResults;
 import com.github.searls.jasmine.server.JasmineResourceHandler;
 import org.eclipse.jetty.server.Handler;
 import org.eclipse.jetty.server.handler.*;
@@ -12,10 +13,12 @@ public class ResourceHandlerConfigurator {
 
   private AbstractJasmineMojo configuration;
   private RelativizesFilePaths relativizesFilePaths;
+  private CollectsSpecResults collectsSpecResults;
 
   public ResourceHandlerConfigurator(AbstractJasmineMojo configuration, RelativizesFilePaths relativizesFilePaths) {
     this.configuration = configuration;
     this.relativizesFilePaths = relativizesFilePaths;
+    this.collectsSpecResults = new CollectsSpecResults(configuration);
   }
 
   public Handler createHandler(String specRunnerTemplate) throws IOException {
@@ -54,7 +57,7 @@ public class ResourceHandlerConfigurator {
   }
 
   private ResourceHandler createResourceHandler(boolean directory, String absolutePath, String[] welcomeFiles) throws IOException {
-    ResourceHandler resourceHandler = new JasmineResourceHandler(configuration);
+    ResourceHandler resourceHandler = new JasmineResourceHandler(configuration, collectsSpecResults);
     resourceHandler.setDirectoriesListed(directory);
     if (null != welcomeFiles) {
       resourceHandler.setWelcomeFiles(welcomeFiles);
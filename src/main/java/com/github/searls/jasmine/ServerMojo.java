@@ -11,6 +11,7 @@ import com.github.searls.jasmine.io.RelativizesFilePaths;
  * @goal bdd
  * @execute phase="jasmine-generate-runner"
  * @requiresDirectInvocation true
+ * @threadSafe
  */
 public class ServerMojo extends AbstractJasmineMojo {
 
@@ -23,7 +24,9 @@ public class ServerMojo extends AbstractJasmineMojo {
     "  source directory: %s\n\n"+
     "  spec directory: %s"+
     "\n\n"+
-    "Just leave this process running as you test-drive your code, refreshing your browser window to re-run your specs. You can kill the server with Ctrl-C when you're done.";
+    "Just leave this process running as you test-drive your code, refreshing your browser window to re-run your specs. You can kill the server with Ctrl-C when you're done."+
+    "\n\n"+
+    "Every browser that runs the specs posts its results back here: they're logged below, and written as a JUnit XML report per browser. So you can also point several browsers (headless ones included) at the URL at once.";
 
   private Server server = new Server();
 
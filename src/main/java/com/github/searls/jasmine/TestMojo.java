@@ -6,12 +6,32 @@ import java.lang.reflect.Constructor;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
-
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.github.searls.jasmine.daemon.ConnectsToDaemon;
+import com.github.searls.jasmine.io.scripts.ProjectDirScripResolver;
+import com.github.searls.jasmine.io.scripts.ScriptResolver;
+import com.github.searls.jasmine.io.scripts.SelectsAffectedSpecs;
+import com.github.searls.jasmine.io.scripts.SelectsSpecFiles;
+import com.github.searls.jasmine.io.scripts.ShardScriptResolver;
 import com.github.searls.jasmine.io.scripts.TargetDirScriptResolver;
 import com.github.searls.jasmine.runner.*;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.lang.StringUtils;
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.artifact.factory.ArtifactFactory;
 import org.apache.maven.artifact.metadata.ArtifactMetadataSource;
@@ -27,11 +47,9 @@ import org.apache.maven.project.artifact.MavenMetadataSource;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.htmlunit.HtmlUnitDriver;
 
-import com.gargoylesoftware.htmlunit.BrowserVersion;
-import com.gargoylesoftware.htmlunit.IncorrectnessListener;
-import com.gargoylesoftware.htmlunit.NicelyResynchronizingAjaxController;
-import com.gargoylesoftware.htmlunit.WebClient;
 import com.github.searls.jasmine.format.JasmineResultLogger;
+import com.github.searls.jasmine.format.SlowestSpecsLogger;
+import com.github.searls.jasmine.format.WritesJunitXmlReport;
 import com.github.searls.jasmine.model.JasmineResult;
 
 
@@ -39,6 +57,7 @@ import com.github.searls.jasmine.model.JasmineResult;
  * @component
  * @goal test
  * @phase test
+ * @threadSafe
  */
 public class TestMojo extends AbstractJasmineMojo {
   /**
@@ -77,77 +96,541 @@ public class TestMojo extends AbstractJasmineMojo {
    */
   private MavenProject project;
 
+  private InMemoryWebConnection inMemoryWebConnection;
+  private TracksSlowestSpecs tracksSlowestSpecs;
+  private FailureLimit failureLimit;
+  private SelectsAffectedSpecs selectsAffectedSpecs;
+  private RemembersFailingSpecs remembersFailingSpecs;
+  private RemembersSpecFileDurations remembersSpecFileDurations;
+  private ChecksUpToDate checksUpToDate;
+  private SpecEngine specEngine;
+  private List<String> browserVersions;
+  private Map<String, JasmineResult> browserVersionResults;
+  private List<String> forkCommand;
+  private ConnectsToDaemon connectsToDaemon;
+
   public void run() throws Exception {
     if(!skipTests) {
       getLog().info("Executing Jasmine Specs");
-      File runnerFile = writeSpecRunnerToOutputDirectory();
-      JasmineResult result = executeSpecs(runnerFile);
+      specEngine = specEngine();
+      browserVersions = browserVersions();
+      connectsToDaemon = daemon();
+      forkCommand = connectsToDaemon == null ? forkCommand() : null;
+      if (slowestSpecs > 0) {
+        tracksSlowestSpecs = new TracksSlowestSpecs(slowestSpecs);
+      }
+      if (maxFailures > 0) {
+        failureLimit = new FailureLimit(maxFailures);
+      }
+      if (StringUtils.isNotBlank(specFilter)) {
+        getLog().info("Running only the specs whose full name contains \"" + specFilter + "\"");
+      }
+      if (focused()) {
+        getLog().debug("Focused run; leaving affectedSpecsOnly, failingSpecsFirst and skipWhenUpToDate out of it");
+      } else if (affectedSpecsOnly && SpecRunnerHtmlGeneratorFactory.REQUIRE_JS.equals(specRunnerTemplate)) {
+        selectsAffectedSpecs = new SelectsAffectedSpecs(new File(jasmineTargetDir, SelectsAffectedSpecs.SNAPSHOT_FILE_NAME), sourceEncoding);
+      } else if (affectedSpecsOnly) {
+        getLog().warn("affectedSpecsOnly only applies to the " + SpecRunnerHtmlGeneratorFactory.REQUIRE_JS + " specRunnerTemplate; running every spec.");
+      }
+      if (StringUtils.isBlank(specFilter)) {
+        remembersSpecFileDurations = new RemembersSpecFileDurations(new File(jasmineTargetDir, RemembersSpecFileDurations.FILE_NAME), sourceEncoding);
+      }
+      if (failingSpecsFirst && !focused()) {
+        remembersFailingSpecs = new RemembersFailingSpecs(new File(jasmineTargetDir, RemembersFailingSpecs.FILE_NAME), sourceEncoding);
+      }
+      if (skipWhenUpToDate && !forceAllSpecs && !focused()) {
+        checksUpToDate = new ChecksUpToDate(new File(jasmineTargetDir, ChecksUpToDate.FILE_NAME));
+      }
+      ScriptResolver scriptResolver = createScriptResolver();
+      String fingerprint = checksUpToDate != null ? checksUpToDate.fingerprint(scriptResolver, fingerprintedConfiguration(), Arrays.asList(customRunnerTemplate, customRunnerConfiguration)) : null;
+      JasmineResult lastPassingRun = checksUpToDate != null ? checksUpToDate.lastPassingRun(fingerprint) : null;
+      if (lastPassingRun != null) {
+        getLog().info("Nothing changed since the last passing run; skipping Jasmine Specs and keeping its results");
+        logResults(lastPassingRun);
+        return;
+      }
+      JasmineResult result = executeSpecs(scriptResolver);
+      if (result == null) {
+        saveAffectedSpecsSnapshot();
+        return;
+      }
+      List<File> junitXmlReports = writeJunitXmlReports(result);
+      logReuseStatistics();
       logResults(result);
+      logSlowestSpecs();
+      if (result.didPass()) {
+        saveAffectedSpecsSnapshot();
+      }
+      if (checksUpToDate != null) {
+        checksUpToDate.record(fingerprint, result, junitXmlReports);
+      }
       throwAnySpecFailures(result);
     } else {
       getLog().info("Skipping Jasmine Specs");
     }
   }
 
-  private File writeSpecRunnerToOutputDirectory() throws IOException {
+  /** @return the result of running the specs, or null when none of them are affected by a change. */
+  private JasmineResult executeSpecs(ScriptResolver scriptResolver) throws Exception {
+    if (StringUtils.isNotBlank(spec)) {
+      Set<String> specFiles = new SelectsSpecFiles(spec).select(scriptResolver.getSpecs(), scriptResolver.getSpecDirectoryPath());
+      if (specFiles.isEmpty()) {
+        throw new MojoFailureException("None of the " + scriptResolver.getSpecs().size() + " spec files match jasmine.spec=" + spec);
+      }
+      getLog().info("Running the " + specFiles.size() + " of " + scriptResolver.getSpecs().size() + " spec files matching " + spec);
+      scriptResolver = new ShardScriptResolver(scriptResolver, specFiles);
+    }
+    if (remembersFailingSpecs != null) {
+      scriptResolver = new ShardScriptResolver(scriptResolver, remembersFailingSpecs.failingFirst(scriptResolver.getSpecs(), scriptResolver.getSpecDirectoryPath()));
+    }
+    JasmineResult result = executeSelectedSpecs(scriptResolver);
+    if (result != null && StringUtils.isNotBlank(specFilter) && result.getSpecCount() == 0) {
+      throw new MojoFailureException("None of the specs in the " + scriptResolver.getSpecs().size() + " spec files have a full name containing jasmine.specFilter=" + specFilter);
+    }
+    if (result != null && remembersFailingSpecs != null) {
+      remembersFailingSpecs.remember(result, scriptResolver.getSpecs(), scriptResolver.getSpecDirectoryPath());
+    }
+    if (result != null && !result.isStopped() && remembersSpecFileDurations != null) {
+      Collection<JasmineResult> timed = browserVersionResults != null ? browserVersionResults.values() : Collections.singleton(result);
+      remembersSpecFileDurations.remember(timed, scriptResolver.getSpecs(), scriptResolver.getSpecDirectoryPath());
+    }
+    return result;
+  }
+
+  private JasmineResult executeSelectedSpecs(ScriptResolver scriptResolver) throws Exception {
+    if (selectsAffectedSpecs != null) {
+      Set<String> affectedSpecs = selectsAffectedSpecs.select(scriptResolver, forceAllSpecs);
+      if (affectedSpecs.isEmpty()) {
+        getLog().info("None of the " + scriptResolver.getSpecs().size() + " spec files are affected by changes since the last passing run; skipping Jasmine Specs");
+        return null;
+      }
+      if (affectedSpecs.size() < scriptResolver.getSpecs().size()) {
+        getLog().info("Running the " + affectedSpecs.size() + " of " + scriptResolver.getSpecs().size() + " spec files affected by changes since the last passing run");
+      }
+      scriptResolver = new ShardScriptResolver(scriptResolver, affectedSpecs);
+    }
+    int shardCount = new ResolvesShardCount().resolve(shards, scriptResolver.getSpecs().size());
+    List<SpecRun> runs = new ArrayList<SpecRun>();
+    if (shardCount > 1) {
+      List<Set<String>> shardSpecs = planShards(scriptResolver, shardCount);
+      if (warmShards()) {
+        return executeWarmShards(scriptResolver, shardSpecs);
+      }
+      for (int i = 0; i < shardSpecs.size(); i++) {
+        runs.add(specRun(new ShardScriptResolver(scriptResolver, shardSpecs.get(i)), shardFileName(specRunnerHtmlFileName, i + 1)));
+      }
+    } else {
+      runs.add(specRun(scriptResolver, specRunnerHtmlFileName));
+    }
+    return executeRuns(runs);
+  }
+
+  /** @return the spec files split into shards of about equal duration, going by how long
+   * they took last time; or of about equal size under a specFilter, which runs (and so
+   * times) only part of each spec file.
+   */
+  private List<Set<String>> planShards(ScriptResolver scriptResolver, int shardCount) throws IOException {
+    if (remembersSpecFileDurations == null) {
+      List<Set<String>> shardSpecs = new SplitsSpecsIntoShards().split(scriptResolver.getSpecs(), shardCount);
+      getLog().info("Splitting " + scriptResolver.getSpecs().size() + " spec files into " + shardSpecs.size() + " shards");
+      return shardSpecs;
+    }
+    int browsers = Runtime.getRuntime().availableProcessors() / browserVersions.size();
+    return new PlansShards(remembersSpecFileDurations, sourceEncoding).plan(scriptResolver.getSpecs(), scriptResolver.getSpecDirectoryPath(), shardCount, Math.max(1, browsers), getLog());
+  }
+
+  /** Runs every run (i.e. shard) on every browser version, in parallel, merging
+   * the results of each browser version's shards, and then those of the browser versions.
+   */
+  private JasmineResult executeRuns(List<SpecRun> specRuns) throws Exception {
+    if (specRuns.size() == 1 && browserVersions.size() == 1) {
+      return executeSpecs(specRuns.get(0).onBrowserVersion(browserVersions.get(0)));
+    }
+    List<Callable<List<JasmineResult>>> runs = new ArrayList<Callable<List<JasmineResult>>>();
+    for (String version : browserVersions) {
+      for (SpecRun specRun : specRuns) {
+        final SpecRun versionRun = specRun.onBrowserVersion(version);
+        runs.add(new Callable<List<JasmineResult>>() {
+          public List<JasmineResult> call() throws Exception {
+            return Collections.singletonList(executeSpecs(versionRun));
+          }
+        });
+      }
+    }
+    return executeInParallel(runs);
+  }
+
+  /** Loads a runner without any specs once per browser, and runs the shards on those
+   * warm pages as batches: each browser gets a contiguous share of the shards, so the
+   * merged results keep the shards' order.
+   */
+  private JasmineResult executeWarmShards(ScriptResolver scriptResolver, List<Set<String>> shardSpecs) throws Exception {
+    SpecRun warmRun = specRun(new ShardScriptResolver(scriptResolver, Collections.<String>emptySet()), specRunnerHtmlFileName);
+    URL warmRunner = warmRun.getRunner();
+    List<List<URL>> batches = new ArrayList<List<URL>>();
+    for (Set<String> specs : shardSpecs) {
+      ShardScriptResolver shard = new ShardScriptResolver(scriptResolver, specs);
+      List<URL> specUrls = new ArrayList<URL>();
+      for (String spec : inMemoryWebConnection != null ? shard.getSpecsRelativePath() : shard.getSpecs()) {
+        specUrls.add(new URL(warmRunner, spec));
+      }
+      batches.add(specUrls);
+    }
+    int browsers = Math.min(batches.size(), Runtime.getRuntime().availableProcessors());
+    getLog().info("Running the shards as batches on " + browsers + " warm page" + (browsers > 1 ? "s" : ""));
+    List<Callable<List<JasmineResult>>> runs = new ArrayList<Callable<List<JasmineResult>>>();
+    for (String version : browserVersions) {
+      final SpecRun versionRun = warmRun.onBrowserVersion(version);
+      for (int i = 0; i < browsers; i++) {
+        final List<List<URL>> share = batches.subList(i * batches.size() / browsers, (i + 1) * batches.size() / browsers);
+        runs.add(new Callable<List<JasmineResult>>() {
+          public List<JasmineResult> call() throws Exception {
+            return ((HtmlUnitEngine) specEngine).executeBatches(versionRun, share, createSpecRunnerExecutor(), getLog());
+          }
+        });
+      }
+    }
+    return executeInParallel(runs);
+  }
+
+  /** Runs the given runs (an equal number for each browser version, in the order of
+   * browserVersions) in parallel, merging the results of each browser version's runs,
+   * and then those of the browser versions.
+   */
+  private JasmineResult executeInParallel(List<Callable<List<JasmineResult>>> runs) throws Exception {
+    if (browserVersions.size() > 1) {
+      getLog().info("Running the specs on " + StringUtils.join(browserVersions, ", "));
+    }
+    int runsPerVersion = runs.size() / browserVersions.size();
+    ExecutorService drivers = Executors.newFixedThreadPool(Math.min(runs.size(), Runtime.getRuntime().availableProcessors()));
+    try {
+      List<Future<List<JasmineResult>>> results = drivers.invokeAll(runs);
+      Map<String, JasmineResult> versionResults = new LinkedHashMap<String, JasmineResult>();
+      for (int i = 0; i < browserVersions.size(); i++) {
+        List<JasmineResult> shardResults = new ArrayList<JasmineResult>();
+        for (Future<List<JasmineResult>> shardRun : results.subList(i * runsPerVersion, (i + 1) * runsPerVersion)) {
+          shardResults.addAll(shardResult(shardRun));
+        }
+        versionResults.put(browserVersions.get(i), shardResults.size() > 1 ? new MergesShardResults().merge(shardResults) : shardResults.get(0));
+      }
+      if (versionResults.size() == 1) {
+        return versionResults.values().iterator().next();
+      }
+      browserVersionResults = versionResults;
+      return new MergesBrowserVersionResults().merge(versionResults);
+    } finally {
+      drivers.shutdownNow();
+    }
+  }
+
+  /** @return whether to run the shards on warm pages (see warmShards). */
+  private boolean warmShards() {
+    if (!warmShards) {
+      return false;
+    }
+    if (runsRemotely()) {
+      getLog().warn("warmShards doesn't work with fork or daemon; giving each shard a spec runner of its own.");
+      return false;
+    }
+    if (!(specEngine instanceof HtmlUnitEngine) || SpecRunnerHtmlGeneratorFactory.REQUIRE_JS.equals(specRunnerTemplate)) {
+      getLog().warn("warmShards only applies to HtmlUnit (engine htmlunit), and not to the " + SpecRunnerHtmlGeneratorFactory.REQUIRE_JS + " specRunnerTemplate; giving each shard a spec runner of its own.");
+      return false;
+    }
+    return true;
+  }
 
-    SpecRunnerHtmlGenerator generator = new SpecRunnerHtmlGeneratorFactory().create(ReporterType.JsApiReporter, this, new TargetDirScriptResolver(this));
+  /** @return the browser versions (comma separated in browserVersion) to run the specs on. */
+  private List<String> browserVersions() {
+    Set<String> versions = new LinkedHashSet<String>();
+    for (String version : StringUtils.split(StringUtils.defaultString(browserVersion), ",")) {
+      if (StringUtils.isNotBlank(version)) {
+        versions.add(version.trim());
+      }
+    }
+    if (versions.size() > 1 && !(specEngine instanceof HtmlUnitEngine)) {
+      getLog().warn("browserVersion only applies to HtmlUnit; running the specs once with " + specEngine.getName());
+      return Collections.singletonList(versions.iterator().next());
+    }
+    return versions.isEmpty() ? Collections.singletonList(browserVersion) : new ArrayList<String>(versions);
+  }
+
+  /** @return the engine to run the specs in (see engine), or one driving webDriverClassName when it isn't the default. */
+  private SpecEngine specEngine() {
+    if (!HtmlUnitDriver.class.getName().equals(webDriverClassName)) {
+      if (!HtmlUnitEngine.NAME.equalsIgnoreCase(StringUtils.trim(engine))) {
+        getLog().warn("engine only applies to the default webDriverClassName; running the specs with " + webDriverClassName);
+      }
+      return new WebDriverEngine() {
+        public String getName() {
+          return webDriverClassName;
+        }
+
+        @Override
+        protected WebDriver createDriver(SpecRun run) {
+          return createCustomDriver();
+        }
+
+        // Custom webDriverClassName drivers aren't pooled: they're loaded from this project's
+        // dependencies and built with its systemProperties, so another execution can't share them.
+        @Override
+        protected boolean reusesDrivers(SpecRun run) {
+          return false;
+        }
+      };
+    }
+    SpecEngine specEngine = new FindsSpecEngine().find(engine, getClass().getClassLoader());
+    if (!(specEngine instanceof WebDriverEngine) && SpecRunnerHtmlGeneratorFactory.REQUIRE_JS.equals(specRunnerTemplate)) {
+      getLog().warn("The " + specEngine.getName() + " engine can't run the " + SpecRunnerHtmlGeneratorFactory.REQUIRE_JS + " specRunnerTemplate; running the specs in " + HtmlUnitEngine.NAME + ".");
+      return new HtmlUnitEngine();
+    }
+    if (!(specEngine instanceof WebDriverEngine) && customRunnerTemplate != null) {
+      getLog().warn("The " + specEngine.getName() + " engine runs the scripts without a spec runner, so customRunnerTemplate doesn't apply to it.");
+    }
+    return specEngine;
+  }
+
+  /** @return what connects to the daemon to run the specs on, or null to run them without one. */
+  private ConnectsToDaemon daemon() {
+    if (!daemon) {
+      return null;
+    }
+    if (!HtmlUnitDriver.class.getName().equals(webDriverClassName)) {
+      getLog().warn("daemon only applies to HtmlUnit; running the specs with " + webDriverClassName + " in Maven's JVM.");
+      return null;
+    }
+    if (fork) {
+      getLog().warn("daemon takes precedence over fork; running the specs on the daemon.");
+    }
+    return connectsToDaemon();
+  }
+
+  /** @return the command starting the JVM to run the specs in, or null to run them in Maven's. */
+  private List<String> forkCommand() {
+    if (!fork) {
+      return null;
+    }
+    if (!HtmlUnitDriver.class.getName().equals(webDriverClassName)) {
+      getLog().warn("fork only applies to HtmlUnit; running the specs with " + webDriverClassName + " in Maven's JVM.");
+      return null;
+    }
+    return ForkedJvm.command(forkArgLine, getClass().getClassLoader());
+  }
+
+  private ScriptResolver createScriptResolver() throws IOException {
+    if (inMemoryRunner && !HtmlUnitDriver.class.getName().equals(webDriverClassName)) {
+      getLog().warn("The in-memory runner only works with HtmlUnit; loading the spec runner from " + jasmineTargetDir + " instead.");
+    } else if (inMemoryRunner && runsRemotely()) {
+      getLog().warn("The in-memory runner doesn't work with fork or daemon; loading the spec runner from " + jasmineTargetDir + " instead.");
+    } else if (inMemoryRunner) {
+      inMemoryWebConnection = new InMemoryWebConnection(mavenProject.getBasedir(), sourceEncoding);
+      ScriptResolver scriptResolver = new ProjectDirScripResolver(mavenProject.getBasedir(), sources, specs, preloadSources);
+      scriptResolver.resolveScripts();
+      return scriptResolver;
+    }
+    return new TargetDirScriptResolver(this);
+  }
+
+  private <T> T shardResult(Future<T> shardRun) throws Exception {
+    try {
+      return shardRun.get();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof Exception) {
+        throw (Exception) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  private String shardFileName(String fileName, int shard) {
+    String extension = FilenameUtils.getExtension(fileName);
+    return FilenameUtils.removeExtension(fileName) + "-" + shard + (extension.length() > 0 ? "." + extension : "");
+  }
+
+  /** @return a run of the given scripts, with a spec runner for them written to (or served as) the given file. */
+  private SpecRun specRun(ScriptResolver scriptResolver, String fileName) throws IOException {
+    URL runner = writeSpecRunner(scriptResolver, fileName);
+    List<URL> scripts = new ArrayList<URL>();
+    for (String script : inMemoryWebConnection != null ? scriptResolver.getAllScriptsRelativePath() : scriptResolver.getAllScripts()) {
+      scripts.add(new URL(runner, script));
+    }
+    return new SpecRun(runner, scripts, specEngine.getName(), browserVersions.get(0), sourceEncoding, timeout, debug, format,
+      specInstructionBudget, maxFailures, specTimeout, specFilter, virtualTime, reuseWebDrivers, lean).servedFrom(inMemoryWebConnection);
+  }
+
+  private URL writeSpecRunner(ScriptResolver scriptResolver, String fileName) throws IOException {
+
+    SpecRunnerHtmlGenerator generator = new SpecRunnerHtmlGeneratorFactory().create(ReporterType.JsApiReporter, this, scriptResolver);
+
+    if (inMemoryWebConnection != null) {
+      String html = generator.generateWitRelativePaths();
+      getLog().debug("Serving Spec Runner HTML " + html + " from memory");
+      return inMemoryWebConnection.addPage(fileName, html);
+    }
 
     String html = generator.generate();
 
     getLog().debug("Writing out Spec Runner HTML " + html + " to directory " + jasmineTargetDir);
-    File runnerFile = new File(jasmineTargetDir,specRunnerHtmlFileName);
+    File runnerFile = new File(jasmineTargetDir,fileName);
     FileUtils.writeStringToFile(runnerFile, html);
-    return runnerFile;
+    return runnerFile.toURI().toURL();
   }
 
-  private JasmineResult executeSpecs(File runnerFile) throws MalformedURLException {
-    WebDriver driver = createDriver();
-    JasmineResult result = new SpecRunnerExecutor().execute(
-      runnerFile.toURI().toURL(),
-      new File(jasmineTargetDir,junitXmlReportFileName),
-      driver,
-      timeout, debug, getLog(), format);
-    return result;
+  private JasmineResult executeSpecs(SpecRun run) throws IOException {
+    if (connectsToDaemon != null) {
+      return executeOnDaemon(run);
+    }
+    if (forkCommand != null) {
+      return executeForked(run);
+    }
+    return specEngine.execute(run, createSpecRunnerExecutor(), getLog());
   }
 
-  @SuppressWarnings("unchecked")
-  private WebDriver createDriver() {
-    if (!HtmlUnitDriver.class.getName().equals(webDriverClassName)) {
-      try {
-        ClassLoader classLoader = createDependenciesClassLoader();
-        Class<? extends WebDriver> klass;
-        klass = (Class<? extends WebDriver>) classLoader
-            .loadClass(webDriverClassName);
-        Constructor<? extends WebDriver> ctor = klass.getConstructor();
-        return ctor.newInstance();
-      } catch (Exception e) {
-        throw new RuntimeException("Couldn't instantiate webDriverClassName", e);
+  private JasmineResult executeForked(SpecRun run) throws IOException {
+    ForkedJvmPool pool = ForkedJvmPool.shared();
+    ForkedJvm forkedJvm = pool.acquire(forkCommand);
+    boolean reusable = false;
+    try {
+      JasmineResult result = forkedJvm.execute(run, remoteListeners(), getLog());
+      reusable = true;
+      return result;
+    } finally {
+      if (reuseWebDrivers && reusable) {
+        pool.release(forkCommand, forkedJvm);
+      } else {
+        pool.discard(forkedJvm);
       }
     }
+  }
 
-    // We have extra configuration to do to the HtmlUnitDriver
-    BrowserVersion htmlUnitBrowserVersion;
+  private JasmineResult executeOnDaemon(SpecRun run) throws IOException {
+    RemoteSpecRunner remote = connectsToDaemon.connect(getLog());
     try {
-      htmlUnitBrowserVersion = (BrowserVersion) BrowserVersion.class.getField(browserVersion).get(BrowserVersion.class);
-    } catch (Exception e) {
-      throw new RuntimeException(e);
+      return remote.execute(run, remoteListeners(), getLog());
+    } finally {
+      remote.close();
     }
-    HtmlUnitDriver driver = new HtmlUnitDriver(htmlUnitBrowserVersion) {
-      protected WebClient modifyWebClient(WebClient client) {
-        client.setAjaxController(new NicelyResynchronizingAjaxController());
+  }
 
-        //Disables stuff like this "com.gargoylesoftware.htmlunit.IncorrectnessListenerImpl notify WARNING: Obsolete content type encountered: 'text/javascript'."
-        if (!debug)
-          client.setIncorrectnessListener(new IncorrectnessListener() {
-                public void notify(String arg0, Object arg1) {}
-        });
+  /** @return the listeners for the results a forked JVM or the daemon streams back. */
+  private List<SpecResultListener> remoteListeners() {
+    List<SpecResultListener> listeners = new ArrayList<SpecResultListener>();
+    if (tracksSlowestSpecs != null) {
+      listeners.add(tracksSlowestSpecs);
+    }
+    if (failureLimit != null) {
+      listeners.add(failureLimit);
+    }
+    return listeners;
+  }
 
-        return client;
-      };
-    };
-    driver.setJavascriptEnabled(true);
-    return driver;
+  /** @return whether only some of the specs run (see spec and specFilter), so the run says nothing about the rest. */
+  private boolean focused() {
+    return StringUtils.isNotBlank(spec) || StringUtils.isNotBlank(specFilter);
+  }
+
+  private boolean runsRemotely() {
+    return forkCommand != null || connectsToDaemon != null;
+  }
+
+  private SpecRunnerExecutor createSpecRunnerExecutor() {
+    SpecRunnerExecutor specRunnerExecutor = new SpecRunnerExecutor();
+    if (tracksSlowestSpecs != null) {
+      specRunnerExecutor.addListener(tracksSlowestSpecs);
+    }
+    if (failureLimit != null) {
+      specRunnerExecutor.setFailureLimit(failureLimit);
+    }
+    return specRunnerExecutor;
+  }
+
+  private void saveAffectedSpecsSnapshot() throws IOException {
+    if (selectsAffectedSpecs != null) {
+      selectsAffectedSpecs.saveSnapshot();
+    }
+  }
+
+  private List<File> writeJunitXmlReports(JasmineResult result) throws IOException {
+    if (browserVersionResults == null) {
+      return writeJunitXmlReports(result, junitXmlReportFileName, new WritesJunitXmlReport());
+    }
+    List<File> reports = new ArrayList<File>();
+    for (Map.Entry<String, JasmineResult> versionResult : browserVersionResults.entrySet()) {
+      String version = versionResult.getKey();
+      String fileName = FilenameUtils.removeExtension(junitXmlReportFileName) + "-" + version + "." + FilenameUtils.getExtension(junitXmlReportFileName);
+      reports.addAll(writeJunitXmlReports(versionResult.getValue(), fileName, new WritesJunitXmlReport("jasmine." + version)));
+    }
+    return reports;
+  }
+
+  private List<File> writeJunitXmlReports(JasmineResult result, String fileName, WritesJunitXmlReport writesJunitXmlReport) throws IOException {
+    File junitXmlReport = new File(jasmineTargetDir, fileName);
+    if (junitXmlReportPerSuite) {
+      List<File> reports = writesJunitXmlReport.writeSuites(result, junitXmlReport);
+      getLog().debug("Wrote " + reports.size() + " JUnit XML reports to " + jasmineTargetDir);
+      return reports;
+    }
+    writesJunitXmlReport.write(result, junitXmlReport);
+    return Collections.singletonList(junitXmlReport);
+  }
+
+  /** @return the configuration that (along with the scripts) determines the results of a run. */
+  private Map<String, Object> fingerprintedConfiguration() {
+    File plugin = FileUtils.toFile(getClass().getProtectionDomain().getCodeSource().getLocation());
+    Map<String, Object> configuration = new LinkedHashMap<String, Object>();
+    configuration.put("plugin", plugin == null ? null : plugin + ":" + plugin.length() + ":" + plugin.lastModified());
+    configuration.put("webDriverClassName", webDriverClassName);
+    configuration.put("browserVersion", browserVersion);
+    configuration.put("engine", specEngine.getName());
+    configuration.put("specRunnerTemplate", specRunnerTemplate);
+    configuration.put("scriptLoaderPath", scriptLoaderPath);
+    configuration.put("sourceEncoding", sourceEncoding);
+    configuration.put("format", format);
+    configuration.put("maxFailures", maxFailures);
+    configuration.put("specTimeout", specTimeout);
+    configuration.put("specInstructionBudget", specInstructionBudget);
+    configuration.put("virtualTime", virtualTime);
+    configuration.put("lean", lean);
+    configuration.put("inMemoryRunner", inMemoryRunner);
+    configuration.put("warmShards", warmShards);
+    configuration.put("junitXmlReportFileName", junitXmlReportFileName);
+    configuration.put("junitXmlReportPerSuite", junitXmlReportPerSuite);
+    return configuration;
+  }
+
+  private void logReuseStatistics() {
+    if (connectsToDaemon != null) {
+      return;
+    }
+    if (forkCommand != null) {
+      if (reuseWebDrivers) {
+        getLog().info("Forked JVM pool: " + ForkedJvmPool.shared().statistics());
+      }
+      return;
+    }
+    if (reuseWebDrivers) {
+      getLog().info("Web driver pool: " + WebDriverPool.shared().statistics());
+    }
+    if (HtmlUnitDriver.class.getName().equals(webDriverClassName)) {
+      getLog().info("Compiled script cache: " + CompiledScriptCache.shared().statistics());
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private WebDriver createCustomDriver() {
+    try {
+      ClassLoader classLoader = createDependenciesClassLoader();
+      Class<? extends WebDriver> klass;
+      klass = (Class<? extends WebDriver>) classLoader
+          .loadClass(webDriverClassName);
+      final Constructor<? extends WebDriver> ctor = klass.getConstructor();
+      return withSystemProperties(new Callable<WebDriver>() {
+        public WebDriver call() throws Exception {
+          return ctor.newInstance();
+        }
+      });
+    } catch (Exception e) {
+      throw new RuntimeException("Couldn't instantiate webDriverClassName", e);
+    }
   }
 
 
@@ -157,6 +640,14 @@ public class TestMojo extends AbstractJasmineMojo {
     resultLogger.log(result);
   }
 
+  private void logSlowestSpecs() {
+    if (tracksSlowestSpecs != null) {
+      SlowestSpecsLogger slowestSpecsLogger = new SlowestSpecsLogger();
+      slowestSpecsLogger.setLog(getLog());
+      slowestSpecsLogger.log(tracksSlowestSpecs.getSlowestSpecs(), tracksSlowestSpecs.getSlowestSuites());
+    }
+  }
+
   private void throwAnySpecFailures(JasmineResult result) throws MojoFailureException {
     if(haltOnFailure && !result.didPass()) {
       throw new MojoFailureException("There were Jasmine spec failures.");
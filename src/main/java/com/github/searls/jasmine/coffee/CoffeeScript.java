@@ -1,9 +1,10 @@
 package com.github.searls.jasmine.coffee;
 
 import java.io.IOException;
-import java.util.Collections;
 import java.util.Map;
-import java.util.WeakHashMap;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.apache.commons.lang.StringEscapeUtils;
 
@@ -13,38 +14,52 @@ import com.gargoylesoftware.htmlunit.WebClient;
 import com.gargoylesoftware.htmlunit.html.HtmlPage;
 import com.github.searls.jasmine.io.IOUtilsWrapper;
 
+/** Compiles CoffeeScript to JavaScript in HtmlUnit pages that have the compiler loaded. The pages
+ * are pooled for every instance (and thread), so only the first compilation in a JVM pays for
+ * loading the compiler, and each page is used by one thread at a time. What's been compiled is
+ * cached, up to {@link #MAX_CACHED_SCRIPTS} scripts.
+ */
 public class CoffeeScript {
 
-  private static Map<String,String> cache = Collections.synchronizedMap(new WeakHashMap<String,String>());
-
-  private ThreadLocal<HtmlPage> htmlPage = new ThreadLocal<HtmlPage>() {
-    @Override
-    protected HtmlPage initialValue() {
-      MockWebConnection webConnection = new MockWebConnection();
-      WebClient webClient = new WebClient();
-      webClient.setWebConnection(webConnection);
-      try {
-        HtmlPage page = webClient.getPage(WebClient.URL_ABOUT_BLANK);
-        page.executeJavaScript(ioUtilsWrapper.toString("/vendor/js/coffee-script.js"));
-        return page;
-      } catch (IOException e) {
-        throw new RuntimeException(e);
-      }
-    }
-  };
+  public static final int MAX_CACHED_SCRIPTS = 1000;
+
+  private static Map<String,String> cache = new ConcurrentHashMap<String,String>();
+  private static final Queue<HtmlPage> idlePages = new ConcurrentLinkedQueue<HtmlPage>();
 
   private IOUtilsWrapper ioUtilsWrapper = new IOUtilsWrapper();
 
   public String compile(String coffee) throws IOException {
     String escapedCoffee = StringEscapeUtils.escapeJavaScript(coffee);
-    return cache.containsKey(escapedCoffee) ? cache.get(escapedCoffee) : compileAndCache(escapedCoffee);
+    String cached = cache.get(escapedCoffee);
+    return cached != null ? cached : compileAndCache(escapedCoffee);
   }
 
-  private String compileAndCache(String input) {
-    ScriptResult scriptResult = htmlPage.get().executeJavaScript(String.format("CoffeeScript.compile(\"%s\");", input));
+  private String compileAndCache(String input) throws IOException {
+    HtmlPage page = idlePages.poll();
+    if (page == null) {
+      page = createPage();
+    }
+    ScriptResult scriptResult;
+    try {
+      scriptResult = page.executeJavaScript(String.format("CoffeeScript.compile(\"%s\");", input));
+    } finally {
+      idlePages.add(page);
+    }
     String result = (String) scriptResult.getJavaScriptResult();
+    if (cache.size() >= MAX_CACHED_SCRIPTS) {
+      cache.clear();
+    }
     cache.put(input,result);
     return result;
   }
 
+  private HtmlPage createPage() throws IOException {
+    MockWebConnection webConnection = new MockWebConnection();
+    WebClient webClient = new WebClient();
+    webClient.setWebConnection(webConnection);
+    HtmlPage page = webClient.getPage(WebClient.URL_ABOUT_BLANK);
+    page.executeJavaScript(ioUtilsWrapper.toString("/vendor/js/coffee-script.js"));
+    return page;
+  }
+
 }
@@ -18,4 +18,11 @@ public class CompilesAllCoffeeInDirectory {
     }
   }
 
+  /** Compiles with the given compiler (e.g. the daemon's) instead of one of its own. */
+  public void compile(File directory, CoffeeScript coffeeScript) throws IOException {
+    for(File coffeeFile : fileUtilsWrapper.listFiles(directory, COFFEE_EXTENSIONS, true)) {
+      compilesCoffeeInPlace.compile(coffeeFile, coffeeScript);
+    }
+  }
+
 }
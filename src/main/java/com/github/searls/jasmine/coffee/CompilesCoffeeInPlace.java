@@ -12,6 +12,10 @@ public class CompilesCoffeeInPlace {
   private FileUtilsWrapper fileUtilsWrapper = new FileUtilsWrapper();
 
   public void compile(File coffeeFile) throws IOException {
+    compile(coffeeFile, coffeeScript);
+  }
+
+  public void compile(File coffeeFile, CoffeeScript coffeeScript) throws IOException {
     String coffee = fileUtilsWrapper.readFileToString(coffeeFile);
     FileWriter javaScriptWriter = new FileWriter(coffeeFile, false);
     javaScriptWriter.write(coffeeScript.compile(coffee));
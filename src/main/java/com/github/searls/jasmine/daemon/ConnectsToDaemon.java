@@ -0,0 +1,165 @@
+package com.github.searls.jasmine.daemon;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.channels.FileLock;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang.StringUtils;
+import org.apache.maven.plugin.logging.Log;
+
+import com.github.searls.jasmine.io.HashesContent;
+import com.github.searls.jasmine.io.RestrictsToOwner;
+import com.github.searls.jasmine.runner.ForkedJvm;
+import com.github.searls.jasmine.runner.RemoteSpecRunner;
+
+/** Connects to the {@link JasmineDaemon} started from this version of the plugin (with these
+ * JVM arguments), starting it first if it isn't running. The version is a hash of the
+ * command that starts the daemon and of the size and modification time of each jar on its
+ * classpath, so rebuilding or upgrading the plugin starts a new daemon rather than talking
+ * to a stale one; daemons of other versions exit once they've been idle long enough.
+ */
+public class ConnectsToDaemon {
+
+  public static final String DIRECTORY_NAME = ".jasmine-maven-plugin";
+
+  private static final int CONNECT_TIMEOUT_MILLIS = 5000;
+  private static final long STARTUP_TIMEOUT_MILLIS = 30000;
+  private static final Object STARTING = new Object();
+
+  private final List<String> command;
+  private final String version;
+  private final File portFile;
+
+  /** Keeps the daemon's port file (and log) in the {@link #DIRECTORY_NAME} directory of the user's home. */
+  public ConnectsToDaemon(String argLine, ClassLoader classLoader, long idleMillis) {
+    this(argLine, classLoader, idleMillis, new File(System.getProperty("user.home"), DIRECTORY_NAME));
+  }
+
+  public ConnectsToDaemon(String argLine, ClassLoader classLoader, long idleMillis, File directory) {
+    this.version = version(ForkedJvm.command(argLine, classLoader, JasmineDaemon.class), ForkedJvm.classpath(classLoader));
+    this.portFile = new File(directory, "daemon-" + version + ".port");
+    this.command = ForkedJvm.command(argLine, classLoader, JasmineDaemon.class, portFile.getAbsolutePath(), String.valueOf(idleMillis), version);
+  }
+
+  /** @return a connection to the running daemon, having started it if need be. Builds (and
+   * the threads of one) that find no daemon take turns to start it, so only one starts.
+   */
+  public RemoteSpecRunner connect(Log log) throws IOException {
+    RemoteSpecRunner remote = tryConnect();
+    if (remote != null) {
+      return remote;
+    }
+    synchronized (STARTING) {
+      FileUtils.forceMkdir(portFile.getParentFile());
+      RestrictsToOwner restrictsToOwner = new RestrictsToOwner();
+      restrictsToOwner.restrict(portFile.getParentFile());
+      RandomAccessFile lockFile = new RandomAccessFile(restrictsToOwner.restrict(new File(portFile.getPath() + ".lock")), "rw");
+      try {
+        FileLock lock = lockFile.getChannel().lock();
+        try {
+          remote = tryConnect();
+          return remote != null ? remote : start(log);
+        } finally {
+          lock.release();
+        }
+      } finally {
+        lockFile.close();
+      }
+    }
+  }
+
+  public String getVersion() {
+    return version;
+  }
+
+  public File getPortFile() {
+    return portFile;
+  }
+
+  private RemoteSpecRunner start(Log log) throws IOException {
+    FileUtils.deleteQuietly(portFile);
+    log.info("Starting the jasmine daemon (see " + portFile.getPath() + ".log)");
+    // Everything the daemon's JVM writes (not just what its code prints, but the launcher's
+    // and the JVM's own output, e.g. -verbose:gc) goes to the log, since it outlives the build.
+    File logFile = new RestrictsToOwner().restrict(new File(portFile.getPath() + ".log"));
+    Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(ProcessBuilder.Redirect.to(logFile)).start();
+    IOUtils.closeQuietly(process.getOutputStream());
+    long deadline = System.currentTimeMillis() + STARTUP_TIMEOUT_MILLIS;
+    while (System.currentTimeMillis() < deadline) {
+      RemoteSpecRunner remote = tryConnect();
+      if (remote != null) {
+        return remote;
+      }
+      if (hasExited(process)) {
+        throw new IOException("The jasmine daemon exited with " + process.exitValue() + " (see " + portFile.getPath() + ".log)");
+      }
+      try {
+        Thread.sleep(100);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+    }
+    process.destroy();
+    throw new IOException("The jasmine daemon didn't start within " + STARTUP_TIMEOUT_MILLIS + "ms (see " + portFile.getPath() + ".log)");
+  }
+
+  private boolean hasExited(Process process) {
+    try {
+      process.exitValue();
+      return true;
+    } catch (IllegalThreadStateException e) {
+      return false;
+    }
+  }
+
+  /** @return a connection to the daemon named in the port file, or null if there's no
+   * such file, or nothing (or something else) is listening on the port it names.
+   */
+  private RemoteSpecRunner tryConnect() throws IOException {
+    String[] portAndToken = portFile.exists() ? StringUtils.split(FileUtils.readFileToString(portFile)) : null;
+    if (portAndToken == null || portAndToken.length != 2) {
+      return null;
+    }
+    Socket socket = new Socket();
+    try {
+      socket.connect(new InetSocketAddress(InetAddress.getByName("127.0.0.1"), Integer.parseInt(portAndToken[0])), CONNECT_TIMEOUT_MILLIS);
+      socket.setSoTimeout(CONNECT_TIMEOUT_MILLIS);
+      ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+      out.writeUTF(portAndToken[1]);
+      out.flush();
+      ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(socket.getInputStream()));
+      if (version.equals(in.readUTF())) {
+        socket.setSoTimeout(0);
+        return new RemoteSpecRunner(out, in);
+      }
+    } catch (IOException e) {
+      // A daemon that's gone (or never was); the caller starts another.
+    } catch (NumberFormatException e) {
+      // Ditto.
+    }
+    socket.close();
+    return null;
+  }
+
+  private static String version(List<String> command, Iterable<String> classpath) {
+    StringBuilder version = new StringBuilder(StringUtils.join(command.iterator(), " "));
+    for (String entry : classpath) {
+      File file = new File(entry);
+      version.append('\n').append(entry).append(':').append(file.length()).append(':').append(file.lastModified());
+    }
+    return new HashesContent().hash(version.toString());
+  }
+
+}
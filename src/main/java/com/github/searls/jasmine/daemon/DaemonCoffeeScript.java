@@ -0,0 +1,44 @@
+package com.github.searls.jasmine.daemon;
+
+import java.io.IOException;
+
+import org.apache.maven.plugin.logging.Log;
+
+import com.github.searls.jasmine.coffee.CoffeeScript;
+import com.github.searls.jasmine.runner.RemoteSpecRunner;
+
+/** Compiles CoffeeScript with the daemon's warm compiler (and cache) instead of loading one
+ * in Maven's JVM. The connection is made on the first compilation and kept until
+ * {@link #close()}.
+ */
+public class DaemonCoffeeScript extends CoffeeScript {
+
+  private final ConnectsToDaemon connectsToDaemon;
+  private final Log log;
+  private RemoteSpecRunner remote;
+
+  public DaemonCoffeeScript(ConnectsToDaemon connectsToDaemon, Log log) {
+    this.connectsToDaemon = connectsToDaemon;
+    this.log = log;
+  }
+
+  @Override
+  public String compile(String coffee) throws IOException {
+    return remote().compileCoffee(coffee);
+  }
+
+  public synchronized void close() {
+    if (remote != null) {
+      remote.close();
+      remote = null;
+    }
+  }
+
+  private synchronized RemoteSpecRunner remote() throws IOException {
+    if (remote == null) {
+      remote = connectsToDaemon.connect(log);
+    }
+    return remote;
+  }
+
+}
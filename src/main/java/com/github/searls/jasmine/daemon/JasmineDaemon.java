@@ -0,0 +1,144 @@
+package com.github.searls.jasmine.daemon;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+
+import com.github.searls.jasmine.io.RestrictsToOwner;
+import com.github.searls.jasmine.runner.ForkedRequestInputStream;
+import com.github.searls.jasmine.runner.ForkedSpecRunner;
+import com.github.searls.jasmine.runner.WebDriverPool;
+
+/** The main class of the background JVM that jasmine:test and the resource goals connect to
+ * when the daemon setting is on (see {@link ConnectsToDaemon}), so HtmlUnit, Rhino and the
+ * CoffeeScript compiler stay warm (and their caches full) from one build to the next.
+ *
+ * <p>
+ * It listens on a loopback port and writes that port, along with a random token every
+ * connection has to start with, to its port file. Each connection is then served by a
+ * {@link ForkedSpecRunner}, the same way a forked JVM's connection is. It
+ * exits once it has gone the idle timeout without a connection, removing its port file.
+ * </p>
+ *
+ * <p>
+ * Arguments: the port file, the idle timeout in milliseconds and the version of the plugin
+ * it was started from (see {@link ConnectsToDaemon#getVersion()}). {@link ConnectsToDaemon}
+ * sends its standard output and error to a ".log" file next to the port file.
+ * </p>
+ */
+public class JasmineDaemon {
+
+  private final File portFile;
+  private final long idleMillis;
+  private final String version;
+  private final String token = new BigInteger(130, new SecureRandom()).toString(32);
+  private final AtomicInteger connections = new AtomicInteger();
+
+  public JasmineDaemon(File portFile, long idleMillis, String version) {
+    this.portFile = portFile;
+    this.idleMillis = idleMillis;
+    this.version = version;
+  }
+
+  public static void main(String[] args) throws Exception {
+    try {
+      new JasmineDaemon(new File(args[0]), Long.parseLong(args[1]), args[2]).serve();
+    } finally {
+      WebDriverPool.shared().quitAll();
+      System.exit(0);
+    }
+  }
+
+  /** Accepts connections until it has gone the idle timeout without one. */
+  public void serve() throws IOException {
+    ServerSocket serverSocket = new ServerSocket(0, 50, InetAddress.getByName("127.0.0.1"));
+    try {
+      serverSocket.setSoTimeout((int) Math.min(idleMillis, Integer.MAX_VALUE));
+      writePortFile(serverSocket.getLocalPort());
+      System.out.println("Jasmine daemon " + version + " listening on port " + serverSocket.getLocalPort());
+      while (true) {
+        try {
+          accept(serverSocket.accept());
+        } catch (SocketTimeoutException e) {
+          if (connections.get() == 0) {
+            System.out.println("Jasmine daemon idle for " + idleMillis + "ms; exiting");
+            return;
+          }
+        }
+      }
+    } finally {
+      FileUtils.deleteQuietly(portFile);
+      serverSocket.close();
+    }
+  }
+
+  /** Writes the port file under another name first, so it's never read half written, and
+   * makes it (and its directory) the owner's alone before the token goes in.
+   */
+  private void writePortFile(int port) throws IOException {
+    RestrictsToOwner restrictsToOwner = new RestrictsToOwner();
+    restrictsToOwner.restrict(portFile.getAbsoluteFile().getParentFile());
+    File written = new File(portFile.getPath() + ".tmp");
+    FileUtils.deleteQuietly(written);
+    FileUtils.writeStringToFile(restrictsToOwner.restrict(written), port + " " + token);
+    FileUtils.deleteQuietly(portFile);
+    if (!written.renameTo(portFile)) {
+      throw new IOException("Couldn't write the jasmine daemon's port file " + portFile);
+    }
+  }
+
+  private void accept(final Socket socket) {
+    connections.incrementAndGet();
+    Thread thread = new Thread("jasmine-daemon-connection-" + socket.getPort()) {
+      @Override
+      public void run() {
+        try {
+          serve(socket);
+        } catch (Exception e) {
+          System.out.println("Jasmine daemon connection from port " + socket.getPort() + " failed:");
+          e.printStackTrace(System.out);
+        } finally {
+          connections.decrementAndGet();
+          try {
+            socket.close();
+          } catch (IOException e) {
+            // It's closed either way.
+          }
+        }
+      }
+    };
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /** Answers a connection that starts with the token with the daemon's version, and then
+   * serves it like a forked JVM's connection. Nothing is deserialized before
+   * the token checks out, and then only requests (see {@link ForkedRequestInputStream}).
+   */
+  private void serve(Socket socket) throws IOException, ClassNotFoundException {
+    ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+    out.flush();
+    ObjectInputStream in = new ForkedRequestInputStream(new BufferedInputStream(socket.getInputStream()));
+    if (!token.equals(in.readUTF())) {
+      IOUtils.closeQuietly(out);
+      return;
+    }
+    out.writeUTF(version);
+    out.flush();
+    new ForkedSpecRunner(out).serve(in);
+  }
+
+}
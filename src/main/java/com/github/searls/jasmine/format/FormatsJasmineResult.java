@@ -0,0 +1,142 @@
+package com.github.searls.jasmine.format;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.github.searls.jasmine.model.JasmineItem;
+import com.github.searls.jasmine.model.JasmineResult;
+import com.github.searls.jasmine.model.JasmineSpec;
+import com.github.searls.jasmine.model.JasmineSuite;
+import com.github.searls.jasmine.model.SpecMessage;
+
+/** Formats the results of a run the way jasmine:test prints them, in a single
+ * pass over the suite tree. Skipped specs (and suites without any spec that ran)
+ * are left out.
+ */
+public class FormatsJasmineResult {
+
+  public static final String PROGRESS_FORMAT = "progress";
+  private static final int PROGRESS_ROW_LENGTH = 80;
+
+  public String format(JasmineResult result, String format) {
+    StringBuilder report = new StringBuilder();
+    if (PROGRESS_FORMAT.equals(format)) {
+      appendProgress(report, result.getSuites());
+    } else {
+      appendDocumentation(report, result.getSuites(), 0);
+    }
+    appendFailureSentences(report, result.getSuites());
+    if (result.isStopped()) {
+      report.append("\n\nStopped after ").append(result.getFailureCount()).append(" failures; skipped the remaining ").append(result.getSkippedCount()).append(" specs.");
+    }
+    report.append("\n\nResults: ").append(result.getSpecCount()).append(" specs, ").append(result.getFailureCount()).append(" failures\n");
+    return report.toString();
+  }
+
+  private void appendDocumentation(StringBuilder report, List<? extends JasmineItem> items, int indentLevel) {
+    boolean first = true;
+    for (JasmineItem item : items) {
+      if (!ran(item)) {
+        continue;
+      }
+      if (!first && indentLevel == 0) {
+        report.append('\n');
+      }
+      first = false;
+      report.append('\n');
+      indent(report, indentLevel).append(item.getName());
+      if (item instanceof JasmineSpec) {
+        JasmineSpec spec = (JasmineSpec) item;
+        if (spec.getStatus().isFailure()) {
+          appendMessages(report, spec, indentLevel + 1);
+        }
+      } else {
+        appendDocumentation(report, ((JasmineSuite) item).getChildren(), indentLevel + 1);
+      }
+    }
+  }
+
+  private void appendProgress(StringBuilder report, List<JasmineSuite> suites) {
+    StringBuilder progress = new StringBuilder();
+    appendProgressMarks(progress, suites);
+    report.append('\n');
+    if (progress.length() > PROGRESS_ROW_LENGTH) {
+      for (int i = 0; i < progress.length(); i += PROGRESS_ROW_LENGTH) {
+        report.append(progress, i, Math.min(i + PROGRESS_ROW_LENGTH, progress.length())).append('\n');
+      }
+    } else {
+      report.append(progress);
+    }
+  }
+
+  private void appendProgressMarks(StringBuilder progress, List<? extends JasmineItem> items) {
+    for (JasmineItem item : items) {
+      if (item instanceof JasmineSpec) {
+        JasmineSpec.Status status = ((JasmineSpec) item).getStatus();
+        if (status != JasmineSpec.Status.SKIPPED) {
+          progress.append(status.isFailure() ? 'F' : '.');
+        }
+      } else {
+        appendProgressMarks(progress, ((JasmineSuite) item).getChildren());
+      }
+    }
+  }
+
+  private void appendFailureSentences(StringBuilder report, List<JasmineSuite> suites) {
+    List<String> failures = new ArrayList<String>();
+    collectFailureSentences(failures, suites, "");
+    if (!failures.isEmpty()) {
+      report.append("\n\n").append(failures.size()).append(" failure").append(failures.size() != 1 ? "s" : "").append(':');
+      for (int i = 0; i < failures.size(); i++) {
+        report.append("\n\n  ").append(i + 1).append(".) ").append(failures.get(i));
+      }
+    }
+  }
+
+  private void collectFailureSentences(List<String> failures, List<? extends JasmineItem> items, String sentence) {
+    for (JasmineItem item : items) {
+      String description = sentence.length() > 0 ? sentence + " " : "";
+      if (item instanceof JasmineSuite) {
+        collectFailureSentences(failures, ((JasmineSuite) item).getChildren(), description + item.getName());
+      } else if (((JasmineSpec) item).getStatus().isFailure()) {
+        StringBuilder failure = new StringBuilder(description).append("it ").append(item.getName());
+        appendMessages(failure, (JasmineSpec) item, 2);
+        failures.add(failure.toString());
+      }
+    }
+  }
+
+  private void appendMessages(StringBuilder report, JasmineSpec spec, int indentLevel) {
+    report.append(" <<< FAILURE!");
+    if (spec.getStatus() == JasmineSpec.Status.MISSING) {
+      report.append(" (Result is missing! Perhaps this spec did not execute?)");
+      return;
+    }
+    for (SpecMessage message : spec.getMessages()) {
+      report.append('\n');
+      indent(report, indentLevel).append("* ").append(message.getMessage());
+    }
+  }
+
+  /** @return whether the spec, or any spec in the suite, ran (rather than being skipped). */
+  private boolean ran(JasmineItem item) {
+    if (item instanceof JasmineSpec) {
+      return ((JasmineSpec) item).getStatus() != JasmineSpec.Status.SKIPPED;
+    }
+    List<JasmineItem> children = ((JasmineSuite) item).getChildren();
+    for (JasmineItem child : children) {
+      if (ran(child)) {
+        return true;
+      }
+    }
+    return children.isEmpty();
+  }
+
+  private StringBuilder indent(StringBuilder report, int indentLevel) {
+    for (int i = 0; i < indentLevel; i++) {
+      report.append("  ");
+    }
+    return report;
+  }
+
+}
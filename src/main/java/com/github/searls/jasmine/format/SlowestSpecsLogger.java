@@ -0,0 +1,30 @@
+package com.github.searls.jasmine.format;
+
+import java.util.List;
+import java.util.Locale;
+
+import org.apache.maven.plugin.logging.Log;
+
+import com.github.searls.jasmine.model.Timing;
+
+public class SlowestSpecsLogger {
+
+  private Log log;
+
+  public void setLog(Log log) {
+    this.log = log;
+  }
+
+  public void log(List<Timing> specs, List<Timing> suites) {
+    log.info(table("specs", specs) + "\n" + table("suites", suites));
+  }
+
+  private String table(String kind, List<Timing> timings) {
+    StringBuilder table = new StringBuilder("\nSlowest " + timings.size() + " " + kind + ":");
+    for (Timing timing : timings) {
+      table.append(String.format(Locale.US, "\n  %8.3fs  %s", timing.getMillis() / 1000.0, timing.getName()));
+    }
+    return table.toString();
+  }
+
+}
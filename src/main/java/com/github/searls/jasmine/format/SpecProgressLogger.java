@@ -0,0 +1,50 @@
+package com.github.searls.jasmine.format;
+
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.plugin.logging.Log;
+
+import com.github.searls.jasmine.runner.SpecResultListener;
+
+/** Logs a progress row (a period per passed spec, an 'F' per failure) for each
+ * batch of spec results streamed out of the runner while it's still running.
+ */
+public class SpecProgressLogger implements SpecResultListener {
+
+  private final Log log;
+  private int specCount;
+  private int failureCount;
+
+  public SpecProgressLogger(Log log) {
+    this.log = log;
+  }
+
+  public void resultsDrained(List<Map<String, Object>> results, List<Map<String, Object>> suites) {
+    if (results.isEmpty()) {
+      return;
+    }
+    StringBuilder row = new StringBuilder();
+    for (Map<String, Object> result : results) {
+      specCount++;
+      if ("failed".equals(result.get("result"))) {
+        failureCount++;
+        row.append('F');
+      } else if ("skipped".equals(result.get("result"))) {
+        row.append('*');
+      } else {
+        row.append('.');
+      }
+    }
+    log.info(row + " (" + specCount + " specs, " + failureCount + " failures)");
+  }
+
+  public int getSpecCount() {
+    return specCount;
+  }
+
+  public int getFailureCount() {
+    return failureCount;
+  }
+
+}
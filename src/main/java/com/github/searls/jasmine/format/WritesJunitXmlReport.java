@@ -0,0 +1,209 @@
+package com.github.searls.jasmine.format;
+
+import static org.apache.commons.lang.StringUtils.*;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
+
+import com.github.searls.jasmine.model.JasmineItem;
+import com.github.searls.jasmine.model.JasmineResult;
+import com.github.searls.jasmine.model.JasmineSpec;
+import com.github.searls.jasmine.model.JasmineSuite;
+import com.github.searls.jasmine.model.SpecMessage;
+
+/** Writes the results of a run as a JUnit XML report (one testcase per spec,
+ * named after its suites and itself), streaming it straight to the file.
+ */
+public class WritesJunitXmlReport {
+
+  private static final String ENCODING = "UTF-8";
+
+  private final String classname;
+
+  public WritesJunitXmlReport() {
+    this("jasmine");
+  }
+
+  /** @param classname the classname of every testcase, e.g. to tell the reports of several browsers apart. */
+  public WritesJunitXmlReport(String classname) {
+    this.classname = classname;
+  }
+
+  public void write(JasmineResult result, File report) throws IOException {
+    writeReport(classname + ".specs", result.getSuites(), result.getDuration(), report);
+  }
+
+  /** Writes a report per top level suite instead, named after the suite (e.g. TEST-jasmine.HelloWorld.xml
+   * for a report file of TEST-jasmine.xml), so aggregators can pick them up one at a time. The reports
+   * are written in parallel.
+   *
+   * @return the reports written.
+   */
+  public List<File> writeSuites(JasmineResult result, File report) throws IOException {
+    List<Callable<Void>> writes = new ArrayList<Callable<Void>>();
+    List<File> reports = new ArrayList<File>();
+    Set<String> fileNames = new HashSet<String>();
+    for (final JasmineSuite suite : result.getSuites()) {
+      final File suiteReport = new File(report.getParentFile(), suiteFileName(report.getName(), suite.getName(), fileNames));
+      reports.add(suiteReport);
+      writes.add(new Callable<Void>() {
+        public Void call() throws IOException {
+          writeReport(suite.getName(), Collections.singletonList(suite), suite.getDuration(), suiteReport);
+          return null;
+        }
+      });
+    }
+    if (writes.isEmpty()) {
+      return reports;
+    }
+    ExecutorService writers = Executors.newFixedThreadPool(Math.min(writes.size(), Runtime.getRuntime().availableProcessors()));
+    try {
+      for (Future<Void> write : writers.invokeAll(writes)) {
+        write.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while writing the JUnit XML reports");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new RuntimeException(e.getCause());
+    } finally {
+      writers.shutdownNow();
+    }
+    return reports;
+  }
+
+  private void writeReport(String name, List<JasmineSuite> suites, long duration, File report) throws IOException {
+    Counts counts = new Counts();
+    counts.add(suites);
+    OutputStream out = new BufferedOutputStream(FileUtils.openOutputStream(report));
+    try {
+      XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(out, ENCODING);
+      writer.writeStartDocument(ENCODING, "1.0");
+      writer.writeStartElement("testsuite");
+      writer.writeAttribute("errors", "0");
+      writer.writeAttribute("name", name);
+      writer.writeAttribute("tests", String.valueOf(counts.tests));
+      writer.writeAttribute("failures", String.valueOf(counts.failures));
+      writer.writeAttribute("skipped", String.valueOf(counts.skipped));
+      writer.writeAttribute("hostname", "localhost");
+      writer.writeAttribute("time", seconds(duration));
+      writer.writeAttribute("timestamp", timestamp());
+      writeTestcases(writer, suites, "");
+      writer.writeEndElement();
+      writer.writeEndDocument();
+      writer.close();
+    } catch (XMLStreamException e) {
+      throw new IOException("Failed to write the JUnit XML report to " + report + ": " + e.getMessage());
+    } finally {
+      IOUtils.closeQuietly(out);
+    }
+  }
+
+  private String suiteFileName(String reportFileName, String suiteName, Set<String> fileNames) {
+    String baseName = FilenameUtils.removeExtension(reportFileName) + "." + defaultIfEmpty(suiteName.replaceAll("[^\\w.-]+", "_"), "_");
+    String fileName = baseName + ".xml";
+    for (int i = 2; !fileNames.add(fileName); i++) {
+      fileName = baseName + "-" + i + ".xml";
+    }
+    return fileName;
+  }
+
+  private void writeTestcases(XMLStreamWriter writer, List<? extends JasmineItem> items, String runningName) throws XMLStreamException {
+    for (JasmineItem item : items) {
+      String name = (runningName.length() > 0 ? runningName + " " : "") + item.getName();
+      if (item instanceof JasmineSuite) {
+        writeTestcases(writer, ((JasmineSuite) item).getChildren(), name);
+      } else {
+        writeTestcase(writer, (JasmineSpec) item, name);
+      }
+    }
+  }
+
+  private void writeTestcase(XMLStreamWriter writer, JasmineSpec spec, String name) throws XMLStreamException {
+    boolean failure = spec.getStatus().isFailure();
+    writer.writeStartElement("testcase");
+    writer.writeAttribute("classname", classname);
+    writer.writeAttribute("name", name);
+    writer.writeAttribute("time", seconds(spec.getDuration()));
+    writer.writeAttribute("failure", String.valueOf(failure));
+    if (failure) {
+      writeError(writer, spec);
+    } else if (spec.getStatus() == JasmineSpec.Status.SKIPPED) {
+      writer.writeEmptyElement("skipped");
+    }
+    writer.writeEndElement();
+  }
+
+  private void writeError(XMLStreamWriter writer, JasmineSpec spec) throws XMLStreamException {
+    StringBuilder message = new StringBuilder();
+    String type = "";
+    for (SpecMessage specMessage : spec.getMessages()) {
+      message.append(specMessage.getMessage());
+      type = specMessage.getType() + "." + specMessage.getMatcherName();
+    }
+    writer.writeStartElement("error");
+    writer.writeAttribute("type", type);
+    writer.writeAttribute("message", message.toString());
+    writer.writeCharacters(message.toString());
+    writer.writeEndElement();
+  }
+
+  private static class Counts {
+    int tests;
+    int failures;
+    int skipped;
+
+    void add(List<? extends JasmineItem> items) {
+      for (JasmineItem item : items) {
+        if (item instanceof JasmineSuite) {
+          add(((JasmineSuite) item).getChildren());
+        } else if (((JasmineSpec) item).getStatus() == JasmineSpec.Status.SKIPPED) {
+          skipped++;
+        } else {
+          tests++;
+          if (((JasmineSpec) item).getStatus().isFailure()) {
+            failures++;
+          }
+        }
+      }
+    }
+  }
+
+  private String seconds(long millis) {
+    return String.format(Locale.US, "%.3f", millis / 1000.0);
+  }
+
+  private String timestamp() {
+    SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", Locale.US);
+    format.setTimeZone(TimeZone.getTimeZone("UTC"));
+    return format.format(new Date());
+  }
+
+}
@@ -0,0 +1,58 @@
+package com.github.searls.jasmine.io;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.apache.commons.io.IOUtils;
+
+public class HashesContent {
+
+  private static final String ALGORITHM = "SHA-1";
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  public String hash(String content) {
+    try {
+      return hex(digest().digest(content.getBytes("UTF-8")));
+    } catch (UnsupportedEncodingException e) {
+      throw new RuntimeException("The JVM does not support UTF-8.", e);
+    }
+  }
+
+  public String hash(File file) throws IOException {
+    MessageDigest digest = digest();
+    InputStream input = new FileInputStream(file);
+    try {
+      byte[] buffer = new byte[8192];
+      int read;
+      while ((read = input.read(buffer)) != -1) {
+        digest.update(buffer, 0, read);
+      }
+    } finally {
+      IOUtils.closeQuietly(input);
+    }
+    return hex(digest.digest());
+  }
+
+  private MessageDigest digest() {
+    try {
+      return MessageDigest.getInstance(ALGORITHM);
+    } catch (NoSuchAlgorithmException e) {
+      throw new RuntimeException("The JVM does not support " + ALGORITHM + ".", e);
+    }
+  }
+
+  private String hex(byte[] bytes) {
+    char[] chars = new char[bytes.length * 2];
+    for (int i = 0; i < bytes.length; i++) {
+      chars[i * 2] = HEX[(bytes[i] >> 4) & 0xf];
+      chars[i * 2 + 1] = HEX[bytes[i] & 0xf];
+    }
+    return new String(chars);
+  }
+
+}
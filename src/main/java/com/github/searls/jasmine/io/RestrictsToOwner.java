@@ -0,0 +1,26 @@
+package com.github.searls.jasmine.io;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.commons.io.FileUtils;
+
+/** Makes files (creating them empty if need be) and directories readable and writable by
+ * their owner only, for what other users of the machine mustn't read, like the daemon's
+ * token (see JasmineDaemon).
+ */
+public class RestrictsToOwner {
+
+  public File restrict(File file) throws IOException {
+    if (!file.exists()) {
+      FileUtils.touch(file);
+    }
+    boolean restricted = file.setReadable(false, false) & file.setWritable(false, false) & file.setExecutable(false, false)
+      & file.setReadable(true, true) & file.setWritable(true, true) & (!file.isDirectory() || file.setExecutable(true, true));
+    if (!restricted) {
+      throw new IOException("Couldn't restrict " + file + " to its owner");
+    }
+    return file;
+  }
+
+}
@@ -15,8 +15,6 @@ public class ScansDirectory {
 
   public final static List<String> DEFAULT_INCLUDES = asList("**"+File.separator+"*.js","**"+File.separator+"*.coffee");
 
-  private DirectoryScanner directoryScanner = new DirectoryScanner();
-
   public List<String> scan(File directory, List<String> includes, List<String> excludes) {
     Set<String> set = new LinkedHashSet<String>();
     for (String include : includes) {
@@ -26,6 +24,7 @@ public class ScansDirectory {
   }
 
   private List<String> performScan(File directory, String include, List<String> excludes) {
+    DirectoryScanner directoryScanner = new DirectoryScanner();
     directoryScanner.setBasedir(directory);
     directoryScanner.setIncludes(new String[]{ include });
     directoryScanner.setExcludes(excludes.toArray(new String[]{}));
@@ -0,0 +1,33 @@
+package com.github.searls.jasmine.io.scripts;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/** Finds the ids of the modules a script depends on through the dependency arrays
+ * of its <code>define([...], ...)</code> and <code>require([...], ...)</code> calls.
+ */
+public class ParsesAmdDependencies {
+
+  private static final Pattern DEPENDENCY_ARRAY = Pattern.compile("\\b(?:define|require|requirejs)\\s*\\(\\s*(?:(['\"])[^'\"]*\\1\\s*,\\s*)?\\[([^\\]]*)\\]");
+  private static final Pattern MODULE_ID = Pattern.compile("(['\"])([^'\"]+)\\1");
+  private static final List<String> SPECIAL_IDS = Arrays.asList("require", "exports", "module");
+
+  public List<String> parse(String script) {
+    List<String> dependencies = new ArrayList<String>();
+    Matcher array = DEPENDENCY_ARRAY.matcher(script);
+    while (array.find()) {
+      Matcher id = MODULE_ID.matcher(array.group(2));
+      while (id.find()) {
+        String dependency = id.group(2).trim();
+        if (!SPECIAL_IDS.contains(dependency) && !dependencies.contains(dependency)) {
+          dependencies.add(dependency);
+        }
+      }
+    }
+    return dependencies;
+  }
+
+}
@@ -0,0 +1,203 @@
+package com.github.searls.jasmine.io.scripts;
+
+import static org.apache.commons.lang.StringUtils.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
+
+import com.github.searls.jasmine.io.HashesContent;
+
+/** Narrows the specs of an AMD (i.e. require.js) project down to those affected by
+ * the scripts that changed since the snapshot of the last passing run: the specs
+ * that changed themselves, or that (transitively) depend on a changed module.
+ *
+ * <p>
+ * The snapshot indexes every script's hash and dependencies, so only changed
+ * scripts are parsed again. Module ids resolve against the source directory
+ * (require.js' baseUrl), or against the requiring script for relative ids; modules
+ * mapped elsewhere through require.js' <code>paths</code> config aren't tracked.
+ * Every spec is selected when there's no snapshot yet, or when a preload changed.
+ * </p>
+ */
+public class SelectsAffectedSpecs {
+
+  public static final String SNAPSHOT_FILE_NAME = "affected-specs.properties";
+
+  private static final String SOURCE_DIRECTORY_KEY = "@sourceDirectory";
+  private static final String SEPARATOR = File.pathSeparator;
+
+  private final File snapshot;
+  private final String encoding;
+  private final Properties index = new Properties();
+
+  private HashesContent hashesContent = new HashesContent();
+  private ParsesAmdDependencies parsesAmdDependencies = new ParsesAmdDependencies();
+
+  public SelectsAffectedSpecs(File snapshot, String encoding) {
+    this.snapshot = snapshot;
+    this.encoding = defaultIfEmpty(encoding, "UTF-8");
+  }
+
+  /** @param all true to select every spec regardless of what changed (the snapshot is still brought up to date). */
+  public Set<String> select(ScriptResolver resolver, boolean all) throws IOException {
+    Properties previous = loadSnapshot();
+    String sourceDirectory = toFile(resolver.getSourceDirectory()).getAbsolutePath();
+    index.clear();
+    index.setProperty(SOURCE_DIRECTORY_KEY, sourceDirectory);
+
+    Set<String> changed = new HashSet<String>();
+    Map<String, List<String>> dependents = new HashMap<String, List<String>>();
+    for (String script : resolver.getAllScripts()) {
+      File file = toFile(script);
+      if (file != null && file.isFile()) {
+        indexScript(file, new File(sourceDirectory), previous, changed, dependents);
+      }
+    }
+    for (String dependency : new ArrayList<String>(dependents.keySet())) {
+      File file = new File(dependency);
+      if (!index.containsKey(dependency) && file.isFile()) {
+        indexFile(file, previous, changed);
+      }
+    }
+    for (String path : previous.stringPropertyNames()) {
+      if (!index.containsKey(path)) {
+        changed.add(path);
+      }
+    }
+
+    if (all || previous.isEmpty() || !sourceDirectory.equals(previous.getProperty(SOURCE_DIRECTORY_KEY)) || changedAny(resolver.getPreloads(), changed)) {
+      return resolver.getSpecs();
+    }
+    Set<String> affected = affected(changed, dependents);
+    Set<String> specs = new LinkedHashSet<String>();
+    for (String spec : resolver.getSpecs()) {
+      File file = toFile(spec);
+      if (file == null || affected.contains(file.getAbsolutePath())) {
+        specs.add(spec);
+      }
+    }
+    return specs;
+  }
+
+  /** Saves the index built by the last {@link #select(ScriptResolver, boolean)} as the snapshot the next run compares against. */
+  public void saveSnapshot() throws IOException {
+    OutputStream out = FileUtils.openOutputStream(snapshot);
+    try {
+      index.store(out, "Scripts (and their module dependencies) as of the last passing jasmine:test run");
+    } finally {
+      IOUtils.closeQuietly(out);
+    }
+  }
+
+  private void indexScript(File file, File sourceDirectory, Properties previous, Set<String> changed, Map<String, List<String>> dependents) throws IOException {
+    String path = file.getAbsolutePath();
+    String hash = hashesContent.hash(file);
+    String entry = previous.getProperty(path);
+    if (entry == null || !(entry.equals(hash) || entry.startsWith(hash + SEPARATOR))) {
+      StringBuilder parsed = new StringBuilder(hash);
+      for (String id : parsesAmdDependencies.parse(FileUtils.readFileToString(file, encoding))) {
+        String dependency = resolve(id, file, sourceDirectory);
+        if (dependency != null) {
+          parsed.append(SEPARATOR).append(dependency);
+        }
+      }
+      entry = parsed.toString();
+      changed.add(path);
+    }
+    index.setProperty(path, entry);
+    String[] fields = split(entry, SEPARATOR);
+    for (int i = 1; i < fields.length; i++) {
+      if (!dependents.containsKey(fields[i])) {
+        dependents.put(fields[i], new ArrayList<String>());
+      }
+      dependents.get(fields[i]).add(path);
+    }
+  }
+
+  private void indexFile(File file, Properties previous, Set<String> changed) throws IOException {
+    String path = file.getAbsolutePath();
+    String hash = hashesContent.hash(file);
+    if (!hash.equals(previous.getProperty(path))) {
+      changed.add(path);
+    }
+    index.setProperty(path, hash);
+  }
+
+  /** @return the path of the file the module id refers to, or null for ids require.js loads as plain URLs. */
+  private String resolve(String id, File script, File sourceDirectory) {
+    boolean plugin = contains(id, '!');
+    String resource = plugin ? substringAfter(id, "!") : id;
+    if (resource.length() == 0 || resource.startsWith("/") || contains(resource, ':') || (!plugin && resource.endsWith(".js"))) {
+      return null;
+    }
+    if (!plugin || FilenameUtils.getExtension(resource).length() == 0) {
+      resource += ".js";
+    }
+    File baseDir = resource.startsWith("./") || resource.startsWith("../") ? script.getParentFile() : sourceDirectory;
+    return FilenameUtils.normalize(new File(baseDir, resource).getAbsolutePath());
+  }
+
+  private Set<String> affected(Set<String> changed, Map<String, List<String>> dependents) {
+    Set<String> affected = new HashSet<String>(changed);
+    LinkedList<String> queue = new LinkedList<String>(changed);
+    while (!queue.isEmpty()) {
+      List<String> scripts = dependents.get(queue.removeFirst());
+      if (scripts != null) {
+        for (String script : scripts) {
+          if (affected.add(script)) {
+            queue.add(script);
+          }
+        }
+      }
+    }
+    return affected;
+  }
+
+  private boolean changedAny(Set<String> scripts, Set<String> changed) {
+    for (String script : scripts) {
+      File file = toFile(script);
+      if (file != null && changed.contains(file.getAbsolutePath())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private Properties loadSnapshot() throws IOException {
+    Properties previous = new Properties();
+    if (snapshot.isFile()) {
+      InputStream in = FileUtils.openInputStream(snapshot);
+      try {
+        previous.load(in);
+      } finally {
+        IOUtils.closeQuietly(in);
+      }
+    }
+    return previous;
+  }
+
+  private File toFile(String script) {
+    try {
+      return FileUtils.toFile(new URL(script));
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+}
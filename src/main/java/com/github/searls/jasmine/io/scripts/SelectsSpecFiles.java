@@ -0,0 +1,53 @@
+package com.github.searls.jasmine.io.scripts;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.lang.StringUtils;
+import org.codehaus.plexus.util.SelectorUtils;
+
+/** Narrows the specs down to the files matching any of a comma separated list of
+ * patterns (see jasmine.spec), relative to the spec directory. A pattern without a
+ * directory matches the file in any directory, and one without an extension (or a
+ * wildcard at the end) matches any extension, so "PlayerSpec" stands for
+ * "**&#47;PlayerSpec.*".
+ */
+public class SelectsSpecFiles {
+
+  private final List<String> patterns = new ArrayList<String>();
+
+  public SelectsSpecFiles(String patterns) {
+    for (String pattern : StringUtils.split(StringUtils.defaultString(patterns), ",")) {
+      if (StringUtils.isNotBlank(pattern)) {
+        this.patterns.add(normalize(pattern.trim().replace('\\', '/')));
+      }
+    }
+  }
+
+  /** @return the matching specs, in their original order. */
+  public Set<String> select(Set<String> specs, String specDirectory) {
+    Set<String> selected = new LinkedHashSet<String>();
+    for (String spec : specs) {
+      String path = spec.startsWith(specDirectory) ? spec.substring(specDirectory.length()) : spec;
+      for (String pattern : patterns) {
+        if (SelectorUtils.matchPath(pattern, StringUtils.removeStart(path, "/").replace('/', File.separatorChar))) {
+          selected.add(spec);
+          break;
+        }
+      }
+    }
+    return selected;
+  }
+
+  private String normalize(String pattern) {
+    String fileName = StringUtils.substringAfterLast("/" + pattern, "/");
+    if (fileName.indexOf('.') == -1 && !fileName.endsWith("*")) {
+      pattern += ".*";
+    }
+    return (pattern.indexOf('/') == -1 ? "**/" + pattern : pattern).replace('/', File.separatorChar);
+  }
+
+}
@@ -0,0 +1,104 @@
+package com.github.searls.jasmine.io.scripts;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/** Narrows an already resolved {@link ScriptResolver} down to a subset of its
+ * specs, so a spec runner can be generated for a single shard (or for just the
+ * specs affected by a change). The specs keep the order they're given in, e.g.
+ * to run the ones that failed last time first. Preloads and sources are left
+ * untouched.
+ */
+public class ShardScriptResolver implements ScriptResolver {
+
+  private final ScriptResolver delegate;
+  private final Set<String> specs;
+
+  public ShardScriptResolver(ScriptResolver delegate, Set<String> specs) {
+    this.delegate = delegate;
+    this.specs = specs;
+  }
+
+  public void resolveScripts() throws IOException {
+    // The delegate is resolved once, before it gets split into shards.
+  }
+
+  public Set<String> getPreloads() {
+    return delegate.getPreloads();
+  }
+
+  public Set<String> getSources() {
+    return delegate.getSources();
+  }
+
+  public Set<String> getSpecs() {
+    LinkedHashSet<String> shardSpecs = new LinkedHashSet<String>();
+    Set<String> delegateSpecs = delegate.getSpecs();
+    for (String spec : specs) {
+      if (delegateSpecs.contains(spec)) {
+        shardSpecs.add(spec);
+      }
+    }
+    return shardSpecs;
+  }
+
+  public Set<String> getAllScripts() {
+    return addAllScripts(getPreloads(), getSources(), getSpecs());
+  }
+
+  public String getSourceDirectory() throws IOException {
+    return delegate.getSourceDirectory();
+  }
+
+  public String getSpecDirectoryPath() throws MalformedURLException {
+    return delegate.getSpecDirectoryPath();
+  }
+
+  public Set<String> getSourcesRelativePath() throws IOException {
+    return delegate.getSourcesRelativePath();
+  }
+
+  public Set<String> getSpecsRelativePath() throws IOException {
+    Map<String, String> relativeSpecs = new HashMap<String, String>();
+    Iterator<String> relativeSpec = delegate.getSpecsRelativePath().iterator();
+    for (String spec : delegate.getSpecs()) {
+      relativeSpecs.put(spec, relativeSpec.next());
+    }
+    LinkedHashSet<String> shardSpecs = new LinkedHashSet<String>();
+    for (String spec : specs) {
+      if (relativeSpecs.containsKey(spec)) {
+        shardSpecs.add(relativeSpecs.get(spec));
+      }
+    }
+    return shardSpecs;
+  }
+
+  public Set<String> getPreloadsRelativePath() throws IOException {
+    return delegate.getPreloadsRelativePath();
+  }
+
+  public Set<String> getAllScriptsRelativePath() throws IOException {
+    return addAllScripts(getPreloadsRelativePath(), getSourcesRelativePath(), getSpecsRelativePath());
+  }
+
+  public String getSourceDirectoryRelativePath() throws IOException {
+    return delegate.getSourceDirectoryRelativePath();
+  }
+
+  public String getSpecDirectoryRelativePath() throws IOException {
+    return delegate.getSpecDirectoryRelativePath();
+  }
+
+  private Set<String> addAllScripts(Set<String> preloadedSources, Set<String> sources, Set<String> specs) {
+    LinkedHashSet<String> allScripts = new LinkedHashSet<String>();
+    allScripts.addAll(preloadedSources);
+    allScripts.addAll(sources);
+    allScripts.addAll(specs);
+    return allScripts;
+  }
+}
@@ -0,0 +1,12 @@
+package com.github.searls.jasmine.model;
+
+import java.io.Serializable;
+
+/** A node of the suite tree: either a {@link JasmineSuite} or a {@link JasmineSpec}. */
+public interface JasmineItem extends Serializable {
+
+  String getName();
+
+  long getDuration();
+
+}
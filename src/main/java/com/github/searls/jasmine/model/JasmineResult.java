@@ -1,15 +1,28 @@
 package com.github.searls.jasmine.model;
 
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+
+public class JasmineResult implements Serializable {
+
+  private static final long serialVersionUID = 1L;
 
-public class JasmineResult {
   private String details;
+  private List<JasmineSuite> suites = new ArrayList<JasmineSuite>();
+  private int specCount;
+  private int failureCount;
+  private int skippedCount;
+  private boolean stopped;
+  private long duration;
 
   public String getDescription() {
     return last(getDetails().split("\n"));
   }
 
   public boolean didPass() {
-    return getDescription().contains(" 0 failures");
+    return failureCount == 0;
   }
 
   public String getDetails() {
@@ -20,6 +33,58 @@ public class JasmineResult {
     this.details = details;
   }
 
+  /** @return the top level suites, each with its nested specs and suites. */
+  public List<JasmineSuite> getSuites() {
+    return suites;
+  }
+
+  public void setSuites(List<JasmineSuite> suites) {
+    this.suites = suites;
+  }
+
+  /** @return the number of specs that ran (i.e. weren't skipped). */
+  public int getSpecCount() {
+    return specCount;
+  }
+
+  public void setSpecCount(int specCount) {
+    this.specCount = specCount;
+  }
+
+  public int getFailureCount() {
+    return failureCount;
+  }
+
+  public void setFailureCount(int failureCount) {
+    this.failureCount = failureCount;
+  }
+
+  public int getSkippedCount() {
+    return skippedCount;
+  }
+
+  public void setSkippedCount(int skippedCount) {
+    this.skippedCount = skippedCount;
+  }
+
+  /** @return true if the runner stopped running specs because too many failed. */
+  public boolean isStopped() {
+    return stopped;
+  }
+
+  public void setStopped(boolean stopped) {
+    this.stopped = stopped;
+  }
+
+  /** @return how long the runner took, in milliseconds. */
+  public long getDuration() {
+    return duration;
+  }
+
+  public void setDuration(long duration) {
+    this.duration = duration;
+  }
+
   private <T> T last(T[] array) {
       return array[array.length - 1];
   }
@@ -0,0 +1,55 @@
+package com.github.searls.jasmine.model;
+
+import java.util.List;
+
+public class JasmineSpec implements JasmineItem {
+
+  private static final long serialVersionUID = 1L;
+
+  public enum Status {
+    PASSED, FAILED, SKIPPED,
+    /** The spec never reported a result, e.g. because the runner timed out before getting to it. */
+    MISSING;
+
+    public boolean isFailure() {
+      return this == FAILED || this == MISSING;
+    }
+  }
+
+  private int id;
+  private String name;
+  private Status status;
+  private long duration;
+  private List<SpecMessage> messages;
+
+  public JasmineSpec(int id, String name, Status status, long duration, List<SpecMessage> messages) {
+    this.id = id;
+    this.name = name;
+    this.status = status;
+    this.duration = duration;
+    this.messages = messages;
+  }
+
+  public int getId() {
+    return id;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public Status getStatus() {
+    return status;
+  }
+
+  /** @return how long the spec took, in milliseconds. */
+  public long getDuration() {
+    return duration;
+  }
+
+  /** @return the messages of a failed spec; empty for any other spec. */
+  public List<SpecMessage> getMessages() {
+    return messages;
+  }
+
+}
@@ -0,0 +1,33 @@
+package com.github.searls.jasmine.model;
+
+import java.util.List;
+
+public class JasmineSuite implements JasmineItem {
+
+  private static final long serialVersionUID = 1L;
+
+  private String name;
+  private long duration;
+  private List<JasmineItem> children;
+
+  public JasmineSuite(String name, long duration, List<JasmineItem> children) {
+    this.name = name;
+    this.duration = duration;
+    this.children = children;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /** @return how long the suite took, in milliseconds. */
+  public long getDuration() {
+    return duration;
+  }
+
+  /** @return the suite's specs and nested suites, in the order they were defined. */
+  public List<JasmineItem> getChildren() {
+    return children;
+  }
+
+}
@@ -0,0 +1,33 @@
+package com.github.searls.jasmine.model;
+
+import java.io.Serializable;
+
+/** An expectation result (or log message) of a failed spec. */
+public class SpecMessage implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private String type;
+  private String message;
+  private String matcherName;
+
+  public SpecMessage(String type, String message, String matcherName) {
+    this.type = type;
+    this.message = message;
+    this.matcherName = matcherName;
+  }
+
+  /** @return "expect" for expectations, "log" for logged messages. */
+  public String getType() {
+    return type;
+  }
+
+  public String getMessage() {
+    return message;
+  }
+
+  public String getMatcherName() {
+    return matcherName;
+  }
+
+}
@@ -0,0 +1,27 @@
+package com.github.searls.jasmine.model;
+
+/** How long a spec or suite took to run. */
+public class Timing implements Comparable<Timing> {
+
+  private final String name;
+  private final long millis;
+
+  public Timing(String name, long millis) {
+    this.name = name;
+    this.millis = millis;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public long getMillis() {
+    return millis;
+  }
+
+  /** Orders timings from slowest to fastest. */
+  public int compareTo(Timing other) {
+    return millis < other.millis ? 1 : (millis == other.millis ? name.compareTo(other.name) : -1);
+  }
+
+}
@@ -3,12 +3,18 @@ package com.github.searls.jasmine.runner;
 import com.github.searls.jasmine.format.FormatsScriptTags;
 import org.antlr.stringtemplate.StringTemplate;
 import org.antlr.stringtemplate.language.DefaultTemplateLexer;
+import org.apache.commons.lang.StringEscapeUtils;
 import org.codehaus.plexus.util.StringUtils;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+import static java.util.Arrays.asList;
+
 public abstract class AbstractSpecRunnerHtmlGenerator {
   private static final String SOURCE_ENCODING = "sourceEncoding";
   private static final String CSS_DEPENDENCIES_TEMPLATE_ATTR_NAME = "cssDependencies";
@@ -31,8 +37,36 @@ public abstract class AbstractSpecRunnerHtmlGenerator {
     return new StringTemplate(htmlTemplate, DefaultTemplateLexer.class);
   }
 
+  /** Runners driven by jasmine:test (i.e. using the JsApiReporter) also get the
+   * queue their spec results are streamed out of, and the virtual clock (ahead of
+   * Jasmine itself) if they run on one. Lean ones go without jasmine-html.js.
+   * Manual runners (i.e. using the HtmlReporter) post their results back to
+   * jasmine:bdd when it serves them. Both time and extract results with
+   * specReporting.js.
+   */
+  protected List<String> javaScriptDependencies() {
+    List<String> dependencies = new ArrayList<String>(asList(SpecRunnerHtmlGenerator.JASMINE_JS));
+    if (!configuration.isLean()) {
+      dependencies.add(SpecRunnerHtmlGenerator.JASMINE_HTML_JS);
+    }
+    if (configuration.getReporterType() == ReporterType.JsApiReporter) {
+      dependencies.add(SpecRunnerHtmlGenerator.SPEC_REPORTING_JS);
+      dependencies.add(SpecRunnerHtmlGenerator.SPEC_RESULT_QUEUE_JS);
+      if (configuration.isVirtualTime()) {
+        dependencies.add(0, SpecRunnerHtmlGenerator.VIRTUAL_CLOCK_JS);
+      }
+    } else if (configuration.getReporterType() == ReporterType.HtmlReporter) {
+      dependencies.add(SpecRunnerHtmlGenerator.SPEC_REPORTING_JS);
+      dependencies.add(SpecRunnerHtmlGenerator.RESULTS_COLLECTOR_JS);
+    }
+    return dependencies;
+  }
+
   protected void includeJavaScriptDependencies(List<String> dependencies, StringTemplate template) throws IOException {
     StringBuilder js = new StringBuilder();
+    if (configuration.getReporterType() == ReporterType.JsApiReporter) {
+      js.append("<script type=\"text/javascript\">").append(runnerConfigScript()).append("</script>");
+    }
     for (String jsFile : dependencies) {
       if(jsFile != null) {
         js.append("<script type=\"text/javascript\">").append(configuration.IOtoString(jsFile)).append("</script>");
@@ -41,6 +75,35 @@ public abstract class AbstractSpecRunnerHtmlGenerator {
     template.setAttribute(JAVASCRIPT_DEPENDENCIES_TEMPLATE_ATTR_NAME, js.toString());
   }
 
+  private String runnerConfigScript() {
+    return runnerConfigScript(configuration.getRunnerConfig());
+  }
+
+  /** @return the script setting up window.jasmineMavenPlugin with the given settings of the plugin's own scripts. */
+  static String runnerConfigScript(Map<String, Object> runnerConfig) {
+    StringBuilder config = new StringBuilder();
+    if (runnerConfig != null) {
+      for (Map.Entry<String, Object> setting : runnerConfig.entrySet()) {
+        config.append(config.length() > 0 ? ", " : "").append(setting.getKey()).append(": ").append(javaScriptValue(setting.getValue()));
+      }
+    }
+    return "window.jasmineMavenPlugin = {config: {" + config + "}};";
+  }
+
+  private static String javaScriptValue(Object value) {
+    if (value == null) {
+      return "null";
+    } else if (value instanceof Number || value instanceof Boolean) {
+      return value.toString();
+    }
+    return "'" + StringEscapeUtils.escapeJavaScript(value.toString()) + "'";
+  }
+
+  /** @return the style sheets of the runner: jasmine.css, unless it's lean. */
+  protected List<String> styles() {
+    return configuration.isLean() ? Collections.<String>emptyList() : asList(SpecRunnerHtmlGenerator.JASMINE_CSS);
+  }
+
   protected void applyCssToTemplate(List<String> styles, StringTemplate template) throws IOException {
     StringBuilder css = new StringBuilder();
     for (String cssFile : styles) {
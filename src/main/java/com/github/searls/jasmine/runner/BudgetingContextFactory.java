@@ -0,0 +1,52 @@
+package com.github.searls.jasmine.runner;
+
+import net.sourceforge.htmlunit.corejs.javascript.Callable;
+import net.sourceforge.htmlunit.corejs.javascript.Context;
+import net.sourceforge.htmlunit.corejs.javascript.Scriptable;
+import net.sourceforge.htmlunit.corejs.javascript.ScriptableObject;
+
+import com.gargoylesoftware.htmlunit.WebClient;
+import com.gargoylesoftware.htmlunit.javascript.HtmlUnitContextFactory;
+
+/** An {@link HtmlUnitContextFactory} that limits the number of instructions each spec
+ * may run (see {@link SpecInstructionBudget}).
+ */
+public class BudgetingContextFactory extends HtmlUnitContextFactory {
+
+  private final SpecInstructionBudget budget = new SpecInstructionBudget();
+
+  public BudgetingContextFactory(WebClient webClient) {
+    super(webClient);
+    setDebugger(budget);
+  }
+
+  /** @param budget the number of instructions each spec may run; 0 for no limit. */
+  public void setBudget(long budget) {
+    this.budget.setBudget(budget);
+  }
+
+  public long getBudget() {
+    return budget.getBudget();
+  }
+
+  /** Lets the specs in the given window catch their aborts (see {@link SpecInstructionBudget#defineIn(ScriptableObject)}). */
+  public void defineIn(ScriptableObject window) {
+    budget.defineIn(window);
+  }
+
+  @Override
+  protected void observeInstructionCount(Context cx, int instructionCount) {
+    super.observeInstructionCount(cx, instructionCount);
+    budget.observe(instructionCount);
+  }
+
+  @Override
+  protected Object doTopCall(Callable callable, Context cx, Scriptable scope, Scriptable thisObj, Object[] args) {
+    try {
+      return super.doTopCall(callable, cx, scope, thisObj, args);
+    } finally {
+      budget.topCallFinished();
+    }
+  }
+
+}
@@ -0,0 +1,61 @@
+package com.github.searls.jasmine.runner;
+
+import net.sourceforge.htmlunit.corejs.javascript.Script;
+import net.sourceforge.htmlunit.corejs.javascript.ScriptableObject;
+
+import com.gargoylesoftware.htmlunit.WebClient;
+import com.gargoylesoftware.htmlunit.WebWindow;
+import com.gargoylesoftware.htmlunit.html.HtmlPage;
+import com.gargoylesoftware.htmlunit.javascript.HtmlUnitContextFactory;
+import com.gargoylesoftware.htmlunit.javascript.JavaScriptEngine;
+
+/** An HtmlUnit {@link JavaScriptEngine} that looks scripts up in a {@link CompiledScriptCache}
+ * before asking Rhino to compile them. Inline scripts, external scripts and scripts run
+ * through WebDriver are all compiled here.
+ *
+ * <p>
+ * Scripts run in contexts made by a {@link BudgetingContextFactory}, so a spec can be
+ * limited in the number of instructions it runs.
+ * </p>
+ */
+public class CachingJavaScriptEngine extends JavaScriptEngine {
+
+  private final CompiledScriptCache cache;
+  private final BudgetingContextFactory contextFactory;
+
+  public CachingJavaScriptEngine(WebClient webClient, CompiledScriptCache cache) {
+    super(webClient);
+    this.cache = cache;
+    this.contextFactory = new BudgetingContextFactory(webClient);
+  }
+
+  @Override
+  public HtmlUnitContextFactory getContextFactory() {
+    return contextFactory;
+  }
+
+  /** @param budget the number of instructions each spec may run; 0 for no limit. */
+  public void setSpecInstructionBudget(long budget) {
+    contextFactory.setBudget(budget);
+  }
+
+  @Override
+  public void initialize(WebWindow webWindow) {
+    super.initialize(webWindow);
+    contextFactory.defineIn((ScriptableObject) webWindow.getScriptObject());
+  }
+
+  @Override
+  public Script compile(HtmlPage htmlPage, String sourceCode, String sourceName, int startLine) {
+    String key = cache.key(getWebClient().getBrowserVersion(), sourceCode);
+    Script script = cache.get(key);
+    if (script == null) {
+      script = super.compile(htmlPage, sourceCode, sourceName, startLine);
+      if (script != null) {
+        cache.put(key, script);
+      }
+    }
+    return script;
+  }
+
+}
@@ -0,0 +1,109 @@
+package com.github.searls.jasmine.runner;
+
+import static org.apache.commons.lang.StringUtils.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+
+import com.github.searls.jasmine.io.HashesContent;
+import com.github.searls.jasmine.io.scripts.ScriptResolver;
+import com.github.searls.jasmine.model.JasmineResult;
+
+/** Fingerprints everything a run of the specs depends on (every script's content,
+ * the configuration and the files it points to), and records the fingerprint of
+ * the last passing run along with its results, so a run with the same fingerprint
+ * can be skipped.
+ */
+public class ChecksUpToDate {
+
+  public static final String FILE_NAME = "up-to-date.properties";
+
+  private static final String FINGERPRINT = "fingerprint";
+  private static final String DETAILS = "details";
+  private static final String REPORTS = "reports";
+
+  private final File record;
+
+  private HashesContent hashesContent = new HashesContent();
+
+  public ChecksUpToDate(File record) {
+    this.record = record;
+  }
+
+  /** @return the fingerprint, or null if the scripts can't be fingerprinted (e.g. because some are loaded from the web). */
+  public String fingerprint(ScriptResolver resolver, Map<String, Object> configuration, List<File> files) throws IOException {
+    StringBuilder inputs = new StringBuilder();
+    for (Map.Entry<String, Object> entry : configuration.entrySet()) {
+      inputs.append(entry.getKey()).append('=').append(entry.getValue()).append('\n');
+    }
+    for (File file : files) {
+      inputs.append(file).append('=').append(file != null && file.isFile() ? hashesContent.hash(file) : "").append('\n');
+    }
+    for (String script : resolver.getAllScripts()) {
+      File file = FileUtils.toFile(new URL(script));
+      if (file == null || !file.isFile()) {
+        return null;
+      }
+      inputs.append(script).append('=').append(hashesContent.hash(file)).append('\n');
+    }
+    return hashesContent.hash(inputs.toString());
+  }
+
+  /** @return the result of the last passing run if it had the same fingerprint (and its reports are still around), or null. */
+  public JasmineResult lastPassingRun(String fingerprint) throws IOException {
+    if (fingerprint == null || !record.isFile()) {
+      return null;
+    }
+    Properties lastRun = new Properties();
+    InputStream in = FileUtils.openInputStream(record);
+    try {
+      lastRun.load(in);
+    } finally {
+      IOUtils.closeQuietly(in);
+    }
+    if (!fingerprint.equals(lastRun.getProperty(FINGERPRINT))) {
+      return null;
+    }
+    for (String report : split(lastRun.getProperty(REPORTS, ""), File.pathSeparator)) {
+      if (!new File(report).isFile()) {
+        return null;
+      }
+    }
+    JasmineResult result = new JasmineResult();
+    result.setDetails(lastRun.getProperty(DETAILS, ""));
+    return result;
+  }
+
+  /** Records a passing run, or forgets the last one if the run failed (or has no fingerprint). */
+  public void record(String fingerprint, JasmineResult result, List<File> reports) throws IOException {
+    if (fingerprint == null || !result.didPass()) {
+      FileUtils.deleteQuietly(record);
+      return;
+    }
+    List<String> reportPaths = new ArrayList<String>();
+    for (File report : reports) {
+      reportPaths.add(report.getAbsolutePath());
+    }
+    Properties run = new Properties();
+    run.setProperty(FINGERPRINT, fingerprint);
+    run.setProperty(DETAILS, result.getDetails());
+    run.setProperty(REPORTS, join(reportPaths, File.pathSeparator));
+    OutputStream out = FileUtils.openOutputStream(record);
+    try {
+      run.store(out, "The last passing jasmine:test run");
+    } finally {
+      IOUtils.closeQuietly(out);
+    }
+  }
+
+}
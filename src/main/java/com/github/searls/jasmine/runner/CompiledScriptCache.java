@@ -0,0 +1,77 @@
+package com.github.searls.jasmine.runner;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import net.sourceforge.htmlunit.corejs.javascript.Script;
+
+import com.gargoylesoftware.htmlunit.BrowserVersion;
+import com.github.searls.jasmine.io.HashesContent;
+
+/** Remembers the scripts HtmlUnit (or {@link RhinoPage}) has compiled, keyed by a hash of their
+ * content and what they were compiled for (e.g. the browser version).
+ *
+ * <p>
+ * The {@link #shared()} cache lives as long as the plugin's class realm, so
+ * jasmine.js, preloads and unchanged sources are compiled once per build no
+ * matter how many shards, re-runs or reactor modules load them.
+ * </p>
+ */
+public class CompiledScriptCache {
+
+  public static final int DEFAULT_MAX_SCRIPTS = 1000;
+
+  private static final CompiledScriptCache SHARED = new CompiledScriptCache(DEFAULT_MAX_SCRIPTS);
+
+  private final Map<String, Script> scripts;
+  private HashesContent hashesContent = new HashesContent();
+  private int hits;
+  private int misses;
+
+  public CompiledScriptCache(final int maxScripts) {
+    this.scripts = new LinkedHashMap<String, Script>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Script> eldest) {
+        return size() > maxScripts;
+      }
+    };
+  }
+
+  public static CompiledScriptCache shared() {
+    return SHARED;
+  }
+
+  public String key(BrowserVersion browserVersion, String sourceCode) {
+    return key(browserVersion.getNickname() + ":" + browserVersion.getBrowserVersionNumeric(), sourceCode);
+  }
+
+  /** @param engine what the script is compiled for (e.g. a browser version), since HtmlUnit
+   * compiles a script differently for each.
+   */
+  public String key(String engine, String sourceCode) {
+    return engine + ":" + hashesContent.hash(sourceCode);
+  }
+
+  public synchronized Script get(String key) {
+    Script script = scripts.get(key);
+    if (script == null) {
+      misses++;
+    } else {
+      hits++;
+    }
+    return script;
+  }
+
+  public synchronized void put(String key, Script script) {
+    scripts.put(key, script);
+  }
+
+  public synchronized int size() {
+    return scripts.size();
+  }
+
+  public synchronized String statistics() {
+    return scripts.size() + " cached, " + hits + " hits, " + misses + " misses";
+  }
+
+}
@@ -5,11 +5,10 @@ import org.antlr.stringtemplate.StringTemplate;
 import java.io.IOException;
 import java.util.Set;
 
-import static java.util.Arrays.asList;
-
 public class DefaultSpecRunnerHtmlGenerator extends AbstractSpecRunnerHtmlGenerator implements SpecRunnerHtmlGenerator {
 
   public static final String DEFAULT_RUNNER_HTML_TEMPLATE_FILE = "/jasmine-templates/SpecRunner.htmltemplate";
+  public static final String LEAN_RUNNER_HTML_TEMPLATE_FILE = "/jasmine-templates/LeanSpecRunner.htmltemplate";
 
   protected DefaultSpecRunnerHtmlGenerator(HtmlGeneratorConfiguration configuration) {
     super(configuration);
@@ -34,8 +33,8 @@ public class DefaultSpecRunnerHtmlGenerator extends AbstractSpecRunnerHtmlGenera
 
   private String generateHtml(Set<String> allScriptsRelativePath) throws IOException {
     StringTemplate template = resolveHtmlTemplate();
-    includeJavaScriptDependencies(asList(JASMINE_JS, JASMINE_HTML_JS), template);
-    applyCssToTemplate(asList(JASMINE_CSS), template);
+    includeJavaScriptDependencies(javaScriptDependencies(), template);
+    applyCssToTemplate(styles(), template);
     applyScriptTagsToTemplate(SOURCES_TEMPLATE_ATTR_NAME, allScriptsRelativePath, template);
     template.setAttribute(REPORTER_ATTR_NAME, getConfiguration().getReporterType().name());
     setEncoding(getConfiguration(), template);
@@ -45,7 +44,7 @@ public class DefaultSpecRunnerHtmlGenerator extends AbstractSpecRunnerHtmlGenera
 
   @Override
   protected String getDefaultHtmlTemplatePath() {
-    return DEFAULT_RUNNER_HTML_TEMPLATE_FILE;
+    return getConfiguration().isLean() ? LEAN_RUNNER_HTML_TEMPLATE_FILE : DEFAULT_RUNNER_HTML_TEMPLATE_FILE;
   }
 
 
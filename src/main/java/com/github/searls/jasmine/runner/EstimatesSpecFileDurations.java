@@ -0,0 +1,84 @@
+package com.github.searls.jasmine.runner;
+
+import static org.apache.commons.lang.StringUtils.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.io.FileUtils;
+
+/** Estimates how long each spec file will take, for planning shards: as long as it
+ * took last time (see {@link RemembersSpecFileDurations}), or, for a spec file that
+ * hasn't been timed yet, its number of specs (i.e. of calls to it) times the
+ * average duration per spec of the timed spec files. Without any timed spec files,
+ * a spec counts as {@link #DEFAULT_MILLIS_PER_SPEC}.
+ */
+public class EstimatesSpecFileDurations {
+
+  public static final long DEFAULT_MILLIS_PER_SPEC = 10;
+
+  private static final Pattern SPEC = Pattern.compile("\\bit\\s*\\(?\\s*['\"]");
+
+  private final String encoding;
+  private int timedCount;
+
+  public EstimatesSpecFileDurations(String encoding) {
+    this.encoding = defaultIfEmpty(encoding, "UTF-8");
+  }
+
+  /** @return the estimated duration of each spec, in milliseconds and in the specs' order. */
+  public Map<String, Long> estimate(Set<String> specs, String specDirectory, Map<String, Long> remembered) throws IOException {
+    Map<String, Integer> specCounts = new HashMap<String, Integer>();
+    long timedMillis = 0;
+    long timedSpecs = 0;
+    timedCount = 0;
+    for (String spec : specs) {
+      int specCount = countSpecs(spec);
+      specCounts.put(spec, specCount);
+      Long duration = remembered.get(relativize(spec, specDirectory));
+      if (duration != null) {
+        timedMillis += duration;
+        timedSpecs += specCount;
+        timedCount++;
+      }
+    }
+    double millisPerSpec = timedSpecs > 0 ? (double) timedMillis / timedSpecs : DEFAULT_MILLIS_PER_SPEC;
+
+    Map<String, Long> durations = new LinkedHashMap<String, Long>();
+    for (String spec : specs) {
+      Long duration = remembered.get(relativize(spec, specDirectory));
+      durations.put(spec, duration != null ? duration : Math.round(specCounts.get(spec) * millisPerSpec));
+    }
+    return durations;
+  }
+
+  /** @return how many of the specs of the last {@link #estimate} had been timed before. */
+  public int getTimedCount() {
+    return timedCount;
+  }
+
+  private int countSpecs(String spec) throws IOException {
+    File specFile = FileUtils.toFile(new URL(spec));
+    if (specFile == null || !specFile.isFile()) {
+      return 0;
+    }
+    int count = 0;
+    Matcher matcher = SPEC.matcher(FileUtils.readFileToString(specFile, encoding));
+    while (matcher.find()) {
+      count++;
+    }
+    return count;
+  }
+
+  private String relativize(String spec, String specDirectory) {
+    return spec.startsWith(specDirectory) ? spec.substring(specDirectory.length()) : spec;
+  }
+
+}
@@ -0,0 +1,36 @@
+package com.github.searls.jasmine.runner;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** Counts spec failures across every runner of a jasmine:test execution (i.e. all
+ * of its shards), so they can all stop once maxFailures is reached. Each runner
+ * also enforces the limit on its own failures without waiting for this count.
+ */
+public class FailureLimit implements SpecResultListener {
+
+  private final int maxFailures;
+  private final AtomicInteger failureCount = new AtomicInteger();
+
+  public FailureLimit(int maxFailures) {
+    this.maxFailures = maxFailures;
+  }
+
+  public void resultsDrained(List<Map<String, Object>> specs, List<Map<String, Object>> suites) {
+    for (Map<String, Object> spec : specs) {
+      if ("failed".equals(spec.get("result"))) {
+        failureCount.incrementAndGet();
+      }
+    }
+  }
+
+  public boolean isReached() {
+    return maxFailures > 0 && failureCount.get() >= maxFailures;
+  }
+
+  public int getMaxFailures() {
+    return maxFailures;
+  }
+
+}
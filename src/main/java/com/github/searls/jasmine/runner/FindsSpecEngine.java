@@ -0,0 +1,26 @@
+package com.github.searls.jasmine.runner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+
+import org.apache.commons.lang.StringUtils;
+
+/** Finds a {@link SpecEngine} by name among the ones registered (with {@link ServiceLoader})
+ * on a class path.
+ */
+public class FindsSpecEngine {
+
+  /** @return a new instance of the engine of the given (case insensitive) name. */
+  public SpecEngine find(String name, ClassLoader classLoader) {
+    List<String> names = new ArrayList<String>();
+    for (SpecEngine engine : ServiceLoader.load(SpecEngine.class, classLoader)) {
+      if (engine.getName().equalsIgnoreCase(StringUtils.trim(name))) {
+        return engine;
+      }
+      names.add(engine.getName());
+    }
+    throw new IllegalArgumentException("Unknown engine '" + name + "'; use one of " + StringUtils.join(names, ", "));
+  }
+
+}
@@ -0,0 +1,182 @@
+package com.github.searls.jasmine.runner;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang.StringUtils;
+import org.apache.maven.plugin.logging.Log;
+
+import com.github.searls.jasmine.model.JasmineResult;
+
+/** A child JVM running {@link ForkedSpecRunner}, so specs don't compete with Maven for heap
+ * and a browser running out of memory can't take the build down with it. Runs are handed
+ * over (and their results streamed back) through a loopback socket the child connects to,
+ * given its port as an argument and a random token (which it has to start with) on its
+ * standard input. Whatever it writes to standard output and error, including what the JVM
+ * writes itself (e.g. with -verbose:gc), is passed through to standard error.
+ */
+public class ForkedJvm {
+
+  private static final int EXIT_WAIT_MILLIS = 5000;
+  private static final int CONNECT_TIMEOUT_MILLIS = 30000;
+  private static final int ACCEPT_POLL_MILLIS = 100;
+
+  private final Process process;
+  private final RemoteSpecRunner remote;
+
+  public ForkedJvm(List<String> command) throws IOException {
+    String token = new BigInteger(130, new SecureRandom()).toString(32);
+    ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getByName("127.0.0.1"));
+    try {
+      List<String> withPort = new ArrayList<String>(command);
+      withPort.add(String.valueOf(serverSocket.getLocalPort()));
+      process = new ProcessBuilder(withPort).redirectErrorStream(true).start();
+      passThrough(process.getInputStream());
+      OutputStream input = process.getOutputStream();
+      input.write((token + "\n").getBytes("UTF-8"));
+      IOUtils.closeQuietly(input);
+      remote = accept(serverSocket, token);
+    } finally {
+      serverSocket.close();
+    }
+  }
+
+  /** @return the connection from the child, once it has started with the token. */
+  private RemoteSpecRunner accept(ServerSocket serverSocket, String token) throws IOException {
+    serverSocket.setSoTimeout(ACCEPT_POLL_MILLIS);
+    long deadline = System.currentTimeMillis() + CONNECT_TIMEOUT_MILLIS;
+    while (System.currentTimeMillis() < deadline) {
+      if (!isAlive()) {
+        throw new IOException("The forked JVM exited with " + process.exitValue() + " before connecting (see jasmine.forkArgLine)");
+      }
+      Socket socket;
+      try {
+        socket = serverSocket.accept();
+      } catch (SocketTimeoutException e) {
+        continue;
+      }
+      try {
+        socket.setSoTimeout(CONNECT_TIMEOUT_MILLIS);
+        ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        out.flush();
+        ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(socket.getInputStream()));
+        if (token.equals(in.readUTF())) {
+          socket.setSoTimeout(0);
+          return new RemoteSpecRunner(out, in);
+        }
+      } catch (IOException e) {
+        // Not the child; keep waiting for it.
+      }
+      socket.close();
+    }
+    process.destroy();
+    throw new IOException("The forked JVM didn't connect within " + CONNECT_TIMEOUT_MILLIS + "ms");
+  }
+
+  /** @return the command starting a {@link ForkedSpecRunner} with the given JVM arguments
+   * (whitespace separated, e.g. "-Xmx1g -XX:+UseParallelGC") and with the classes of the
+   * given class loader (i.e. the plugin's) on its classpath.
+   */
+  public static List<String> command(String argLine, ClassLoader classLoader) {
+    return command(argLine, classLoader, ForkedSpecRunner.class);
+  }
+
+  /** @return the command starting the given main class the way {@link #command(String, ClassLoader)}
+   * starts a {@link ForkedSpecRunner}, followed by the given arguments.
+   */
+  public static List<String> command(String argLine, ClassLoader classLoader, Class<?> mainClass, String... args) {
+    List<String> command = new ArrayList<String>();
+    command.add(new File(new File(System.getProperty("java.home"), "bin"), "java").getAbsolutePath());
+    for (String arg : StringUtils.split(StringUtils.defaultString(argLine))) {
+      command.add(arg);
+    }
+    command.add("-cp");
+    command.add(StringUtils.join(classpath(classLoader).iterator(), File.pathSeparator));
+    command.add(mainClass.getName());
+    for (String arg : args) {
+      command.add(arg);
+    }
+    return command;
+  }
+
+  /** Maven doesn't put its own API on a plugin's classpath, so the jar holding
+   * {@link Log} is added to the plugin's own jars.
+   */
+  public static Set<String> classpath(ClassLoader classLoader) {
+    Set<String> classpath = new LinkedHashSet<String>();
+    if (classLoader instanceof URLClassLoader) {
+      for (URL url : ((URLClassLoader) classLoader).getURLs()) {
+        classpath.add(FileUtils.toFile(url).getAbsolutePath());
+      }
+    }
+    classpath.add(FileUtils.toFile(Log.class.getProtectionDomain().getCodeSource().getLocation()).getAbsolutePath());
+    return classpath;
+  }
+
+  /** Runs the given run in the child JVM (see {@link RemoteSpecRunner#execute}). */
+  public JasmineResult execute(SpecRun run, List<SpecResultListener> listeners, Log log) throws IOException {
+    return remote.execute(run, listeners, log);
+  }
+
+  public boolean isAlive() {
+    try {
+      process.exitValue();
+      return false;
+    } catch (IllegalThreadStateException e) {
+      return true;
+    }
+  }
+
+  /** Closes the connection to the child, which makes it exit, and kills it if it hasn't
+   * exited after a while.
+   */
+  public void close() {
+    remote.close();
+    long deadline = System.currentTimeMillis() + EXIT_WAIT_MILLIS;
+    while (isAlive() && System.currentTimeMillis() < deadline) {
+      try {
+        Thread.sleep(50);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+    }
+    process.destroy();
+  }
+
+  private void passThrough(final InputStream output) {
+    Thread thread = new Thread("jasmine-fork-output") {
+      @Override
+      public void run() {
+        try {
+          IOUtils.copy(output, System.err);
+        } catch (IOException e) {
+          // The child is gone; there's nothing left to pass through.
+        }
+      }
+    };
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+}
@@ -0,0 +1,102 @@
+package com.github.searls.jasmine.runner;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang.StringUtils;
+
+/** Keeps {@link ForkedJvm}s around for later executions instead of closing them, the way
+ * {@link WebDriverPool} does for drivers. Forks are pooled by the command that started
+ * them, so changing the JVM arguments (or the plugin's classpath) starts a new one. The
+ * {@link #shared()} pool lives as long as the plugin's class realm.
+ */
+public class ForkedJvmPool {
+
+  private static final ForkedJvmPool SHARED = new ForkedJvmPool();
+
+  private final Map<String, LinkedList<ForkedJvm>> idle = new HashMap<String, LinkedList<ForkedJvm>>();
+  private int created;
+  private int reused;
+  private boolean shutdownHookRegistered;
+
+  public static ForkedJvmPool shared() {
+    return SHARED;
+  }
+
+  public ForkedJvm acquire(List<String> command) throws IOException {
+    synchronized (this) {
+      LinkedList<ForkedJvm> forks = idle.get(key(command));
+      while (forks != null && !forks.isEmpty()) {
+        ForkedJvm fork = forks.removeFirst();
+        if (fork.isAlive()) {
+          reused++;
+          return fork;
+        }
+      }
+      created++;
+      registerShutdownHook();
+    }
+    return new ForkedJvm(command);
+  }
+
+  /** Keeps the fork for the next {@link #acquire(List)} with the same command, unless it has exited. */
+  public void release(List<String> command, ForkedJvm fork) {
+    if (!fork.isAlive()) {
+      return;
+    }
+    synchronized (this) {
+      LinkedList<ForkedJvm> forks = idle.get(key(command));
+      if (forks == null) {
+        forks = new LinkedList<ForkedJvm>();
+        idle.put(key(command), forks);
+      }
+      forks.addLast(fork);
+    }
+  }
+
+  public void discard(ForkedJvm fork) {
+    fork.close();
+  }
+
+  public void closeAll() {
+    List<ForkedJvm> forks = new ArrayList<ForkedJvm>();
+    synchronized (this) {
+      for (LinkedList<ForkedJvm> idleForks : idle.values()) {
+        forks.addAll(idleForks);
+      }
+      idle.clear();
+    }
+    for (ForkedJvm fork : forks) {
+      discard(fork);
+    }
+  }
+
+  public synchronized String statistics() {
+    int idleCount = 0;
+    for (LinkedList<ForkedJvm> forks : idle.values()) {
+      idleCount += forks.size();
+    }
+    return created + " created, " + reused + " reused, " + idleCount + " idle";
+  }
+
+  private String key(List<String> command) {
+    return StringUtils.join(command.iterator(), " ");
+  }
+
+  private void registerShutdownHook() {
+    if (!shutdownHookRegistered) {
+      shutdownHookRegistered = true;
+      Runtime.getRuntime().addShutdownHook(new Thread("jasmine-fork-pool-shutdown") {
+        @Override
+        public void run() {
+          closeAll();
+        }
+      });
+    }
+  }
+
+}
@@ -0,0 +1,49 @@
+package com.github.searls.jasmine.runner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/** Reads the requests a {@link ForkedSpecRunner} serves, refusing to deserialize anything
+ * but {@link SpecRun}s, {@link ForkedSpecRunner.CompileCoffee}s and the JDK types they
+ * carry, so a connection to the daemon can't instantiate whatever else happens to be on
+ * its classpath.
+ */
+public class ForkedRequestInputStream extends ObjectInputStream {
+
+  private static final Set<String> ACCEPTED = new HashSet<String>(Arrays.asList(
+    SpecRun.class.getName(),
+    ForkedSpecRunner.CompileCoffee.class.getName(),
+    String.class.getName(),
+    ArrayList.class.getName(),
+    URL.class.getName()));
+
+  public ForkedRequestInputStream(InputStream in) throws IOException {
+    super(in);
+  }
+
+  @Override
+  protected Class<?> resolveClass(ObjectStreamClass descriptor) throws IOException, ClassNotFoundException {
+    if (!accepts(descriptor.getName())) {
+      throw new InvalidClassException(descriptor.getName(), "not a forked spec runner request");
+    }
+    return super.resolveClass(descriptor);
+  }
+
+  @Override
+  protected Class<?> resolveProxyClass(String[] interfaces) throws IOException, ClassNotFoundException {
+    throw new InvalidClassException("proxy", "not a forked spec runner request");
+  }
+
+  private boolean accepts(String className) {
+    return ACCEPTED.contains(className);
+  }
+
+}
@@ -0,0 +1,303 @@
+package com.github.searls.jasmine.runner;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang.exception.ExceptionUtils;
+import org.apache.maven.plugin.logging.Log;
+
+import com.github.searls.jasmine.coffee.CoffeeScript;
+import com.github.searls.jasmine.model.JasmineResult;
+
+/** The main class of the JVMs jasmine:test forks to run specs in (see {@link ForkedJvm}).
+ * It reads {@link SpecRun}s from a loopback connection to jasmine:test, one at a time,
+ * and runs each in its {@link SpecEngine}, streaming what happens back over the
+ * same connection: log messages and batches of spec results as they come, and then the
+ * run's result.
+ *
+ * <p>
+ * Standard output and error are left to whatever the JVM and the specs write, so none of
+ * it can get in the way. The JVM exits once the connection is closed.
+ * </p>
+ */
+public class ForkedSpecRunner {
+
+  private static final CoffeeScript COFFEE_SCRIPT = new CoffeeScript();
+
+  private final ObjectOutputStream out;
+
+  public ForkedSpecRunner(ObjectOutputStream out) {
+    this.out = out;
+  }
+
+  /** Connects to the loopback port given as the argument, starting the connection with the
+   * token read from standard input (see {@link ForkedJvm}).
+   */
+  public static void main(String[] args) throws Exception {
+    String token = new BufferedReader(new InputStreamReader(System.in, "UTF-8")).readLine();
+    Socket socket = new Socket(InetAddress.getByName("127.0.0.1"), Integer.parseInt(args[0]));
+    try {
+      ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+      out.writeUTF(token);
+      out.flush();
+      new ForkedSpecRunner(out).serve(new ForkedRequestInputStream(new BufferedInputStream(socket.getInputStream())));
+    } finally {
+      socket.close();
+      WebDriverPool.shared().quitAll();
+    }
+    System.exit(0);
+  }
+
+  public void serve(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    while (true) {
+      Object request;
+      try {
+        request = in.readObject();
+      } catch (EOFException e) {
+        return;
+      }
+      if (request instanceof CompileCoffee) {
+        send(compile((CompileCoffee) request));
+      } else {
+        send(run((SpecRun) request));
+      }
+    }
+  }
+
+  private CoffeeCompiled compile(CompileCoffee request) {
+    try {
+      return new CoffeeCompiled(COFFEE_SCRIPT.compile(request.getCoffee()), null);
+    } catch (Exception e) {
+      return new CoffeeCompiled(null, ExceptionUtils.getFullStackTrace(e));
+    }
+  }
+
+  private RunFinished run(SpecRun run) {
+    try {
+      SpecEngine engine = new FindsSpecEngine().find(run.getEngine(), getClass().getClassLoader());
+      SpecRunnerExecutor specRunnerExecutor = new SpecRunnerExecutor();
+      specRunnerExecutor.addListener(new SpecResultListener() {
+        public void resultsDrained(List<Map<String, Object>> results, List<Map<String, Object>> suites) {
+          send(new ResultsDrained(results, suites));
+        }
+      });
+      if (run.getMaxFailures() > 0) {
+        specRunnerExecutor.setFailureLimit(new FailureLimit(run.getMaxFailures()));
+      }
+      return new RunFinished(engine.execute(run, specRunnerExecutor, new ForwardingLog()), null);
+    } catch (RuntimeException e) {
+      return new RunFinished(null, ExceptionUtils.getFullStackTrace(e));
+    }
+  }
+
+  private synchronized void send(Serializable message) {
+    try {
+      out.writeObject(message);
+      out.flush();
+      out.reset();
+    } catch (IOException e) {
+      throw new RuntimeException("Couldn't report back to jasmine:test", e);
+    }
+  }
+
+  /** A batch of spec results, as drained from the runner (see {@link SpecResultListener}). */
+  public static class ResultsDrained implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<Map<String, Object>> results;
+    private final List<Map<String, Object>> suites;
+
+    public ResultsDrained(List<Map<String, Object>> results, List<Map<String, Object>> suites) {
+      this.results = new ArrayList<Map<String, Object>>(results);
+      this.suites = new ArrayList<Map<String, Object>>(suites);
+    }
+
+    public List<Map<String, Object>> getResults() {
+      return results;
+    }
+
+    public List<Map<String, Object>> getSuites() {
+      return suites;
+    }
+
+  }
+
+  public static class LogMessage implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Level { DEBUG, INFO, WARN, ERROR }
+
+    private final Level level;
+    private final String message;
+
+    public LogMessage(Level level, String message) {
+      this.level = level;
+      this.message = message;
+    }
+
+    public void logTo(Log log) {
+      switch (level) {
+        case DEBUG: log.debug(message); break;
+        case INFO: log.info(message); break;
+        case WARN: log.warn(message); break;
+        default: log.error(message);
+      }
+    }
+
+  }
+
+  /** The result of a run, or the stack trace of what kept it from finishing. */
+  public static class RunFinished implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final JasmineResult result;
+    private final String failure;
+
+    public RunFinished(JasmineResult result, String failure) {
+      this.result = result;
+      this.failure = failure;
+    }
+
+    public JasmineResult getResult() {
+      return result;
+    }
+
+    public String getFailure() {
+      return failure;
+    }
+
+  }
+
+  /** Asks for a CoffeeScript source to be compiled with the runner's (warm) compiler. */
+  public static class CompileCoffee implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String coffee;
+
+    public CompileCoffee(String coffee) {
+      this.coffee = coffee;
+    }
+
+    public String getCoffee() {
+      return coffee;
+    }
+
+  }
+
+  /** The JavaScript a {@link CompileCoffee} compiled to, or the stack trace of why it didn't. */
+  public static class CoffeeCompiled implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String javaScript;
+    private final String failure;
+
+    public CoffeeCompiled(String javaScript, String failure) {
+      this.javaScript = javaScript;
+      this.failure = failure;
+    }
+
+    public String getJavaScript() {
+      return javaScript;
+    }
+
+    public String getFailure() {
+      return failure;
+    }
+
+  }
+
+  /** Sends everything logged back to jasmine:test, which logs what its own log level lets through. */
+  private class ForwardingLog implements Log {
+
+    public boolean isDebugEnabled() {
+      return true;
+    }
+
+    public void debug(CharSequence content) {
+      log(LogMessage.Level.DEBUG, content, null);
+    }
+
+    public void debug(CharSequence content, Throwable error) {
+      log(LogMessage.Level.DEBUG, content, error);
+    }
+
+    public void debug(Throwable error) {
+      log(LogMessage.Level.DEBUG, null, error);
+    }
+
+    public boolean isInfoEnabled() {
+      return true;
+    }
+
+    public void info(CharSequence content) {
+      log(LogMessage.Level.INFO, content, null);
+    }
+
+    public void info(CharSequence content, Throwable error) {
+      log(LogMessage.Level.INFO, content, error);
+    }
+
+    public void info(Throwable error) {
+      log(LogMessage.Level.INFO, null, error);
+    }
+
+    public boolean isWarnEnabled() {
+      return true;
+    }
+
+    public void warn(CharSequence content) {
+      log(LogMessage.Level.WARN, content, null);
+    }
+
+    public void warn(CharSequence content, Throwable error) {
+      log(LogMessage.Level.WARN, content, error);
+    }
+
+    public void warn(Throwable error) {
+      log(LogMessage.Level.WARN, null, error);
+    }
+
+    public boolean isErrorEnabled() {
+      return true;
+    }
+
+    public void error(CharSequence content) {
+      log(LogMessage.Level.ERROR, content, null);
+    }
+
+    public void error(CharSequence content, Throwable error) {
+      log(LogMessage.Level.ERROR, content, error);
+    }
+
+    public void error(Throwable error) {
+      log(LogMessage.Level.ERROR, null, error);
+    }
+
+    private void log(LogMessage.Level level, CharSequence content, Throwable error) {
+      StringBuilder message = new StringBuilder(content == null ? "" : content.toString());
+      if (error != null) {
+        message.append(message.length() > 0 ? "\n" : "").append(ExceptionUtils.getFullStackTrace(error));
+      }
+      send(new LogMessage(level, message.toString()));
+    }
+
+  }
+
+}
@@ -7,6 +7,8 @@ import com.github.searls.jasmine.io.scripts.ScriptResolver;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
 
 public class HtmlGeneratorConfiguration {
@@ -20,6 +22,11 @@ public class HtmlGeneratorConfiguration {
   private String sourceDirectoryRelativePath;
     private String scriptLoaderPath;
   private File customRunnerConfiguration;
+  private int maxFailures;
+  private int specTimeout;
+  private boolean virtualTime;
+  private boolean lean;
+  private String specFilter;
 
 
   public HtmlGeneratorConfiguration(ReporterType reporterType, AbstractJasmineMojo configuration, ScriptResolver scriptResolver) throws IOException {
@@ -33,6 +40,11 @@ public class HtmlGeneratorConfiguration {
     this.fileUtilsWrapper = new FileUtilsWrapper();
     this.ioUtilsWrapper  = new IOUtilsWrapper();
     this.scriptLoaderPath = configuration.getScriptLoaderPath();
+    this.maxFailures = configuration.getMaxFailures();
+    this.specTimeout = configuration.getSpecTimeout();
+    this.virtualTime = configuration.isVirtualTime();
+    this.lean = configuration.isLean() && reporterType == ReporterType.JsApiReporter;
+    this.specFilter = configuration.getSpecFilter();
   }
 
   public Set<String> getAllScripts() throws IOException {
@@ -145,6 +157,31 @@ public class HtmlGeneratorConfiguration {
   public String getScriptLoaderPath() {
       return scriptLoaderPath;
   }
+
+  public boolean isVirtualTime() {
+    return virtualTime;
+  }
+
+  /** @return whether to generate the lean headless runner (see jasmine.lean), which only jasmine:test's runners (i.e. using the JsApiReporter) can be. */
+  public boolean isLean() {
+    return lean;
+  }
+
+  /** Settings for the plugin's own runner scripts (see specResultQueue.js), exposed to them as jasmineMavenPlugin.config. */
+  public Map<String, Object> getRunnerConfig() {
+    return runnerConfig(maxFailures, specTimeout, specFilter);
+  }
+
+  /** @return the settings of the plugin's own scripts, for the given maxFailures, specTimeout (in seconds) and specFilter. */
+  public static Map<String, Object> runnerConfig(int maxFailures, int specTimeout, String specFilter) {
+    Map<String, Object> config = new LinkedHashMap<String, Object>();
+    config.put("maxFailures", maxFailures);
+    config.put("specTimeoutMillis", specTimeout * 1000);
+    if (specFilter != null && specFilter.length() > 0) {
+      config.put("specFilter", specFilter);
+    }
+    return config;
+  }
 }
 
 
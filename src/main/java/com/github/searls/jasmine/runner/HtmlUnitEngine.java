@@ -0,0 +1,62 @@
+package com.github.searls.jasmine.runner;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.maven.plugin.logging.Log;
+import org.openqa.selenium.WebDriver;
+
+import com.gargoylesoftware.htmlunit.BrowserVersion;
+import com.github.searls.jasmine.model.JasmineResult;
+
+/** Runs the specs in HtmlUnit (see {@link JasmineHtmlUnitDriver}), emulating the run's
+ * browser version. It's the default engine, and the only one that can run the specs as
+ * batches on a warm page (see {@link #executeBatches(SpecRun, List, SpecRunnerExecutor, Log)}).
+ */
+public class HtmlUnitEngine extends WebDriverEngine {
+
+  public static final String NAME = "htmlunit";
+
+  public String getName() {
+    return NAME;
+  }
+
+  @Override
+  protected WebDriver createDriver(SpecRun run) {
+    try {
+      return new JasmineHtmlUnitDriver((BrowserVersion) BrowserVersion.class.getField(run.getBrowserVersion()).get(BrowserVersion.class), run.isDebug());
+    } catch (Exception e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  @Override
+  protected void prepareDriver(WebDriver driver, SpecRun run, Log log) {
+    JasmineHtmlUnitDriver htmlUnitDriver = (JasmineHtmlUnitDriver) driver;
+    htmlUnitDriver.serveFrom(run.getConnection());
+    htmlUnitDriver.limitSpecInstructions(run.getSpecInstructionBudget());
+    htmlUnitDriver.runLean(run.isLean());
+  }
+
+  /** Loads the run's runner (which shouldn't have any specs of its own) once, and then
+   * runs each batch of spec files on it.
+   */
+  public List<JasmineResult> executeBatches(SpecRun warmRun, List<List<URL>> batches, SpecRunnerExecutor executor, Log log) {
+    WebDriver driver = acquireDriver(warmRun);
+    boolean reusable = false;
+    try {
+      prepareDriver(driver, warmRun, log);
+      executor.loadWarmPage(warmRun.getRunner(), driver, warmRun.getTimeout(), warmRun.isDebug(), log);
+      List<JasmineResult> results = new ArrayList<JasmineResult>();
+      for (List<URL> batch : batches) {
+        results.add(executor.executeBatch(batch, (JasmineHtmlUnitDriver) driver, warmRun.getTimeout(), warmRun.isDebug(), log, warmRun.getFormat()));
+      }
+      reusable = true;
+      return results;
+    } finally {
+      releaseDriver(driver, warmRun, reusable);
+    }
+  }
+
+}
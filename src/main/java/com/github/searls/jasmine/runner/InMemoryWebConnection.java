@@ -0,0 +1,125 @@
+package com.github.searls.jasmine.runner;
+
+import static org.apache.commons.lang.StringUtils.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+
+import com.gargoylesoftware.htmlunit.WebConnection;
+import com.gargoylesoftware.htmlunit.WebRequest;
+import com.gargoylesoftware.htmlunit.WebResponse;
+import com.gargoylesoftware.htmlunit.WebResponseData;
+import com.gargoylesoftware.htmlunit.util.NameValuePair;
+import com.github.searls.jasmine.coffee.CoffeeScript;
+import com.github.searls.jasmine.coffee.DetectsCoffee;
+import com.github.searls.jasmine.format.BuildsJavaScriptToWriteFailureHtml;
+
+/** Serves spec runners from memory and every other file straight from the project
+ * directory, so HtmlUnit can run specs without copying anything to the target
+ * directory or writing runners to disk. CoffeeScript is compiled as it's requested.
+ *
+ * <p>
+ * Only requests for {@link #HOST} are answered; runners generated with paths
+ * relative to the project directory resolve against it.
+ * </p>
+ */
+public class InMemoryWebConnection implements WebConnection {
+
+  public static final String HOST = "jasmine.localhost";
+
+  private static final String DEFAULT_ENCODING = "UTF-8";
+  private static final Map<String, String> CONTENT_TYPES = new HashMap<String, String>();
+  static {
+    CONTENT_TYPES.put("js", "text/javascript");
+    CONTENT_TYPES.put("coffee", "text/javascript");
+    CONTENT_TYPES.put("html", "text/html");
+    CONTENT_TYPES.put("htm", "text/html");
+    CONTENT_TYPES.put("css", "text/css");
+    CONTENT_TYPES.put("json", "application/json");
+  }
+
+  private final File baseDir;
+  private final String encoding;
+  private final Map<String, String> pages = Collections.synchronizedMap(new HashMap<String, String>());
+
+  private CoffeeScript coffeeScript = new CoffeeScript();
+  private DetectsCoffee detectsCoffee = new DetectsCoffee();
+  private BuildsJavaScriptToWriteFailureHtml buildsJavaScriptToWriteFailureHtml = new BuildsJavaScriptToWriteFailureHtml();
+
+  public InMemoryWebConnection(File baseDir, String encoding) {
+    this.baseDir = baseDir;
+    this.encoding = defaultIfEmpty(encoding, DEFAULT_ENCODING);
+  }
+
+  /** @return the URL the page is served at. */
+  public URL addPage(String fileName, String html) throws IOException {
+    String path = "/" + removeStart(fileName, "/");
+    pages.put(path, html);
+    return new URL("http", HOST, path);
+  }
+
+  public boolean serves(URL url) {
+    return HOST.equalsIgnoreCase(url.getHost());
+  }
+
+  public WebConnection withFallback(final WebConnection fallback) {
+    return new WebConnection() {
+      public WebResponse getResponse(WebRequest request) throws IOException {
+        if (serves(request.getUrl())) {
+          return InMemoryWebConnection.this.getResponse(request);
+        }
+        return fallback.getResponse(request);
+      }
+    };
+  }
+
+  public WebResponse getResponse(WebRequest request) throws IOException {
+    String path = URLDecoder.decode(replace(request.getUrl().getPath(), "+", "%2B"), DEFAULT_ENCODING);
+    String page = pages.get(path);
+    if (page != null) {
+      return response(request, 200, "OK", page, "text/html");
+    }
+    File file = new File(baseDir, path);
+    if (!serves(request.getUrl()) || !file.isFile()) {
+      return response(request, 404, "Not Found", "", "text/plain");
+    }
+    if (detectsCoffee.detect(path)) {
+      return response(request, 200, "OK", compileCoffee(file), "text/javascript");
+    }
+    return response(request, 200, "OK", FileUtils.readFileToByteArray(file), contentType(path));
+  }
+
+  private String compileCoffee(File file) {
+    try {
+      return coffeeScript.compile(FileUtils.readFileToString(file, encoding));
+    } catch(Exception e) {
+      return buildsJavaScriptToWriteFailureHtml.build("CoffeeScript Error: failed to compile <code>"+file.getName()+"</code>. <br/>Error message:<br/><br/><code>"+e.getMessage()+"</code>");
+    }
+  }
+
+  private String contentType(String path) {
+    String contentType = CONTENT_TYPES.get(lowerCase(substringAfterLast(path, ".")));
+    return contentType != null ? contentType : "application/octet-stream";
+  }
+
+  private WebResponse response(WebRequest request, int status, String message, String body, String contentType) throws IOException {
+    return response(request, status, message, body.getBytes(encoding), contentType);
+  }
+
+  private WebResponse response(WebRequest request, int status, String message, byte[] body, String contentType) throws IOException {
+    List<NameValuePair> headers = new ArrayList<NameValuePair>();
+    headers.add(new NameValuePair("Content-Type", contentType + "; charset=" + encoding));
+    headers.add(new NameValuePair("Content-Length", String.valueOf(body.length)));
+    return new WebResponse(new WebResponseData(body, status, message, headers), request, 0);
+  }
+
+}
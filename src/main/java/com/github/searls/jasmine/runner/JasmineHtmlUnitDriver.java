@@ -0,0 +1,107 @@
+package com.github.searls.jasmine.runner;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.List;
+
+import net.sourceforge.htmlunit.corejs.javascript.BaseFunction;
+import net.sourceforge.htmlunit.corejs.javascript.Context;
+import net.sourceforge.htmlunit.corejs.javascript.NativeObject;
+import net.sourceforge.htmlunit.corejs.javascript.Script;
+import net.sourceforge.htmlunit.corejs.javascript.Scriptable;
+import net.sourceforge.htmlunit.corejs.javascript.ScriptableObject;
+
+import org.openqa.selenium.htmlunit.HtmlUnitDriver;
+
+import com.gargoylesoftware.htmlunit.BrowserVersion;
+import com.gargoylesoftware.htmlunit.IncorrectnessListener;
+import com.gargoylesoftware.htmlunit.NicelyResynchronizingAjaxController;
+import com.gargoylesoftware.htmlunit.WebClient;
+import com.gargoylesoftware.htmlunit.WebConnection;
+import com.gargoylesoftware.htmlunit.WebRequest;
+import com.gargoylesoftware.htmlunit.html.HtmlPage;
+
+/** The {@link HtmlUnitDriver} jasmine:test runs specs in (see {@link HtmlUnitEngine}). Besides the one-time
+ * configuration of its {@link WebClient}, it lets a (pooled) driver be pointed
+ * at a different {@link WebConnection}, given a different instruction budget
+ * per spec, and made lean or not, for each run. It can also run a batch of scripts on the page it has
+ * loaded, in a scope of their own (see {@link #evaluateInFreshScope(List)}).
+ */
+public class JasmineHtmlUnitDriver extends HtmlUnitDriver {
+
+  private final WebConnection defaultWebConnection;
+  private final CachingJavaScriptEngine javaScriptEngine;
+
+  public JasmineHtmlUnitDriver(BrowserVersion browserVersion, boolean debug) {
+    super(browserVersion);
+    WebClient client = getWebClient();
+    client.setAjaxController(new NicelyResynchronizingAjaxController());
+
+    client.getJavaScriptEngine().shutdownJavaScriptExecutor();
+    javaScriptEngine = new CachingJavaScriptEngine(client, CompiledScriptCache.shared());
+    client.setJavaScriptEngine(javaScriptEngine);
+
+    //Disables stuff like this "com.gargoylesoftware.htmlunit.IncorrectnessListenerImpl notify WARNING: Obsolete content type encountered: 'text/javascript'."
+    if (!debug) {
+      client.setIncorrectnessListener(new IncorrectnessListener() {
+        public void notify(String arg0, Object arg1) {}
+      });
+    }
+    defaultWebConnection = client.getWebConnection();
+    setJavascriptEnabled(true);
+  }
+
+  /** Serves the runner from the given connection, falling back to the network for anything it doesn't host.
+   * Passing null restores the driver's own connection.
+   */
+  public void serveFrom(InMemoryWebConnection connection) {
+    getWebClient().setWebConnection(connection == null ? defaultWebConnection : connection.withFallback(defaultWebConnection));
+  }
+
+  /** Aborts any spec that runs more than the given number of JavaScript instructions; 0 for no limit. */
+  public void limitSpecInstructions(long budget) {
+    javaScriptEngine.setSpecInstructionBudget(budget);
+  }
+
+  /** Skips CSS (so neither style sheets nor the styles of elements are worked out) and
+   * blocks popups, or goes back to HtmlUnit's defaults. Either applies from the next page
+   * the driver loads.
+   */
+  public void runLean(boolean lean) {
+    WebClient client = getWebClient();
+    client.setCssEnabled(!lean);
+    client.setPopupBlockerEnabled(lean);
+  }
+
+  /** Runs the given scripts, in order, on the page the driver has loaded, all in one new
+   * scope nested in the page's window. Whatever they declare at the top level (with var or
+   * function) stays in that scope instead of ending up on the window, while everything
+   * already on the page (e.g. Jasmine, the preloads and the sources) is still in reach.
+   * Names are looked up on the window itself, rather than through a prototype, since
+   * HtmlUnit's host objects only work on themselves.
+   */
+  public void evaluateInFreshScope(List<URL> scripts) throws IOException {
+    WebClient client = getWebClient();
+    HtmlPage page = (HtmlPage) client.getCurrentWindow().getEnclosedPage();
+    Scriptable window = (Scriptable) page.getEnclosingWindow().getScriptObject();
+    final Scriptable scope = new NativeObject();
+    scope.setPrototype(ScriptableObject.getObjectPrototype(window));
+    scope.setParentScope(window);
+    for (URL url : scripts) {
+      String source = client.loadWebResponse(new WebRequest(url)).getContentAsString(page.getPageEncoding());
+      final Script script = javaScriptEngine.compile(page, source, url.toExternalForm(), 1);
+      if (script == null) {
+        continue;
+      }
+      javaScriptEngine.callFunction(page, new BaseFunction() {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public Object call(Context cx, Scriptable callScope, Scriptable thisObj, Object[] args) {
+          return script.exec(cx, scope);
+        }
+      }, scope, scope, new Object[0]);
+    }
+  }
+
+}
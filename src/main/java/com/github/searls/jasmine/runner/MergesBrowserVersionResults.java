@@ -0,0 +1,39 @@
+package com.github.searls.jasmine.runner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.github.searls.jasmine.model.JasmineResult;
+import com.github.searls.jasmine.model.JasmineSuite;
+
+/** Combines the results of running the same specs on several browser versions
+ * into one result: each version's details under its name, followed by a line
+ * per version and the overall counts. The result only passes if every version did.
+ */
+public class MergesBrowserVersionResults {
+
+  public JasmineResult merge(Map<String, JasmineResult> results) {
+    JasmineResult merged = new JasmineResult();
+    List<JasmineSuite> suites = new ArrayList<JasmineSuite>();
+    StringBuilder details = new StringBuilder();
+    StringBuilder summary = new StringBuilder();
+    for (Map.Entry<String, JasmineResult> versionResult : results.entrySet()) {
+      JasmineResult result = versionResult.getValue();
+      suites.addAll(result.getSuites());
+      merged.setSpecCount(merged.getSpecCount() + result.getSpecCount());
+      merged.setFailureCount(merged.getFailureCount() + result.getFailureCount());
+      merged.setSkippedCount(merged.getSkippedCount() + result.getSkippedCount());
+      merged.setStopped(merged.isStopped() || result.isStopped());
+      merged.setDuration(Math.max(merged.getDuration(), result.getDuration()));
+      details.append("\n[").append(versionResult.getKey()).append("]\n").append(result.getDetails().trim()).append("\n");
+      summary.append("  ").append(versionResult.getKey()).append(": ").append(result.getDescription()).append("\n");
+    }
+    details.append("\nBrowser versions:\n").append(summary);
+    details.append("\nResults: ").append(merged.getSpecCount()).append(" specs, ").append(merged.getFailureCount()).append(" failures\n");
+    merged.setSuites(suites);
+    merged.setDetails(details.toString());
+    return merged;
+  }
+
+}
@@ -0,0 +1,41 @@
+package com.github.searls.jasmine.runner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.github.searls.jasmine.model.JasmineResult;
+import com.github.searls.jasmine.model.JasmineSuite;
+
+/** Combines the results of several spec runner shards into the single result
+ * that an unsharded run would produce.
+ */
+public class MergesShardResults {
+
+  private static final Pattern RESULTS_LINE = Pattern.compile("\\n*Results: \\d+ specs, \\d+ failures\\n*$");
+
+  public JasmineResult merge(List<JasmineResult> results) {
+    JasmineResult merged = new JasmineResult();
+    List<JasmineSuite> suites = new ArrayList<JasmineSuite>();
+    StringBuilder details = new StringBuilder();
+    for (JasmineResult result : results) {
+      suites.addAll(result.getSuites());
+      merged.setSpecCount(merged.getSpecCount() + result.getSpecCount());
+      merged.setFailureCount(merged.getFailureCount() + result.getFailureCount());
+      merged.setSkippedCount(merged.getSkippedCount() + result.getSkippedCount());
+      merged.setStopped(merged.isStopped() || result.isStopped());
+      merged.setDuration(merged.getDuration() + result.getDuration());
+      if (details.length() > 0) {
+        details.append("\n");
+      }
+      Matcher matcher = RESULTS_LINE.matcher(result.getDetails());
+      details.append(matcher.find() ? result.getDetails().substring(0, matcher.start()) : result.getDetails());
+    }
+    details.append("\n\nResults: ").append(merged.getSpecCount()).append(" specs, ").append(merged.getFailureCount()).append(" failures\n");
+    merged.setSuites(suites);
+    merged.setDetails(details.toString());
+    return merged;
+  }
+
+}
@@ -0,0 +1,76 @@
+package com.github.searls.jasmine.runner;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.maven.plugin.logging.Log;
+
+/** Splits the spec files into shards that should take about as long as each other,
+ * going by how long each spec file took last time (see {@link EstimatesSpecFileDurations}),
+ * and logs the plan: each shard's estimated duration, and the expected makespan (i.e.
+ * how long until the last shard finishes) when the shards run on the given number of
+ * browsers at once.
+ */
+public class PlansShards {
+
+  private final RemembersSpecFileDurations remembersSpecFileDurations;
+  private final EstimatesSpecFileDurations estimatesSpecFileDurations;
+  private SplitsSpecsIntoShards splitsSpecsIntoShards = new SplitsSpecsIntoShards();
+
+  public PlansShards(RemembersSpecFileDurations remembersSpecFileDurations, String encoding) {
+    this.remembersSpecFileDurations = remembersSpecFileDurations;
+    this.estimatesSpecFileDurations = new EstimatesSpecFileDurations(encoding);
+  }
+
+  public List<Set<String>> plan(Set<String> specs, String specDirectory, int shardCount, int browsers, Log log) throws IOException {
+    Map<String, Long> durations = estimatesSpecFileDurations.estimate(specs, specDirectory, remembersSpecFileDurations.durations());
+    List<Set<String>> shards = splitsSpecsIntoShards.split(specs, shardCount, durations);
+
+    List<Long> shardDurations = new ArrayList<Long>();
+    for (Set<String> shard : shards) {
+      long shardDuration = 0;
+      for (String spec : shard) {
+        shardDuration += durations.get(spec);
+      }
+      shardDurations.add(shardDuration);
+    }
+    int timed = estimatesSpecFileDurations.getTimedCount();
+    log.info("Planned " + shards.size() + " shards by the durations of " + timed + " of " + specs.size() + " spec files"
+      + (timed < specs.size() ? " (estimating the rest by their number of specs)" : "")
+      + "; expected makespan " + seconds(makespan(shardDurations, browsers)) + " on " + Math.min(browsers, shards.size()) + " browsers:");
+    for (int i = 0; i < shards.size(); i++) {
+      log.info("  shard " + (i + 1) + ": " + shards.get(i).size() + " spec files, " + seconds(shardDurations.get(i)));
+    }
+    return shards;
+  }
+
+  /** @return when the last shard finishes if each shard, in order, starts on the
+   * first browser to become free.
+   */
+  long makespan(List<Long> shardDurations, int browsers) {
+    long[] freeAt = new long[Math.max(1, Math.min(browsers, shardDurations.size()))];
+    for (long shardDuration : shardDurations) {
+      int first = 0;
+      for (int i = 1; i < freeAt.length; i++) {
+        if (freeAt[i] < freeAt[first]) {
+          first = i;
+        }
+      }
+      freeAt[first] += shardDuration;
+    }
+    long makespan = 0;
+    for (long finished : freeAt) {
+      makespan = Math.max(makespan, finished);
+    }
+    return makespan;
+  }
+
+  private String seconds(long millis) {
+    return String.format(Locale.US, "~%.1fs", millis / 1000.0);
+  }
+
+}
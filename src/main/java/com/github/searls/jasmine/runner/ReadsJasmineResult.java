@@ -0,0 +1,84 @@
+package com.github.searls.jasmine.runner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.github.searls.jasmine.model.JasmineItem;
+import com.github.searls.jasmine.model.JasmineResult;
+import com.github.searls.jasmine.model.JasmineSpec;
+import com.github.searls.jasmine.model.JasmineSuite;
+import com.github.searls.jasmine.model.SpecMessage;
+
+/** Builds the typed {@link JasmineResult} from the suite tree extracted by
+ * specResultQueue.js, counting specs, failures and skipped specs on the way.
+ */
+public class ReadsJasmineResult {
+
+  public JasmineResult read(Map<String, Object> extracted) {
+    JasmineResult result = new JasmineResult();
+    List<JasmineSuite> suites = new ArrayList<JasmineSuite>();
+    for (JasmineItem item : readItems(list(extracted.get("suites")), result)) {
+      if (item instanceof JasmineSuite) {
+        suites.add((JasmineSuite) item);
+      }
+    }
+    result.setSuites(suites);
+    result.setStopped(Boolean.TRUE.equals(extracted.get("stopped")));
+    result.setDuration(number(extracted.get("duration")));
+    return result;
+  }
+
+  private List<JasmineItem> readItems(List<Map<String, Object>> items, JasmineResult result) {
+    List<JasmineItem> read = new ArrayList<JasmineItem>(items.size());
+    for (Map<String, Object> item : items) {
+      if ("suite".equals(item.get("type"))) {
+        read.add(new JasmineSuite(string(item.get("name")), number(item.get("duration")), readItems(list(item.get("children")), result)));
+      } else {
+        read.add(readSpec(item, result));
+      }
+    }
+    return read;
+  }
+
+  private JasmineSpec readSpec(Map<String, Object> spec, JasmineResult result) {
+    JasmineSpec.Status status = status(spec.get("result"));
+    if (status == JasmineSpec.Status.SKIPPED) {
+      result.setSkippedCount(result.getSkippedCount() + 1);
+    } else {
+      result.setSpecCount(result.getSpecCount() + 1);
+      if (status.isFailure()) {
+        result.setFailureCount(result.getFailureCount() + 1);
+      }
+    }
+    List<SpecMessage> messages = new ArrayList<SpecMessage>();
+    for (Map<String, Object> message : list(spec.get("messages"))) {
+      messages.add(new SpecMessage(string(message.get("type")), string(message.get("message")), string(message.get("matcherName"))));
+    }
+    return new JasmineSpec((int) number(spec.get("id")), string(spec.get("name")), status, number(spec.get("duration")), messages);
+  }
+
+  private JasmineSpec.Status status(Object result) {
+    try {
+      return JasmineSpec.Status.valueOf(String.valueOf(result).toUpperCase(Locale.ENGLISH));
+    } catch (IllegalArgumentException e) {
+      return JasmineSpec.Status.MISSING;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<Map<String, Object>> list(Object value) {
+    return value instanceof List ? (List<Map<String, Object>>) value : Collections.<Map<String, Object>>emptyList();
+  }
+
+  private long number(Object value) {
+    return value instanceof Number ? ((Number) value).longValue() : 0;
+  }
+
+  private String string(Object value) {
+    return value == null ? null : value.toString();
+  }
+
+}
@@ -0,0 +1,121 @@
+package com.github.searls.jasmine.runner;
+
+import static org.apache.commons.lang.StringUtils.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.apache.commons.io.FileUtils;
+
+import com.github.searls.jasmine.model.JasmineItem;
+import com.github.searls.jasmine.model.JasmineResult;
+import com.github.searls.jasmine.model.JasmineSpec;
+import com.github.searls.jasmine.model.JasmineSuite;
+
+/** Remembers which spec files failed in the last run, so the next run can start
+ * with them. A spec file counts as failing when it defines (i.e. calls describe with
+ * the quoted description of) a top level suite with a failing spec. Spec files are
+ * stored relative to the spec directory, one per line.
+ */
+public class RemembersFailingSpecs {
+
+  public static final String FILE_NAME = "failing-specs.txt";
+
+  private static final String DESCRIBE = "\\bdescribe\\s*\\(\\s*";
+
+  private final File file;
+  private final String encoding;
+
+  public RemembersFailingSpecs(File file, String encoding) {
+    this.file = file;
+    this.encoding = defaultIfEmpty(encoding, "UTF-8");
+  }
+
+  /** @return the specs in their original order, except for the ones that failed last time, which come
+   * first, though never ahead of files that define no suites (e.g. helpers the specs rely on).
+   */
+  public Set<String> failingFirst(Set<String> specs, String specDirectory) throws IOException {
+    Set<String> ordered = new LinkedHashSet<String>();
+    if (file.isFile()) {
+      List<String> failing = FileUtils.readLines(file, encoding);
+      List<String> failingSpecs = new ArrayList<String>();
+      for (String spec : specs) {
+        if (failing.contains(relativize(spec, specDirectory))) {
+          failingSpecs.add(spec);
+        } else if (!definesSuites(spec)) {
+          ordered.add(spec);
+        }
+      }
+      ordered.addAll(failingSpecs);
+    }
+    ordered.addAll(specs);
+    return ordered;
+  }
+
+  public void remember(JasmineResult result, Set<String> specs, String specDirectory) throws IOException {
+    List<String> failingSuites = new ArrayList<String>();
+    for (JasmineSuite suite : result.getSuites()) {
+      if (failed(suite)) {
+        failingSuites.add(suite.getName());
+      }
+    }
+    List<String> failing = new ArrayList<String>();
+    if (!failingSuites.isEmpty()) {
+      for (String spec : specs) {
+        if (definesAny(spec, failingSuites)) {
+          failing.add(relativize(spec, specDirectory));
+        }
+      }
+    }
+    if (failing.isEmpty()) {
+      FileUtils.deleteQuietly(file);
+    } else {
+      FileUtils.writeLines(file, encoding, failing, "\n");
+    }
+  }
+
+  private boolean definesAny(String spec, List<String> suites) throws IOException {
+    String content = read(spec);
+    for (String suite : suites) {
+      if (content != null && Pattern.compile(DESCRIBE + "(['\"])" + Pattern.quote(suite) + "\\1").matcher(content).find()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Files that can't be read are taken to define suites, so they keep their place. */
+  private boolean definesSuites(String spec) throws IOException {
+    String content = read(spec);
+    return content == null || Pattern.compile(DESCRIBE).matcher(content).find();
+  }
+
+  /** @return the content of the spec file, or null if it isn't a file. */
+  private String read(String spec) throws IOException {
+    File specFile = FileUtils.toFile(new URL(spec));
+    return specFile == null || !specFile.isFile() ? null : FileUtils.readFileToString(specFile, encoding);
+  }
+
+  private boolean failed(JasmineItem item) {
+    if (item instanceof JasmineSpec) {
+      return ((JasmineSpec) item).getStatus().isFailure();
+    }
+    for (JasmineItem child : ((JasmineSuite) item).getChildren()) {
+      if (failed(child)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private String relativize(String spec, String specDirectory) {
+    return spec.startsWith(specDirectory) ? spec.substring(specDirectory.length()) : spec;
+  }
+
+}
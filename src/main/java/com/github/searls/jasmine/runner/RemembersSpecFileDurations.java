@@ -0,0 +1,166 @@
+package com.github.searls.jasmine.runner;
+
+import static org.apache.commons.lang.StringUtils.*;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang.StringEscapeUtils;
+
+import com.github.searls.jasmine.model.JasmineResult;
+import com.github.searls.jasmine.model.JasmineSuite;
+
+/** Remembers how long each spec file took in the last run that ran it, so the next
+ * run can plan its shards by time (see {@link EstimatesSpecFileDurations}). A spec
+ * file is credited with the duration of each top level suite it describes (i.e.
+ * whose description it passes to describe); a suite described in several files is
+ * split evenly between them. Durations are in milliseconds, keyed by the spec file
+ * relative to the spec directory.
+ */
+public class RemembersSpecFileDurations {
+
+  public static final String FILE_NAME = "spec-durations.properties";
+
+  private static final Pattern DESCRIBE = Pattern.compile("\\bdescribe\\s*\\(?\\s*(['\"])((?:\\\\.|(?!\\1).)*)\\1");
+
+  private final File file;
+  private final String encoding;
+
+  public RemembersSpecFileDurations(File file, String encoding) {
+    this.file = file;
+    this.encoding = defaultIfEmpty(encoding, "UTF-8");
+  }
+
+  /** @return the remembered durations, by spec file relative to the spec directory. */
+  public Map<String, Long> durations() throws IOException {
+    Map<String, Long> durations = new HashMap<String, Long>();
+    if (file.isFile()) {
+      Properties properties = new Properties();
+      InputStream input = new FileInputStream(file);
+      try {
+        properties.load(input);
+      } finally {
+        IOUtils.closeQuietly(input);
+      }
+      for (String spec : properties.stringPropertyNames()) {
+        try {
+          durations.put(spec, Long.valueOf(properties.getProperty(spec)));
+        } catch (NumberFormatException e) {
+          // Not one of ours; it's replaced on the next save.
+        }
+      }
+    }
+    return durations;
+  }
+
+  /** Remembers the durations of the spec files the result's top level suites were
+   * described in, keeping what's remembered of the other spec files.
+   */
+  public void remember(JasmineResult result, Set<String> specs, String specDirectory) throws IOException {
+    remember(Collections.singleton(result), specs, specDirectory);
+  }
+
+  /** Remembers the durations of the spec files the results' top level suites were
+   * described in, taking the longest of the results (e.g. of several browser versions)
+   * for each spec file, and keeping what's remembered of the other spec files.
+   */
+  public void remember(Collection<JasmineResult> results, Set<String> specs, String specDirectory) throws IOException {
+    Map<String, Long> measured = new HashMap<String, Long>();
+    for (JasmineResult result : results) {
+      for (Map.Entry<String, Long> duration : measure(result, specs, specDirectory).entrySet()) {
+        Long longest = measured.get(duration.getKey());
+        measured.put(duration.getKey(), longest == null ? duration.getValue() : Math.max(longest, duration.getValue()));
+      }
+    }
+    if (measured.isEmpty()) {
+      return;
+    }
+    Map<String, Long> durations = durations();
+    durations.putAll(measured);
+    save(durations);
+  }
+
+  /** @return the durations of the spec files the result's top level suites were described in. */
+  private Map<String, Long> measure(JasmineResult result, Set<String> specs, String specDirectory) throws IOException {
+    Map<String, Long> suiteDurations = new HashMap<String, Long>();
+    for (JasmineSuite suite : result.getSuites()) {
+      Long duration = suiteDurations.get(suite.getName());
+      suiteDurations.put(suite.getName(), (duration == null ? 0 : duration) + suite.getDuration());
+    }
+    Map<String, List<String>> describingFiles = new HashMap<String, List<String>>();
+    for (String spec : specs) {
+      for (String suite : describedSuites(spec)) {
+        if (suiteDurations.containsKey(suite)) {
+          List<String> files = describingFiles.get(suite);
+          if (files == null) {
+            files = new ArrayList<String>();
+            describingFiles.put(suite, files);
+          }
+          files.add(relativize(spec, specDirectory));
+        }
+      }
+    }
+
+    Map<String, Long> measured = new HashMap<String, Long>();
+    for (Map.Entry<String, List<String>> suite : describingFiles.entrySet()) {
+      long share = suiteDurations.get(suite.getKey()) / suite.getValue().size();
+      for (String spec : suite.getValue()) {
+        Long duration = measured.get(spec);
+        measured.put(spec, (duration == null ? 0 : duration) + share);
+      }
+    }
+    return measured;
+  }
+
+  /** @return the (unescaped) descriptions of the top level suites, and of any
+   * nested ones, the spec file passes to describe.
+   */
+  private Set<String> describedSuites(String spec) throws IOException {
+    Set<String> suites = new HashSet<String>();
+    File specFile = FileUtils.toFile(new URL(spec));
+    if (specFile != null && specFile.isFile()) {
+      Matcher describe = DESCRIBE.matcher(FileUtils.readFileToString(specFile, encoding));
+      while (describe.find()) {
+        suites.add(StringEscapeUtils.unescapeJavaScript(describe.group(2)));
+      }
+    }
+    return suites;
+  }
+
+  private void save(Map<String, Long> durations) throws IOException {
+    Properties properties = new Properties();
+    for (Map.Entry<String, Long> duration : durations.entrySet()) {
+      properties.setProperty(duration.getKey(), String.valueOf(duration.getValue()));
+    }
+    FileUtils.forceMkdir(file.getParentFile());
+    OutputStream output = new FileOutputStream(file);
+    try {
+      properties.store(output, "Spec file durations (ms) from the last run of each, for planning shards");
+    } finally {
+      IOUtils.closeQuietly(output);
+    }
+  }
+
+  private String relativize(String spec, String specDirectory) {
+    return spec.startsWith(specDirectory) ? spec.substring(specDirectory.length()) : spec;
+  }
+
+}
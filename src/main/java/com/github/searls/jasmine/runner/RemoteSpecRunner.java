@@ -0,0 +1,85 @@
+package com.github.searls.jasmine.runner;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.List;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.maven.plugin.logging.Log;
+
+import com.github.searls.jasmine.model.JasmineResult;
+
+/** The jasmine:test end of a connection to a {@link ForkedSpecRunner}, whether that's a
+ * socket to a forked JVM (see {@link ForkedJvm}) or a socket to the
+ * daemon (see {@link com.github.searls.jasmine.daemon.JasmineDaemon}). One request is
+ * handled at a time.
+ */
+public class RemoteSpecRunner {
+
+  private final ObjectOutputStream out;
+  private final ObjectInputStream in;
+
+  public RemoteSpecRunner(ObjectOutputStream out, ObjectInputStream in) {
+    this.out = out;
+    this.in = in;
+  }
+
+  /** Runs the given run remotely, handing the results it drains to the listeners and
+   * whatever it logs to the log as they come in.
+   */
+  public synchronized JasmineResult execute(SpecRun run, List<SpecResultListener> listeners, Log log) throws IOException {
+    send(run);
+    while (true) {
+      Object message = readMessage();
+      if (message instanceof ForkedSpecRunner.LogMessage) {
+        ((ForkedSpecRunner.LogMessage) message).logTo(log);
+      } else if (message instanceof ForkedSpecRunner.ResultsDrained) {
+        ForkedSpecRunner.ResultsDrained drained = (ForkedSpecRunner.ResultsDrained) message;
+        for (SpecResultListener listener : listeners) {
+          listener.resultsDrained(drained.getResults(), drained.getSuites());
+        }
+      } else {
+        ForkedSpecRunner.RunFinished finished = (ForkedSpecRunner.RunFinished) message;
+        if (finished.getFailure() != null) {
+          throw new RuntimeException("The forked JVM failed to run " + run.getRunner() + ":\n" + finished.getFailure());
+        }
+        return finished.getResult();
+      }
+    }
+  }
+
+  /** @return the given CoffeeScript, compiled to JavaScript remotely. */
+  public synchronized String compileCoffee(String coffee) throws IOException {
+    send(new ForkedSpecRunner.CompileCoffee(coffee));
+    ForkedSpecRunner.CoffeeCompiled compiled = (ForkedSpecRunner.CoffeeCompiled) readMessage();
+    if (compiled.getFailure() != null) {
+      throw new IOException("Couldn't compile CoffeeScript:\n" + compiled.getFailure());
+    }
+    return compiled.getJavaScript();
+  }
+
+  /** Closes the connection; a {@link ForkedSpecRunner} stops serving it once it notices. */
+  public void close() {
+    IOUtils.closeQuietly(out);
+    IOUtils.closeQuietly(in);
+  }
+
+  private void send(Object request) throws IOException {
+    out.writeObject(request);
+    out.flush();
+    out.reset();
+  }
+
+  private Object readMessage() throws IOException {
+    try {
+      return in.readObject();
+    } catch (EOFException e) {
+      throw new IOException("The forked JVM exited before finishing its run (did it run out of memory? see jasmine.forkArgLine)");
+    } catch (ClassNotFoundException e) {
+      throw new IOException("The forked JVM sent something jasmine:test doesn't understand: " + e.getMessage());
+    }
+  }
+
+}
@@ -5,8 +5,6 @@ import org.antlr.stringtemplate.StringTemplate;
 import java.io.IOException;
 import java.util.Set;
 
-import static java.util.Arrays.asList;
-
 public class RequireJsSpecRunnerHtmlGenerator extends AbstractSpecRunnerHtmlGenerator implements SpecRunnerHtmlGenerator {
 
   public static final String REQUIRE_JS_HTML_TEMPLATE_FILE = "/jasmine-templates/RequireJsSpecRunner.htmltemplate";
@@ -34,8 +32,8 @@ public class RequireJsSpecRunnerHtmlGenerator extends AbstractSpecRunnerHtmlGene
   private String generateHtml(Set<String> specsRelativePath, String sourceDirectory) throws IOException {
     StringTemplate template = resolveHtmlTemplate();
 
-    includeJavaScriptDependencies(asList(JASMINE_JS, JASMINE_HTML_JS), template);
-    applyCssToTemplate(asList(JASMINE_CSS), template);
+    includeJavaScriptDependencies(javaScriptDependencies(), template);
+    applyCssToTemplate(styles(), template);
     Set<String> preloads = getConfiguration().getPreloadsRelativePath();
     template.setAttribute("priority", createArrayOfScripts(preloads));
     template.setAttribute("requirejsPath", resolveRequirejsPath(sourceDirectory));
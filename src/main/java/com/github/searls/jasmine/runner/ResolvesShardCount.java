@@ -0,0 +1,38 @@
+package com.github.searls.jasmine.runner;
+
+import static org.apache.commons.lang.StringUtils.*;
+
+public class ResolvesShardCount {
+
+  public static final String AUTO = "auto";
+
+  /** Rough heap needed by one HtmlUnit browser running a shard. */
+  public static final long HEAP_PER_SHARD = 128L * 1024 * 1024;
+
+  private Runtime runtime = Runtime.getRuntime();
+
+  public int resolve(String shards, int specCount) {
+    int count;
+    if (isBlank(shards)) {
+      count = 1;
+    } else if (AUTO.equalsIgnoreCase(trim(shards))) {
+      count = autoCount();
+    } else {
+      try {
+        count = Integer.parseInt(trim(shards));
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException("Invalid shard count '"+shards+"'. Use a positive number or '"+AUTO+"'.");
+      }
+      if (count < 1) {
+        throw new IllegalArgumentException("Invalid shard count '"+shards+"'. Use a positive number or '"+AUTO+"'.");
+      }
+    }
+    return Math.max(1, Math.min(count, specCount));
+  }
+
+  private int autoCount() {
+    long heapBound = runtime.maxMemory() / HEAP_PER_SHARD;
+    return (int) Math.max(1, Math.min(runtime.availableProcessors(), heapBound));
+  }
+
+}
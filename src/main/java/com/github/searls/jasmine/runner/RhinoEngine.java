@@ -0,0 +1,56 @@
+package com.github.searls.jasmine.runner;
+
+import java.io.IOException;
+import java.net.URL;
+
+import org.apache.maven.plugin.logging.Log;
+
+import com.github.searls.jasmine.model.JasmineResult;
+
+/** Runs the specs in bare Rhino (see {@link RhinoPage}), for specs that don't need a DOM;
+ * there's no browser version to emulate. Rather than loading the spec runner, it runs
+ * Jasmine, the plugin's own scripts and then the run's scripts (the preloads, sources and
+ * specs) on the page itself, and starts Jasmine once the page has "loaded", the way the
+ * default runner template does.
+ */
+public class RhinoEngine implements SpecEngine {
+
+  public static final String NAME = "rhino";
+
+  /** What the default runner template runs on DOMContentLoaded. */
+  public static final String EXECUTE_SPECS =
+    "window.addEventListener('DOMContentLoaded', function() {" +
+    "  window.reporter = new jasmine.JsApiReporter();" +
+    "  jasmine.getEnv().addReporter(reporter);" +
+    "  jasmine.getEnv().execute();" +
+    "}, false);";
+
+  public String getName() {
+    return NAME;
+  }
+
+  public JasmineResult execute(SpecRun run, SpecRunnerExecutor executor, Log log) {
+    RhinoPage page = new RhinoPage(run.getRunner(), log);
+    page.serveFrom(run.getConnection());
+    page.limitSpecInstructions(run.getSpecInstructionBudget());
+    try {
+      page.runScript(AbstractSpecRunnerHtmlGenerator.runnerConfigScript(run.getRunnerConfig()), "jasmineMavenPlugin");
+      if (run.isVirtualTime()) {
+        page.runResource(SpecRunnerHtmlGenerator.VIRTUAL_CLOCK_JS);
+      }
+      page.runResource(SpecRunnerHtmlGenerator.JASMINE_JS);
+      page.runResource(SpecRunnerHtmlGenerator.SPEC_REPORTING_JS);
+      page.runResource(SpecRunnerHtmlGenerator.SPEC_RESULT_QUEUE_JS);
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+    for (URL script : run.getScripts()) {
+      page.runScript(script, run.getSourceEncoding());
+    }
+    page.runScript(EXECUTE_SPECS, "jasmineMavenPluginExecuteSpecs");
+    page.fire("DOMContentLoaded");
+    page.fire("load");
+    return executor.execute(page, run.getTimeout(), run.isDebug(), log, run.getFormat());
+  }
+
+}
@@ -0,0 +1,323 @@
+package com.github.searls.jasmine.runner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.sourceforge.htmlunit.corejs.javascript.BaseFunction;
+import net.sourceforge.htmlunit.corejs.javascript.Callable;
+import net.sourceforge.htmlunit.corejs.javascript.Context;
+import net.sourceforge.htmlunit.corejs.javascript.ContextFactory;
+import net.sourceforge.htmlunit.corejs.javascript.Function;
+import net.sourceforge.htmlunit.corejs.javascript.NativeArray;
+import net.sourceforge.htmlunit.corejs.javascript.RhinoException;
+import net.sourceforge.htmlunit.corejs.javascript.Script;
+import net.sourceforge.htmlunit.corejs.javascript.Scriptable;
+import net.sourceforge.htmlunit.corejs.javascript.ScriptableObject;
+import net.sourceforge.htmlunit.corejs.javascript.Undefined;
+import net.sourceforge.htmlunit.corejs.javascript.Wrapper;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.maven.plugin.logging.Log;
+import org.openqa.selenium.TimeoutException;
+
+import com.gargoylesoftware.htmlunit.WebRequest;
+
+/** A page for {@link RhinoEngine} to run scripts on in bare Rhino, without HtmlUnit's
+ * browser emulation: its window is little more than a global scope with timers (see
+ * {@link #WINDOW_JS}). Scripts run in the order they're given, and the page's
+ * DOMContentLoaded and load listeners are called when it's told to fire those. Timers run
+ * (in real time) while an asynchronous script waits for its callback, which is all
+ * {@link SpecRunnerExecutor} needs. Specs that touch the DOM beyond appending to the
+ * document's body fail here, and have to run in HtmlUnit.
+ *
+ * <p>
+ * Scripts are compiled through the {@link CompiledScriptCache}, and the errors they throw
+ * (that the page doesn't handle itself) are logged, as a browser would, rather than thrown.
+ * </p>
+ */
+public class RhinoPage implements SpecPage {
+
+  public static final String WINDOW_JS = "/lib/rhinoWindow.js";
+  public static final String CACHE_KEY = "rhino";
+
+  private static final String DEFAULT_ENCODING = "UTF-8";
+  private static final int INSTRUCTION_OBSERVER_THRESHOLD = 10000;
+
+  private static String windowJs;
+
+  private final Log log;
+  private final SpecInstructionBudget budget = new SpecInstructionBudget();
+  private final ContextFactory contextFactory = new ContextFactory() {
+    @Override
+    protected void onContextCreated(Context cx) {
+      super.onContextCreated(cx);
+      cx.setLanguageVersion(Context.VERSION_1_8);
+      cx.setOptimizationLevel(-1);
+      cx.setDebugger(budget, null);
+      cx.setInstructionObserverThreshold(INSTRUCTION_OBSERVER_THRESHOLD);
+    }
+
+    @Override
+    protected void observeInstructionCount(Context cx, int instructionCount) {
+      budget.observe(instructionCount);
+    }
+
+    @Override
+    protected Object doTopCall(Callable callable, Context cx, Scriptable scope, Scriptable thisObj, Object[] args) {
+      try {
+        return super.doTopCall(callable, cx, scope, thisObj, args);
+      } finally {
+        budget.topCallFinished();
+      }
+    }
+  };
+  private final CompiledScriptCache cache = CompiledScriptCache.shared();
+  private final URL location;
+  private InMemoryWebConnection connection;
+  private ScriptableObject window;
+  private Scriptable windowControl;
+
+  /** @param location where the page's window (i.e. window.location) is.
+   * @param log what the errors the page's scripts throw are logged to.
+   */
+  public RhinoPage(URL location, Log log) {
+    this.location = location;
+    this.log = log;
+  }
+
+  /** Loads the scripts the connection hosts from it, and everything else from where its URL points. */
+  public void serveFrom(InMemoryWebConnection connection) {
+    this.connection = connection;
+  }
+
+  /** Aborts any spec that runs more than the given number of JavaScript instructions; 0 for no limit. */
+  public void limitSpecInstructions(long budget) {
+    this.budget.setBudget(budget);
+  }
+
+  /** Runs the script at the given URL. */
+  public void runScript(URL url, String encoding) {
+    String source;
+    try {
+      source = load(url, encoding == null ? DEFAULT_ENCODING : encoding);
+    } catch (IOException e) {
+      log.warn("Couldn't load " + url + " for the specs: " + e.getMessage());
+      return;
+    }
+    runScript(source, url.toExternalForm());
+  }
+
+  /** Runs the script on the class path at the given path (e.g. one of the {@link SpecRunnerHtmlGenerator} scripts). */
+  public void runResource(String path) throws IOException {
+    InputStream in = RhinoPage.class.getResourceAsStream(path);
+    if (in == null) {
+      throw new IOException("There's no " + path + " on the class path");
+    }
+    try {
+      runScript(IOUtils.toString(in, DEFAULT_ENCODING), path);
+    } finally {
+      IOUtils.closeQuietly(in);
+    }
+  }
+
+  public void runScript(String source, String sourceName) {
+    Context cx = contextFactory.enterContext();
+    try {
+      exec(cx, source, sourceName);
+    } catch (RhinoException e) {
+      log.warn("Error in " + sourceName + ": " + e.getMessage());
+    } finally {
+      Context.exit();
+    }
+  }
+
+  /** Fires the given event (e.g. DOMContentLoaded, and then load) at the window's listeners. */
+  public void fire(String type) {
+    Context cx = contextFactory.enterContext();
+    try {
+      ScriptableObject.callMethod(cx, windowControl(cx), "fire", new Object[] {type});
+      logErrors(cx);
+    } finally {
+      Context.exit();
+    }
+  }
+
+  public Object executeScript(String script, Object... args) {
+    Context cx = contextFactory.enterContext();
+    try {
+      return toJava(function(cx, script).call(cx, window(cx), window, toJavaScript(args)));
+    } finally {
+      Context.exit();
+    }
+  }
+
+  /** Runs the script, and then the window's timers until the script calls back (with
+   * the callback it's given as its last argument) or the time runs out.
+   */
+  public Object executeAsyncScript(long timeoutMillis, String script, Object... args) {
+    Context cx = contextFactory.enterContext();
+    try {
+      final Object[] result = new Object[1];
+      final boolean[] calledBack = new boolean[1];
+      Scriptable scope = window(cx);
+      Object[] scriptArgs = new Object[args.length + 1];
+      System.arraycopy(toJavaScript(args), 0, scriptArgs, 0, args.length);
+      scriptArgs[args.length] = new BaseFunction() {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public Object call(Context cx, Scriptable scope, Scriptable thisObj, Object[] callbackArgs) {
+          result[0] = callbackArgs.length > 0 ? callbackArgs[0] : null;
+          calledBack[0] = true;
+          return Undefined.instance;
+        }
+      };
+      function(cx, script).call(cx, scope, window, scriptArgs);
+      long deadline = System.currentTimeMillis() + timeoutMillis;
+      while (!calledBack[0]) {
+        long nextTimer = runDueTimers(cx);
+        if (calledBack[0]) {
+          break;
+        }
+        long remaining = deadline - System.currentTimeMillis();
+        if (nextTimer < 0 || remaining <= 0) {
+          throw new TimeoutException("Timed out waiting for an asynchronous script to call back");
+        }
+        sleep(Math.min(nextTimer, remaining));
+      }
+      return toJava(result[0]);
+    } finally {
+      Context.exit();
+    }
+  }
+
+  private String load(URL url, String encoding) throws IOException {
+    if (connection != null && connection.serves(url)) {
+      return connection.getResponse(new WebRequest(url)).getContentAsString(encoding);
+    }
+    InputStream in = url.openStream();
+    try {
+      return IOUtils.toString(in, encoding);
+    } finally {
+      IOUtils.closeQuietly(in);
+    }
+  }
+
+  private Object exec(Context cx, String source, String sourceName) {
+    Scriptable scope = window(cx);
+    String key = cache.key(CACHE_KEY, source);
+    Script script = cache.get(key);
+    if (script == null) {
+      script = cx.compileString(source, sourceName, 1, null);
+      cache.put(key, script);
+    }
+    return script.exec(cx, scope);
+  }
+
+  private Function function(Context cx, String body) {
+    return (Function) exec(cx, "(function() {" + body + "\n})", "script");
+  }
+
+  private long runDueTimers(Context cx) {
+    long nextTimer = (long) Context.toNumber(ScriptableObject.callMethod(cx, windowControl(cx), "runDueTimers", new Object[0]));
+    logErrors(cx);
+    return nextTimer;
+  }
+
+  private void logErrors(Context cx) {
+    for (Object error : (List<?>) toJava(ScriptableObject.callMethod(cx, windowControl(cx), "takeErrors", new Object[0]))) {
+      log.warn("Error in " + location + ": " + error);
+    }
+  }
+
+  /** @return the window, set up (see {@link #WINDOW_JS}) the first time it's needed. */
+  private Scriptable window(Context cx) {
+    if (window == null) {
+      window = cx.initStandardObjects();
+      budget.defineIn(window);
+      try {
+        windowControl = (Scriptable) ((Function) exec(cx, windowJs(), WINDOW_JS))
+          .call(cx, window, window, new Object[] {window, location.toExternalForm()});
+      } catch (IOException e) {
+        throw new IllegalStateException("Couldn't load " + WINDOW_JS, e);
+      }
+    }
+    return window;
+  }
+
+  private Scriptable windowControl(Context cx) {
+    window(cx);
+    return windowControl;
+  }
+
+  private Object[] toJavaScript(Object[] args) {
+    Object[] converted = new Object[args.length];
+    for (int i = 0; i < args.length; i++) {
+      converted[i] = Context.javaToJS(args[i], window);
+    }
+    return converted;
+  }
+
+  /** @return the value as WebDriver returns the result of a script: integral numbers as
+   * Longs, arrays as Lists and other objects as Maps.
+   */
+  private Object toJava(Object value) {
+    if (value == null || value instanceof Undefined) {
+      return null;
+    } else if (value instanceof Wrapper) {
+      return ((Wrapper) value).unwrap();
+    } else if (value instanceof Number) {
+      double number = ((Number) value).doubleValue();
+      return number == Math.rint(number) && !Double.isInfinite(number) ? (Object) (long) number : (Object) number;
+    } else if (value instanceof CharSequence) {
+      return value.toString();
+    } else if (value instanceof NativeArray) {
+      NativeArray array = (NativeArray) value;
+      List<Object> list = new ArrayList<Object>();
+      for (int i = 0; i < array.getLength(); i++) {
+        list.add(toJava(array.get(i, array)));
+      }
+      return list;
+    } else if (value instanceof Function) {
+      return null;
+    } else if (value instanceof Scriptable) {
+      Scriptable object = (Scriptable) value;
+      Map<String, Object> map = new LinkedHashMap<String, Object>();
+      for (Object id : object.getIds()) {
+        map.put(String.valueOf(id), toJava(ScriptableObject.getProperty(object, String.valueOf(id))));
+      }
+      return map;
+    }
+    return value;
+  }
+
+  private void sleep(long millis) {
+    if (millis <= 0) {
+      return;
+    }
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for timers", e);
+    }
+  }
+
+  private static synchronized String windowJs() throws IOException {
+    if (windowJs == null) {
+      InputStream in = RhinoPage.class.getResourceAsStream(WINDOW_JS);
+      try {
+        windowJs = IOUtils.toString(in, DEFAULT_ENCODING);
+      } finally {
+        IOUtils.closeQuietly(in);
+      }
+    }
+    return windowJs;
+  }
+
+}
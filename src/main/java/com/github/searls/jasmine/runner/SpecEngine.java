@@ -0,0 +1,26 @@
+package com.github.searls.jasmine.runner;
+
+import org.apache.maven.plugin.logging.Log;
+
+import com.github.searls.jasmine.model.JasmineResult;
+
+/** What jasmine:test runs the specs in (see the engine parameter). An engine runs a
+ * {@link SpecRun}'s scripts along with Jasmine and the plugin's own scripts, lets the
+ * {@link SpecRunnerExecutor} it's given wait for the specs (draining their results as
+ * they come), and returns their result.
+ *
+ * <p>
+ * Engines are looked up by name (see {@link FindsSpecEngine}) among the ones registered in
+ * META-INF/services/com.github.searls.jasmine.runner.SpecEngine, so a plugin dependency can
+ * add one. They need a public no-argument constructor, and may be used by several threads
+ * at once. The plugin's own are {@link HtmlUnitEngine} and {@link RhinoEngine}.
+ * </p>
+ */
+public interface SpecEngine {
+
+  /** @return the name the engine parameter picks this engine by (case insensitive). */
+  String getName();
+
+  JasmineResult execute(SpecRun run, SpecRunnerExecutor executor, Log log);
+
+}
@@ -0,0 +1,187 @@
+package com.github.searls.jasmine.runner;
+
+import net.sourceforge.htmlunit.corejs.javascript.BaseFunction;
+import net.sourceforge.htmlunit.corejs.javascript.Context;
+import net.sourceforge.htmlunit.corejs.javascript.Function;
+import net.sourceforge.htmlunit.corejs.javascript.ScriptRuntime;
+import net.sourceforge.htmlunit.corejs.javascript.Scriptable;
+import net.sourceforge.htmlunit.corejs.javascript.ScriptableObject;
+import net.sourceforge.htmlunit.corejs.javascript.debug.DebugFrame;
+import net.sourceforge.htmlunit.corejs.javascript.debug.DebuggableScript;
+import net.sourceforge.htmlunit.corejs.javascript.debug.Debugger;
+
+/** Counts the instructions Rhino runs for each spec, and aborts a spec once it runs
+ * more than its budget by throwing a JavaScript error into it. Jasmine fails the spec
+ * with that error and moves on to the next one, so a spec stuck in an endless loop
+ * doesn't hold up the whole run.
+ *
+ * <p>
+ * The context factory the specs run in has to be this debugger's, and report the
+ * instructions it observes to {@link #observe(int)}. Specs are told apart by
+ * specResultQueue.js calling {@link #SPEC_STARTED_FUNCTION} when a spec starts,
+ * {@link #SPEC_FINISHED_FUNCTION} when it's done, and {@link #SPEC_FAILED_FUNCTION}
+ * when Jasmine catches an error the spec threw. Instructions run outside of a spec
+ * (e.g. by Jasmine itself between specs) don't count.
+ * </p>
+ *
+ * <p>
+ * A spec could catch the error and carry on, so specResultQueue.js runs each of a
+ * spec's blocks through {@link #CATCH_ABORT_FUNCTION} (see {@link #defineIn(ScriptableObject)}).
+ * Under it, the abort can't be caught by JavaScript: it unwinds the spec (running only
+ * its finally blocks) and comes out of that function as an ordinary error for Jasmine
+ * to catch. Until Jasmine does, the spec finishes, or the script it was thrown into
+ * returns ({@link #topCallFinished()}), the abort keeps being thrown.
+ * </p>
+ */
+public class SpecInstructionBudget implements Debugger {
+
+  public static final String SPEC_STARTED_FUNCTION = "jasmineMavenPluginSpecStarted";
+  public static final String SPEC_FINISHED_FUNCTION = "jasmineMavenPluginSpecFinished";
+  public static final String SPEC_FAILED_FUNCTION = "jasmineMavenPluginSpecFailed";
+  public static final String CATCH_ABORT_FUNCTION = "jasmineMavenPluginCatchAbort";
+
+  private volatile long budget;
+  private volatile boolean specRunning;
+  private long instructions;
+  private boolean aborting;
+  private int abortInterval;
+  private int sinceAbort;
+  private int unresetCount;
+  private int catchingAborts;
+
+  /** @param budget the number of instructions each spec may run; 0 for no limit. */
+  public void setBudget(long budget) {
+    this.budget = budget;
+  }
+
+  public long getBudget() {
+    return budget;
+  }
+
+  /** Defines {@link #CATCH_ABORT_FUNCTION} in the given (window) scope. It calls the
+   * function it's given (with the this it's given, if any), turning the abort into an
+   * error JavaScript can catch.
+   */
+  public void defineIn(ScriptableObject scope) {
+    BaseFunction catchAbort = new CatchAbort();
+    ScriptRuntime.setFunctionProtoAndParent(catchAbort, scope);
+    scope.defineProperty(CATCH_ABORT_FUNCTION, catchAbort, ScriptableObject.DONTENUM);
+  }
+
+  public void observe(int instructionCount) {
+    if (budget <= 0 || !specRunning) {
+      return;
+    }
+    if (aborting) {
+      // Rhino only resets its count when this returns, so after a throw the count
+      // keeps growing from where it was. Waiting as long between aborts as Rhino
+      // waits between observations leaves Jasmine room to catch one.
+      sinceAbort += instructionCount - unresetCount;
+      if (sinceAbort < abortInterval) {
+        unresetCount = 0;
+        return;
+      }
+    } else if ((instructions += instructionCount) <= budget) {
+      return;
+    } else {
+      aborting = true;
+      abortInterval = instructionCount;
+    }
+    sinceAbort = 0;
+    unresetCount = instructionCount;
+    String message = "Aborted after running more than " + budget + " JavaScript instructions (jasmine.specInstructionBudget)";
+    if (catchingAborts > 0) {
+      throw new AbortedSpec(message);
+    }
+    throw ScriptRuntime.constructError("Error", message);
+  }
+
+  /** Stops aborting the current spec, which gets a fresh budget for whatever it runs
+   * next. The context factory calls this whenever a top level call (a script, timer
+   * or event handler) returns or throws, as there's no spec code left running then.
+   */
+  public void topCallFinished() {
+    resetBudget();
+  }
+
+  public void handleCompilationDone(Context cx, DebuggableScript fnOrScript, String source) {}
+
+  /** Only hands out frames for the functions marking a spec's start, end and
+   * failure, so no other function pays for being debugged.
+   */
+  public DebugFrame getFrame(Context cx, DebuggableScript fnOrScript) {
+    if (SPEC_STARTED_FUNCTION.equals(fnOrScript.getFunctionName())) {
+      return new SpecBoundary(true);
+    } else if (SPEC_FINISHED_FUNCTION.equals(fnOrScript.getFunctionName())) {
+      return new SpecBoundary(false);
+    } else if (SPEC_FAILED_FUNCTION.equals(fnOrScript.getFunctionName())) {
+      return new SpecBoundary(null);
+    }
+    return null;
+  }
+
+  private void resetBudget() {
+    instructions = 0;
+    aborting = false;
+  }
+
+  /** Thrown at a spec running under {@link #CATCH_ABORT_FUNCTION}. Rhino doesn't let
+   * JavaScript catch exceptions that aren't its own.
+   */
+  private static class AbortedSpec extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public AbortedSpec(String message) {
+      super(message);
+    }
+
+  }
+
+  private class CatchAbort extends BaseFunction {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public Object call(Context cx, Scriptable scope, Scriptable thisObj, Object[] args) {
+      Function function = (Function) args[0];
+      Scriptable self = args.length > 1 ? ScriptRuntime.toObject(cx, scope, args[1]) : thisObj;
+      catchingAborts++;
+      try {
+        return function.call(cx, scope, self, ScriptRuntime.emptyArgs);
+      } catch (AbortedSpec e) {
+        throw ScriptRuntime.constructError("Error", e.getMessage());
+      } finally {
+        catchingAborts--;
+      }
+    }
+
+  }
+
+  private class SpecBoundary implements DebugFrame {
+
+    private final Boolean started;
+
+    /** @param started whether the spec starts, finishes, or (null) has failed. */
+    public SpecBoundary(Boolean started) {
+      this.started = started;
+    }
+
+    public void onEnter(Context cx, Scriptable activation, Scriptable thisObj, Object[] args) {
+      if (started != null) {
+        specRunning = started;
+      }
+      resetBudget();
+    }
+
+    public void onLineChange(Context cx, int lineNumber) {}
+
+    public void onExceptionThrown(Context cx, Throwable ex) {}
+
+    public void onExit(Context cx, boolean byThrow, Object resultOrException) {}
+
+    public void onDebuggerStatement(Context cx) {}
+
+  }
+
+}
@@ -0,0 +1,21 @@
+package com.github.searls.jasmine.runner;
+
+import org.openqa.selenium.TimeoutException;
+
+/** A page with the specs loaded, as far as {@link SpecRunnerExecutor} needs one: it runs
+ * scripts on it the way WebDriver's {@link org.openqa.selenium.JavascriptExecutor} does
+ * (as the body of a function, given the arguments, returning integral numbers as Longs,
+ * arrays as Lists and other objects as Maps), whether the page is in a browser or not.
+ */
+public interface SpecPage {
+
+  Object executeScript(String script, Object... args);
+
+  /** Runs the script, which is given a callback as its last argument, and returns what
+   * it calls back with.
+   *
+   * @throws TimeoutException when the script doesn't call back within the given time.
+   */
+  Object executeAsyncScript(long timeoutMillis, String script, Object... args);
+
+}
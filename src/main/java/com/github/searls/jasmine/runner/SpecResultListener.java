@@ -0,0 +1,13 @@
+package com.github.searls.jasmine.runner;
+
+import java.util.List;
+import java.util.Map;
+
+/** Receives the batches of spec and suite results that {@link SpecRunnerExecutor}
+ * drains from the runner while it's running (see specResultQueue.js for their fields).
+ */
+public interface SpecResultListener {
+
+  void resultsDrained(List<Map<String, Object>> specs, List<Map<String, Object>> suites);
+
+}
@@ -0,0 +1,151 @@
+package com.github.searls.jasmine.runner;
+
+import java.io.Serializable;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/** What a {@link SpecEngine} needs to run a set of specs, in jasmine:test's JVM or in a
+ * forked one (see {@link ForkedSpecRunner}): the scripts to run (the preloads, sources and
+ * specs, in order), the spec runner generated for them, and how to run them.
+ */
+public class SpecRun implements Serializable {
+
+  private static final long serialVersionUID = 2L;
+
+  private final URL runner;
+  private final ArrayList<URL> scripts;
+  private final String engine;
+  private final String browserVersion;
+  private final String sourceEncoding;
+  private final int timeout;
+  private final boolean debug;
+  private final String format;
+  private final long specInstructionBudget;
+  private final int maxFailures;
+  private final int specTimeout;
+  private final String specFilter;
+  private final boolean virtualTime;
+  private final boolean reuseWebDrivers;
+  private final boolean lean;
+  private transient InMemoryWebConnection connection;
+
+  public SpecRun(URL runner, List<URL> scripts, String engine, String browserVersion, String sourceEncoding, int timeout, boolean debug, String format,
+      long specInstructionBudget, int maxFailures, int specTimeout, String specFilter, boolean virtualTime, boolean reuseWebDrivers, boolean lean) {
+    this.runner = runner;
+    this.scripts = new ArrayList<URL>(scripts);
+    this.engine = engine;
+    this.browserVersion = browserVersion;
+    this.sourceEncoding = sourceEncoding;
+    this.timeout = timeout;
+    this.debug = debug;
+    this.format = format;
+    this.specInstructionBudget = specInstructionBudget;
+    this.maxFailures = maxFailures;
+    this.specTimeout = specTimeout;
+    this.specFilter = specFilter;
+    this.virtualTime = virtualTime;
+    this.reuseWebDrivers = reuseWebDrivers;
+    this.lean = lean;
+  }
+
+  /** @return the same run, on the given browser version. */
+  public SpecRun onBrowserVersion(String browserVersion) {
+    SpecRun run = new SpecRun(runner, scripts, engine, browserVersion, sourceEncoding, timeout, debug, format,
+      specInstructionBudget, maxFailures, specTimeout, specFilter, virtualTime, reuseWebDrivers, lean);
+    run.connection = connection;
+    return run;
+  }
+
+  /** @return the same run, loading the runner and scripts from the given connection
+   * where it hosts them. The connection stays in this JVM: a forked one loads everything
+   * from where its URL points.
+   */
+  public SpecRun servedFrom(InMemoryWebConnection connection) {
+    SpecRun run = onBrowserVersion(browserVersion);
+    run.connection = connection;
+    return run;
+  }
+
+  /** @return the spec runner (see {@link SpecRunnerHtmlGenerator}), which loads the scripts
+   * along with Jasmine and the plugin's own scripts, for the engines that load a page.
+   */
+  public URL getRunner() {
+    return runner;
+  }
+
+  /** @return the preloads, sources and specs, in the order they run. */
+  public List<URL> getScripts() {
+    return scripts;
+  }
+
+  /** @return the name of the {@link SpecEngine} to run the specs in. */
+  public String getEngine() {
+    return engine;
+  }
+
+  /** @return the name of the HtmlUnit {@link com.gargoylesoftware.htmlunit.BrowserVersion} to run the specs on. */
+  public String getBrowserVersion() {
+    return browserVersion;
+  }
+
+  public String getSourceEncoding() {
+    return sourceEncoding;
+  }
+
+  /** @return how long the specs may take, in seconds. */
+  public int getTimeout() {
+    return timeout;
+  }
+
+  public boolean isDebug() {
+    return debug;
+  }
+
+  public String getFormat() {
+    return format;
+  }
+
+  public long getSpecInstructionBudget() {
+    return specInstructionBudget;
+  }
+
+  public int getMaxFailures() {
+    return maxFailures;
+  }
+
+  /** @return how long a single spec may wait on an async block, in seconds; 0 for no limit. */
+  public int getSpecTimeout() {
+    return specTimeout;
+  }
+
+  public String getSpecFilter() {
+    return specFilter;
+  }
+
+  /** @return whether the specs run on a virtual clock (see virtualClock.js). */
+  public boolean isVirtualTime() {
+    return virtualTime;
+  }
+
+  public boolean isReuseWebDrivers() {
+    return reuseWebDrivers;
+  }
+
+  /** @return whether the runner is the lean headless one (see jasmine.lean). */
+  public boolean isLean() {
+    return lean;
+  }
+
+  /** @return the connection hosting the in-memory runner, or null. */
+  public InMemoryWebConnection getConnection() {
+    return connection;
+  }
+
+  /** @return the settings of the plugin's own scripts, as the spec runner sets them (see {@link HtmlGeneratorConfiguration#getRunnerConfig()}). */
+  public Map<String, Object> getRunnerConfig() {
+    return HtmlGeneratorConfiguration.runnerConfig(maxFailures, specTimeout, specFilter);
+  }
+
+}
@@ -1,74 +1,200 @@
 package com.github.searls.jasmine.runner;
 
-import java.io.File;
-import java.io.IOException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.maven.plugin.logging.Log;
 import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.support.ui.WebDriverWait;
 
-import com.github.searls.jasmine.io.FileUtilsWrapper;
-import com.github.searls.jasmine.io.IOUtilsWrapper;
+import com.github.searls.jasmine.format.FormatsJasmineResult;
+import com.github.searls.jasmine.format.SpecProgressLogger;
 import com.github.searls.jasmine.model.JasmineResult;
-import com.google.common.base.Predicate;
 
 public class SpecRunnerExecutor {
 
-  public static final String BUILD_REPORT_JS = "/lib/buildReport.js";
-  public static final String CREATE_JUNIT_XML = "/lib/createJunitXml.js";
+  /** Results are drained from the runner in batches of (at most) this many specs. */
+  public static final int RESULT_BATCH_SIZE = 80;
+  /** How long the runner may hold on to a partial batch of results before handing it over. */
+  public static final int RESULT_BATCH_WAIT_MILLIS = 1000;
 
-  private IOUtilsWrapper ioUtilsWrapper = new IOUtilsWrapper();
-  private FileUtilsWrapper fileUtilsWrapper = new FileUtilsWrapper();
+  /** Calls back with the next batch of results queued by specResultQueue.js (see
+   * {@link SpecRunnerHtmlGenerator#SPEC_RESULT_QUEUE_JS}), or as soon as the runner
+   * finishes. Only the (brief) wait for the queue to be created is polled, and
+   * runners that don't have one call back once their reporter has finished.
+   */
+  public static final String DRAIN_SPEC_RESULTS =
+    "var max = arguments[0], wait = arguments[1], callback = arguments[arguments.length - 1];" +
+    "var whenQueueExists = function() {" +
+    "  var queue = window.jasmineMavenPlugin && window.jasmineMavenPlugin.specResults;" +
+    "  if (queue) {" +
+    "    queue.whenReady(max, wait, callback);" +
+    "  } else if (window.reporter !== undefined && window.reporter.finished) {" +
+    "    callback({finished: true, results: [], suites: []});" +
+    "  } else {" +
+    "    window.setTimeout(whenQueueExists, 10);" +
+    "  }" +
+    "};" +
+    "whenQueueExists();";
 
-  public JasmineResult execute(URL runnerUrl, File junitXmlReport, WebDriver driver, int timeout, boolean debug, Log log, String format) {
+  public static final String STOP_RUNNING_SPECS =
+    "if (window.jasmineMavenPlugin && window.jasmineMavenPlugin.specResults) {" +
+    "  window.jasmineMavenPlugin.specResults.stop();" +
+    "}";
+
+  /** Starts a batch of specs on a warm page (see specResultQueue.js), returning false
+   * when the runner can't run batches.
+   */
+  public static final String START_BATCH =
+    "if (window.jasmineMavenPlugin && window.jasmineMavenPlugin.startBatch) {" +
+    "  window.jasmineMavenPlugin.startBatch();" +
+    "  return true;" +
+    "}" +
+    "return false;";
+
+  public static final String EXECUTE_BATCH = "jasmine.getEnv().execute();";
+
+  /** Returns the whole suite tree, with every spec's result, in a single call. Runners
+   * without specResultQueue.js fall back to what their JsApiReporter collected.
+   */
+  public static final String EXTRACT_RESULTS =
+    "var queue = window.jasmineMavenPlugin && window.jasmineMavenPlugin.specResults;" +
+    "if (queue) {" +
+    "  return queue.extract();" +
+    "}" +
+    "var results = window.reporter.results();" +
+    "var extract = function(items) {" +
+    "  var extracted = [];" +
+    "  for (var i = 0; i < items.length; i++) {" +
+    "    var item = items[i], result = results[item.id];" +
+    "    if (item.type == 'suite') {" +
+    "      extracted.push({type: 'suite', name: item.name, children: extract(item.children)});" +
+    "    } else {" +
+    "      var messages = [];" +
+    "      for (var j = 0; result && result.result == 'failed' && j < result.messages.length; j++) {" +
+    "        messages.push({type: result.messages[j].type, message: result.messages[j].message || result.messages[j].text});" +
+    "      }" +
+    "      extracted.push({type: 'spec', id: item.id, name: item.name, result: result ? result.result : 'missing', messages: messages});" +
+    "    }" +
+    "  }" +
+    "  return extracted;" +
+    "};" +
+    "return {suites: extract(window.reporter.suites())};";
+
+  private ReadsJasmineResult readsJasmineResult = new ReadsJasmineResult();
+  private FormatsJasmineResult formatsJasmineResult = new FormatsJasmineResult();
+  private List<SpecResultListener> listeners = new ArrayList<SpecResultListener>();
+  private FailureLimit failureLimit;
+
+  public void addListener(SpecResultListener listener) {
+    listeners.add(listener);
+  }
+
+  /** Stops running specs once the (possibly shared) limit is reached. */
+  public void setFailureLimit(FailureLimit failureLimit) {
+    this.failureLimit = failureLimit;
+    addListener(failureLimit);
+  }
+
+  public JasmineResult execute(URL runnerUrl, WebDriver driver, int timeout, boolean debug, Log log, String format) {
     try {
-      if (!(driver instanceof JavascriptExecutor)) {
-        throw new RuntimeException("The provided web driver can't execute JavaScript: " + driver.getClass());
+      checkCanExecuteJavaScript(driver);
+      driver.get(runnerUrl.toString());
+      return execute(new WebDriverPage(driver), timeout, debug, log, format);
+    } catch (Exception e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /** Waits for the specs on a page that has them loaded (and running) to finish, and returns their result. */
+  public JasmineResult execute(SpecPage page, int timeout, boolean debug, Log log, String format) {
+    List<SpecResultListener> runListeners = new ArrayList<SpecResultListener>(listeners);
+    runListeners.add(new SpecProgressLogger(log));
+    waitForRunnerToFinish(page, timeout, debug, log, runListeners);
+    JasmineResult jasmineResult = extractResults(page);
+    jasmineResult.setDetails(formatsJasmineResult.format(jasmineResult, format));
+    return jasmineResult;
+  }
+
+  /** Loads a runner without any specs (and waits for its empty run to finish), so
+   * batches of specs can then be run on it with {@link #executeBatch}.
+   */
+  public void loadWarmPage(URL runnerUrl, WebDriver driver, int timeout, boolean debug, Log log) {
+    checkCanExecuteJavaScript(driver);
+    driver.get(runnerUrl.toString());
+    waitForRunnerToFinish(new WebDriverPage(driver), timeout, debug, log, Collections.<SpecResultListener>emptyList());
+  }
+
+  /** Runs the given spec files on the warm page the driver has loaded, with a new
+   * jasmine.Env, in a scope of their own (see {@link JasmineHtmlUnitDriver#evaluateInFreshScope(List)}).
+   */
+  public JasmineResult executeBatch(List<URL> specs, JasmineHtmlUnitDriver driver, int timeout, boolean debug, Log log, String format) {
+    try {
+      if (!Boolean.TRUE.equals(driver.executeScript(START_BATCH))) {
+        throw new IllegalStateException("The spec runner can't run batches of specs; it needs to load specResultQueue.js");
       }
-      JavascriptExecutor executor = (JavascriptExecutor) driver;
-        driver.get(runnerUrl.toString());
-        waitForRunnerToFinish(driver, timeout, debug, log);
-        JasmineResult jasmineResult = new JasmineResult();
-        jasmineResult.setDetails(buildReport(executor,format));
-        fileUtilsWrapper.writeStringToFile(junitXmlReport, buildJunitXmlReport(executor,debug), "UTF-8");
-        driver.quit();
-
-        return jasmineResult;
+      driver.evaluateInFreshScope(specs);
+      driver.executeScript(EXECUTE_BATCH);
+      return execute(new WebDriverPage(driver), timeout, debug, log, format);
     } catch (Exception e) {
       throw new RuntimeException(e);
     }
   }
 
-  private String buildReport(JavascriptExecutor driver, String format) throws IOException {
-    String script =
-        ioUtilsWrapper.toString(BUILD_REPORT_JS) +
-        "return jasmineMavenPlugin.printReport(window.reporter,{format:'"+format+"'});";
-    Object report = driver.executeScript(script);
-    return report.toString();
+  private void checkCanExecuteJavaScript(WebDriver driver) {
+    if (!(driver instanceof JavascriptExecutor)) {
+      throw new RuntimeException("The provided web driver can't execute JavaScript: " + driver.getClass());
+    }
   }
 
-  private String buildJunitXmlReport(JavascriptExecutor driver, boolean debug) throws IOException {
-    Object junitReport = driver.executeScript(
-        ioUtilsWrapper.toString(CREATE_JUNIT_XML) +
-        "return junitXmlReporter.report(window.reporter,"+debug+");");
-    return junitReport.toString();
+  @SuppressWarnings("unchecked")
+  private JasmineResult extractResults(SpecPage page) {
+    return readsJasmineResult.read((Map<String, Object>) page.executeScript(EXTRACT_RESULTS));
   }
 
-  private void waitForRunnerToFinish(final WebDriver driver, int timeout, boolean debug, Log log) throws InterruptedException {
-    final JavascriptExecutor executor = (JavascriptExecutor) driver;
-    new WebDriverWait(driver, timeout, 1000).until(new Predicate<WebDriver>() {
-      public boolean apply(WebDriver input) {
-        return executionFinished(executor);
+  private void waitForRunnerToFinish(SpecPage page, int timeout, boolean debug, Log log, List<SpecResultListener> listeners) {
+    long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(timeout);
+    try {
+      boolean drained = false;
+      boolean stopped = false;
+      while (!drained) {
+        long remaining = deadline - System.currentTimeMillis();
+        if (remaining <= 0) {
+          throw new TimeoutException("Timed out after " + timeout + " seconds");
+        }
+        drained = drainSpecResults(page, remaining, listeners);
+        if (!drained && !stopped && failureLimit != null && failureLimit.isReached()) {
+          log.info("Reached " + failureLimit.getMaxFailures() + " spec failures; skipping the remaining specs");
+          page.executeScript(STOP_RUNNING_SPECS);
+          stopped = true;
+        }
       }
-    });
+    } catch (TimeoutException e) {
+      log.debug("Timed out waiting for the spec runner to report its results", e);
+    }
 
-    if (!executionFinished(executor)) {
+    if (!executionFinished(page)) {
       handleTimeout(timeout, debug, log);
     }
   }
 
+  /** @return true once the runner has finished and every result has been drained. */
+  @SuppressWarnings("unchecked")
+  private boolean drainSpecResults(SpecPage page, long timeoutMillis, List<SpecResultListener> listeners) {
+    Map<String, Object> batch = (Map<String, Object>) page.executeAsyncScript(timeoutMillis, DRAIN_SPEC_RESULTS, RESULT_BATCH_SIZE, RESULT_BATCH_WAIT_MILLIS);
+    List<Map<String, Object>> results = (List<Map<String, Object>>) batch.get("results");
+    List<Map<String, Object>> suites = batch.containsKey("suites") ? (List<Map<String, Object>>) batch.get("suites") : Collections.<Map<String, Object>>emptyList();
+    for (SpecResultListener listener : listeners) {
+      listener.resultsDrained(results, suites);
+    }
+    return Boolean.TRUE.equals(batch.get("finished")) && results.size() < RESULT_BATCH_SIZE;
+  }
+
   private void handleTimeout(int timeout, boolean debug, Log log) {
     log.warn("Attempted to wait for your specs to finish processing over the course of " +
           timeout +
@@ -80,8 +206,28 @@ public class SpecRunnerExecutor {
     }
   }
 
-  private Boolean executionFinished(JavascriptExecutor driver) {
-    return (Boolean) driver.executeScript("return (window.reporter === undefined) ? false : window.reporter.finished");
+  private Boolean executionFinished(SpecPage page) {
+    return (Boolean) page.executeScript("return (window.reporter === undefined) ? false : window.reporter.finished");
+  }
+
+  /** A page loaded in a {@link WebDriver} that can execute JavaScript. */
+  private static class WebDriverPage implements SpecPage {
+
+    private final WebDriver driver;
+
+    public WebDriverPage(WebDriver driver) {
+      this.driver = driver;
+    }
+
+    public Object executeScript(String script, Object... args) {
+      return ((JavascriptExecutor) driver).executeScript(script, args);
+    }
+
+    public Object executeAsyncScript(long timeoutMillis, String script, Object... args) {
+      driver.manage().timeouts().setScriptTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+      return ((JavascriptExecutor) driver).executeAsyncScript(script, args);
+    }
+
   }
 
 }
@@ -5,6 +5,10 @@ public interface SpecRunnerHtmlGenerator {
   String  JASMINE_JS = "/vendor/js/jasmine.js";
   String  JASMINE_HTML_JS = "/vendor/js/jasmine-html.js";
   String  JASMINE_CSS = "/vendor/css/jasmine.css";
+  String  SPEC_REPORTING_JS = "/lib/specReporting.js";
+  String  SPEC_RESULT_QUEUE_JS = "/lib/specResultQueue.js";
+  String  VIRTUAL_CLOCK_JS = "/lib/virtualClock.js";
+  String  RESULTS_COLLECTOR_JS = "/lib/resultsCollector.js";
 
   String generate();
   String generateWitRelativePaths();
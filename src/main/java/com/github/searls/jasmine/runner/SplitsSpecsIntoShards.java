@@ -0,0 +1,85 @@
+package com.github.searls.jasmine.runner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class SplitsSpecsIntoShards {
+
+  /** Splits the specs into contiguous groups of (nearly) equal size. Contiguous
+   * groups keep the relative order of spec files within each shard.
+   */
+  public List<Set<String>> split(Set<String> specs, int shardCount) {
+    List<Set<String>> shards = new ArrayList<Set<String>>();
+    int count = Math.max(1, Math.min(shardCount, specs.size()));
+    int baseSize = specs.size() / count;
+    int remainder = specs.size() % count;
+
+    Set<String> shard = new LinkedHashSet<String>();
+    int shardSize = baseSize + (remainder > 0 ? 1 : 0);
+    for (String spec : specs) {
+      shard.add(spec);
+      if (shard.size() == shardSize) {
+        shards.add(shard);
+        shard = new LinkedHashSet<String>();
+        shardSize = baseSize + (shards.size() < remainder ? 1 : 0);
+      }
+    }
+    if (shards.isEmpty()) {
+      shards.add(shard);
+    }
+    return shards;
+  }
+
+  /** Splits the specs into groups that take (nearly) equal time, given each spec's
+   * estimated duration: the longest specs go first, each to the group with the least
+   * time so far. The specs of each group keep their relative order.
+   */
+  public List<Set<String>> split(Set<String> specs, int shardCount, final Map<String, Long> durations) {
+    int count = Math.max(1, Math.min(shardCount, specs.size()));
+    final Map<String, Integer> order = new HashMap<String, Integer>();
+    for (String spec : specs) {
+      order.put(spec, order.size());
+    }
+    List<String> longestFirst = new ArrayList<String>(specs);
+    Collections.sort(longestFirst, new Comparator<String>() {
+      public int compare(String a, String b) {
+        int byDuration = duration(durations, b).compareTo(duration(durations, a));
+        return byDuration != 0 ? byDuration : order.get(a) - order.get(b);
+      }
+    });
+
+    long[] loads = new long[count];
+    Map<String, Integer> assigned = new HashMap<String, Integer>();
+    for (String spec : longestFirst) {
+      int leastLoaded = 0;
+      for (int i = 1; i < count; i++) {
+        if (loads[i] < loads[leastLoaded]) {
+          leastLoaded = i;
+        }
+      }
+      loads[leastLoaded] += duration(durations, spec);
+      assigned.put(spec, leastLoaded);
+    }
+
+    List<Set<String>> shards = new ArrayList<Set<String>>();
+    for (int i = 0; i < count; i++) {
+      shards.add(new LinkedHashSet<String>());
+    }
+    for (String spec : specs) {
+      shards.get(assigned.get(spec)).add(spec);
+    }
+    return shards;
+  }
+
+  private Long duration(Map<String, Long> durations, String spec) {
+    Long duration = durations.get(spec);
+    return duration == null ? 0L : duration;
+  }
+
+}
@@ -0,0 +1,61 @@
+package com.github.searls.jasmine.runner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import com.github.searls.jasmine.model.Timing;
+
+/** Keeps the N slowest specs and suites seen across one or more (possibly
+ * concurrent) runs, without holding on to the timings of the rest.
+ */
+public class TracksSlowestSpecs implements SpecResultListener {
+
+  private final int count;
+  private final PriorityQueue<Timing> specs;
+  private final PriorityQueue<Timing> suites;
+
+  public TracksSlowestSpecs(int count) {
+    this.count = count;
+    this.specs = new PriorityQueue<Timing>(count + 1, Collections.reverseOrder());
+    this.suites = new PriorityQueue<Timing>(count + 1, Collections.reverseOrder());
+  }
+
+  public synchronized void resultsDrained(List<Map<String, Object>> specResults, List<Map<String, Object>> suiteResults) {
+    for (Map<String, Object> spec : specResults) {
+      keep(specs, new Timing(spec.get("suite") + " " + spec.get("name"), millis(spec)));
+    }
+    for (Map<String, Object> suite : suiteResults) {
+      keep(suites, new Timing(String.valueOf(suite.get("name")), millis(suite)));
+    }
+  }
+
+  public synchronized List<Timing> getSlowestSpecs() {
+    return slowestFirst(specs);
+  }
+
+  public synchronized List<Timing> getSlowestSuites() {
+    return slowestFirst(suites);
+  }
+
+  private void keep(PriorityQueue<Timing> slowest, Timing timing) {
+    slowest.add(timing);
+    if (slowest.size() > count) {
+      slowest.poll();
+    }
+  }
+
+  private List<Timing> slowestFirst(PriorityQueue<Timing> slowest) {
+    List<Timing> timings = new ArrayList<Timing>(slowest);
+    Collections.sort(timings);
+    return timings;
+  }
+
+  private long millis(Map<String, Object> result) {
+    Object duration = result.get("duration");
+    return duration instanceof Number ? ((Number) duration).longValue() : 0;
+  }
+
+}
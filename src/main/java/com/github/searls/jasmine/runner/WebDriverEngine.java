@@ -0,0 +1,60 @@
+package com.github.searls.jasmine.runner;
+
+import org.apache.maven.plugin.logging.Log;
+import org.openqa.selenium.WebDriver;
+
+import com.github.searls.jasmine.model.JasmineResult;
+
+/** An engine that loads a {@link SpecRun}'s spec runner in a {@link WebDriver}, which
+ * runs the scripts the way a browser does. Drivers are taken from (and given back to) the
+ * {@link WebDriverPool} when the run reuses them.
+ */
+public abstract class WebDriverEngine implements SpecEngine {
+
+  protected abstract WebDriver createDriver(SpecRun run);
+
+  /** Sets up a (possibly pooled) driver for the given run. */
+  protected void prepareDriver(WebDriver driver, SpecRun run, Log log) {
+  }
+
+  protected boolean reusesDrivers(SpecRun run) {
+    return run.isReuseWebDrivers();
+  }
+
+  protected String poolKey(SpecRun run) {
+    return getName() + ":" + run.getBrowserVersion() + (run.isDebug() ? ":debug" : "");
+  }
+
+  public JasmineResult execute(SpecRun run, SpecRunnerExecutor executor, Log log) {
+    WebDriver driver = acquireDriver(run);
+    boolean reusable = false;
+    try {
+      prepareDriver(driver, run, log);
+      JasmineResult result = executor.execute(run.getRunner(), driver, run.getTimeout(), run.isDebug(), log, run.getFormat());
+      reusable = true;
+      return result;
+    } finally {
+      releaseDriver(driver, run, reusable);
+    }
+  }
+
+  protected WebDriver acquireDriver(final SpecRun run) {
+    if (!reusesDrivers(run)) {
+      return createDriver(run);
+    }
+    return WebDriverPool.shared().acquire(poolKey(run), new WebDriverPool.Factory() {
+      public WebDriver create() {
+        return createDriver(run);
+      }
+    });
+  }
+
+  protected void releaseDriver(WebDriver driver, SpecRun run, boolean reusable) {
+    if (reusesDrivers(run) && reusable) {
+      WebDriverPool.shared().release(poolKey(run), driver);
+    } else {
+      WebDriverPool.shared().discard(driver);
+    }
+  }
+
+}
@@ -0,0 +1,142 @@
+package com.github.searls.jasmine.runner;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.WebDriver;
+
+/** Keeps warm {@link WebDriver}s around for later executions instead of quitting them.
+ *
+ * <p>
+ * Drivers are pooled by a key describing how they were configured (e.g. the
+ * driver class and browser version), and are reset to a blank page before
+ * they are handed out again. The {@link #shared()} pool lives as long as the
+ * plugin's class realm, so it is shared by every module of a reactor build.
+ * </p>
+ */
+public class WebDriverPool {
+
+  public static final String BLANK_PAGE = "about:blank";
+
+  private static final WebDriverPool SHARED = new WebDriverPool(Runtime.getRuntime().availableProcessors());
+
+  public interface Factory {
+    WebDriver create();
+  }
+
+  private final int maxIdlePerKey;
+  private final Map<String, LinkedList<WebDriver>> idle = new HashMap<String, LinkedList<WebDriver>>();
+  private int created;
+  private int reused;
+  private boolean shutdownHookRegistered;
+
+  public WebDriverPool(int maxIdlePerKey) {
+    this.maxIdlePerKey = maxIdlePerKey;
+  }
+
+  public static WebDriverPool shared() {
+    return SHARED;
+  }
+
+  public WebDriver acquire(String key, Factory factory) {
+    synchronized (this) {
+      LinkedList<WebDriver> drivers = idle.get(key);
+      if (drivers != null && !drivers.isEmpty()) {
+        reused++;
+        return drivers.removeFirst();
+      }
+      created++;
+      registerShutdownHook();
+    }
+    return factory.create();
+  }
+
+  /** Resets the driver and keeps it for the next {@link #acquire(String, Factory)} with the same key.
+   * Drivers that can't be reset, or that would exceed the pool size, are quit instead.
+   */
+  public void release(String key, WebDriver driver) {
+    if (!reset(driver)) {
+      discard(driver);
+      return;
+    }
+    synchronized (this) {
+      LinkedList<WebDriver> drivers = idle.get(key);
+      if (drivers == null) {
+        drivers = new LinkedList<WebDriver>();
+        idle.put(key, drivers);
+      }
+      if (drivers.size() < maxIdlePerKey) {
+        drivers.addLast(driver);
+        return;
+      }
+    }
+    discard(driver);
+  }
+
+  public void discard(WebDriver driver) {
+    try {
+      driver.quit();
+    } catch (RuntimeException e) {
+      // The driver is being thrown away; there's nothing left to clean up.
+    }
+  }
+
+  public void quitAll() {
+    List<WebDriver> drivers = new ArrayList<WebDriver>();
+    synchronized (this) {
+      for (LinkedList<WebDriver> idleDrivers : idle.values()) {
+        drivers.addAll(idleDrivers);
+      }
+      idle.clear();
+    }
+    for (WebDriver driver : drivers) {
+      discard(driver);
+    }
+  }
+
+  public synchronized int getCreated() {
+    return created;
+  }
+
+  public synchronized int getReused() {
+    return reused;
+  }
+
+  public synchronized int getIdle() {
+    int count = 0;
+    for (LinkedList<WebDriver> drivers : idle.values()) {
+      count += drivers.size();
+    }
+    return count;
+  }
+
+  public synchronized String statistics() {
+    return created + " created, " + reused + " reused, " + getIdle() + " idle";
+  }
+
+  private boolean reset(WebDriver driver) {
+    try {
+      driver.manage().deleteAllCookies();
+      driver.get(BLANK_PAGE);
+      return true;
+    } catch (RuntimeException e) {
+      return false;
+    }
+  }
+
+  private void registerShutdownHook() {
+    if (!shutdownHookRegistered) {
+      shutdownHookRegistered = true;
+      Runtime.getRuntime().addShutdownHook(new Thread("jasmine-webdriver-pool-shutdown") {
+        @Override
+        public void run() {
+          quitAll();
+        }
+      });
+    }
+  }
+
+}
@@ -0,0 +1,166 @@
+package com.github.searls.jasmine.server;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.lang.StringUtils;
+import org.apache.maven.plugin.logging.Log;
+import org.eclipse.jetty.util.ajax.JSON;
+
+import com.github.searls.jasmine.AbstractJasmineMojo;
+import com.github.searls.jasmine.format.FormatsJasmineResult;
+import com.github.searls.jasmine.format.JasmineResultLogger;
+import com.github.searls.jasmine.format.WritesJunitXmlReport;
+import com.github.searls.jasmine.model.JasmineResult;
+import com.github.searls.jasmine.runner.ReadsJasmineResult;
+
+/** Collects the results that the manual runners served by jasmine:bdd post back once
+ * they've run (see resultsCollector.js), from however many browsers and tabs run them.
+ * Each run's results are logged as they come in, and the last run of each tab (told
+ * apart by the client id it posts) is written as a JUnit XML report of its own, named
+ * after its browser (e.g. TEST-jasmine-firefox-10.xml), along with a tally of every
+ * tab's last run.
+ */
+public class CollectsSpecResults {
+
+  public static final String PATH = "/__jasmine/results";
+
+  /** Names of browsers, with the major version in their user agents, most specific first
+   * (e.g. Chrome's user agent mentions Safari, and Edge's mentions Chrome).
+   */
+  private static final String[][] BROWSERS = {
+    {"phantomjs", "PhantomJS/(\\d+)"},
+    {"headlesschrome", "HeadlessChrome/(\\d+)"},
+    {"edge", "Edge?/(\\d+)"},
+    {"opera", "OPR/(\\d+)"},
+    {"chrome", "Chrome/(\\d+)"},
+    {"firefox", "Firefox/(\\d+)"},
+    {"ie", "MSIE (\\d+)"},
+    {"ie", "Trident/.*rv:(\\d+)"},
+    {"safari", "Version/(\\d+).*Safari/"}
+  };
+
+  private final File reportDirectory;
+  private final String junitXmlReportFileName;
+  private final String format;
+  private final Log log;
+
+  private ReadsJasmineResult readsJasmineResult = new ReadsJasmineResult();
+  private FormatsJasmineResult formatsJasmineResult = new FormatsJasmineResult();
+
+  /** Browser names by client id (or by user agent, for clients that don't post one), in the order they first reported. */
+  private final Map<String, String> browsers = new LinkedHashMap<String, String>();
+  /** The last run of each client, by browser name. */
+  private final Map<String, JasmineResult> lastRuns = new LinkedHashMap<String, JasmineResult>();
+
+  public CollectsSpecResults(AbstractJasmineMojo config) {
+    this(config.getJasmineTargetDir(), config.getJunitXmlReportFileName(), config.getFormat(), config.getLog());
+  }
+
+  public CollectsSpecResults(File reportDirectory, String junitXmlReportFileName, String format, Log log) {
+    this.reportDirectory = reportDirectory;
+    this.junitXmlReportFileName = junitXmlReportFileName;
+    this.format = format;
+    this.log = log;
+  }
+
+  public boolean handles(String target, String method) {
+    return PATH.equals(target) && "POST".equals(method);
+  }
+
+  /** Logs and reports the results of a run, posted as the JSON resultsCollector.js sends.
+   * @return the results
+   * @throws IllegalArgumentException if they aren't JSON, or are missing the suites.
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized JasmineResult collect(String json, String userAgent) throws IOException {
+    Object posted;
+    try {
+      posted = lists(JSON.parse(json));
+    } catch (IllegalStateException e) {
+      throw new IllegalArgumentException("The results aren't JSON: " + e.getMessage());
+    }
+    if (!(posted instanceof Map) || !(((Map<String, Object>) posted).get("suites") instanceof List)) {
+      throw new IllegalArgumentException("The results are missing their suites");
+    }
+    JasmineResult result = readsJasmineResult.read((Map<String, Object>) posted);
+    result.setDetails(formatsJasmineResult.format(result, format));
+    Object client = ((Map<String, Object>) posted).get("client");
+    String browser = browser(client instanceof String ? (String) client : null, userAgent);
+    lastRuns.put(browser, result);
+
+    File report = new File(reportDirectory, FilenameUtils.removeExtension(junitXmlReportFileName) + "-" + browser + "." + FilenameUtils.getExtension(junitXmlReportFileName));
+    new WritesJunitXmlReport("jasmine." + browser).write(result, report);
+
+    JasmineResultLogger resultLogger = new JasmineResultLogger();
+    resultLogger.setLog(log);
+    log.info("Results from " + browser + " (" + userAgent + "):");
+    resultLogger.log(result);
+    log.info("Wrote " + report.getPath());
+    log.info(tally());
+    return result;
+  }
+
+  private String tally() {
+    int failing = 0;
+    for (JasmineResult lastRun : lastRuns.values()) {
+      failing += lastRun.didPass() ? 0 : 1;
+    }
+    List<String> browserResults = new ArrayList<String>();
+    for (Map.Entry<String, JasmineResult> lastRun : lastRuns.entrySet()) {
+      browserResults.add(lastRun.getKey() + ": " + lastRun.getValue().getSpecCount() + " specs, " + lastRun.getValue().getFailureCount() + " failures");
+    }
+    return "Last runs of " + lastRuns.size() + " browsers (" + failing + " failing): " + StringUtils.join(browserResults.iterator(), "; ");
+  }
+
+  /** @return a name for the client's browser, going by its user agent, that can go in a file
+   * name, e.g. firefox-10; clients that would share a name are told apart by a number.
+   */
+  private String browser(String client, String userAgent) {
+    String key = client != null ? "client:" + client : "userAgent:" + StringUtils.defaultString(userAgent);
+    String browser = browsers.get(key);
+    if (browser == null) {
+      String name = "browser";
+      for (String[] candidate : BROWSERS) {
+        Matcher matcher = Pattern.compile(candidate[1]).matcher(StringUtils.defaultString(userAgent));
+        if (matcher.find()) {
+          name = candidate[0] + "-" + matcher.group(1);
+          break;
+        }
+      }
+      browser = name;
+      for (int i = 2; browsers.containsValue(browser); i++) {
+        browser = name + "-" + i;
+      }
+      browsers.put(key, browser);
+    }
+    return browser;
+  }
+
+  /** @return the parsed JSON with its arrays as lists, the way {@link ReadsJasmineResult} reads them. */
+  @SuppressWarnings("unchecked")
+  private Object lists(Object parsed) {
+    if (parsed instanceof Object[]) {
+      List<Object> list = new ArrayList<Object>();
+      for (Object item : (Object[]) parsed) {
+        list.add(lists(item));
+      }
+      return list;
+    } else if (parsed instanceof Map) {
+      Map<String, Object> map = new LinkedHashMap<String, Object>();
+      for (Map.Entry<String, Object> entry : ((Map<String, Object>) parsed).entrySet()) {
+        map.put(entry.getKey(), lists(entry.getValue()));
+      }
+      return map;
+    }
+    return parsed;
+  }
+
+}
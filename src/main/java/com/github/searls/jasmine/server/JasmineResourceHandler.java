@@ -6,6 +6,7 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.apache.commons.io.IOUtils;
 import org.eclipse.jetty.server.Request;
 import org.eclipse.jetty.server.handler.ResourceHandler;
 import org.eclipse.jetty.util.resource.Resource;
@@ -21,14 +22,25 @@ public class JasmineResourceHandler extends ResourceHandler {
   private DetectsCoffee detectsCoffee = new DetectsCoffee();
   private HandlesRequestsForCoffee handlesRequestsForCoffee = new HandlesRequestsForCoffee();
   private CreatesManualRunner createsManualRunner;
+  private CollectsSpecResults collectsSpecResults;
 
   public JasmineResourceHandler(AbstractJasmineMojo config) {
+    this(config, new CollectsSpecResults(config));
+  }
+
+  /** @param collectsSpecResults what collects the results the manual runner posts back, shared by every handler of a server. */
+  public JasmineResourceHandler(AbstractJasmineMojo config, CollectsSpecResults collectsSpecResults) {
     createsManualRunner = new CreatesManualRunner(config);
     createsManualRunner.setLog(new NullLog());
+    this.collectsSpecResults = collectsSpecResults;
   }
 
   @Override
   public void handle(String target, Request baseRequest, HttpServletRequest request, HttpServletResponse response) throws IOException, ServletException {
+    if (collectsSpecResults.handles(target, request.getMethod())) {
+      collectSpecResults(baseRequest, request, response);
+      return;
+    }
     createManualSpecRunnerIfNecessary(target);
     Resource resource = getResource(baseRequest);
     response.addDateHeader("EXPIRES", 0L);
@@ -40,6 +52,19 @@ public class JasmineResourceHandler extends ResourceHandler {
     }
   }
 
+  private void collectSpecResults(Request baseRequest, HttpServletRequest request, HttpServletResponse response) throws IOException {
+    baseRequest.setHandled(true);
+    if (request.getCharacterEncoding() == null) {
+      request.setCharacterEncoding("UTF-8");
+    }
+    try {
+      collectsSpecResults.collect(IOUtils.toString(request.getReader()), request.getHeader("User-Agent"));
+      response.setStatus(HttpServletResponse.SC_NO_CONTENT);
+    } catch (IllegalArgumentException e) {
+      response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+    }
+  }
+
   private void createManualSpecRunnerIfNecessary(String target) throws IOException {
     if ("/".equals(target)) {
       createsManualRunner.create();
@@ -0,0 +1,101 @@
+(function() {
+  // Posts the results of each run of the manual runner back to jasmine:bdd
+  // (see CollectsSpecResults), which logs them and writes a JUnit XML report
+  // per tab, so any number of browsers (or tabs) can run the specs at once.
+  // Runners opened from the file system keep their results to themselves.
+  var RESULTS_PATH = '/__jasmine/results';
+  var CLIENT_ID_KEY = 'jasmineMavenPlugin.clientId';
+  var jasmineMavenPlugin = window.jasmineMavenPlugin = window.jasmineMavenPlugin || {};
+  if (!/^https?:$/.test(window.location.protocol)) {
+    return;
+  }
+
+  // Times specs and extracts their results (see specReporting.js).
+  var reporting = jasmineMavenPlugin.reporting;
+
+  // Posts the result and duration (in milliseconds) of each spec, and the
+  // duration of each suite, in the shape jasmine:test extracts them in (see
+  // specResultQueue.js), along with the id of the tab they ran in.
+  var ResultsCollector = function() {};
+
+  ResultsCollector.prototype.reportRunnerStarting = function(runner) {
+    this.runnerStartedAt = reporting.now();
+  };
+
+  ResultsCollector.prototype.reportSpecStarting = function(spec) {
+    reporting.specStarting(spec);
+  };
+
+  ResultsCollector.prototype.reportSpecResults = function(spec) {
+    reporting.finished(spec);
+  };
+
+  ResultsCollector.prototype.reportSuiteResults = function(suite) {
+    reporting.finished(suite);
+  };
+
+  ResultsCollector.prototype.reportRunnerResults = function(runner) {
+    post({
+      client: clientId(),
+      duration: this.runnerStartedAt === undefined ? 0 : reporting.now() - this.runnerStartedAt,
+      suites: reporting.extractItems(runner.topLevelSuites())
+    });
+  };
+
+  // Tells apart the tabs (and headless browsers) running the specs, even ones
+  // with the same user agent. Kept in the tab's session storage where there
+  // is one, so reloading a tab doesn't make it a new one.
+  var clientId = function() {
+    var id;
+    try {
+      id = window.sessionStorage.getItem(CLIENT_ID_KEY);
+    } catch (e) {
+      // No session storage (or no access to it); the id lasts as long as the page.
+    }
+    if (!id) {
+      id = jasmineMavenPlugin.clientId || (jasmineMavenPlugin.clientId = new Date().getTime().toString(36) + '-' + Math.random().toString(36).slice(2));
+      try {
+        window.sessionStorage.setItem(CLIENT_ID_KEY, id);
+      } catch (e) {
+        // See above.
+      }
+    }
+    return id;
+  };
+
+  var post = function(results) {
+    var request = window.XMLHttpRequest ? new XMLHttpRequest() : new ActiveXObject('Microsoft.XMLHTTP');
+    request.open('POST', RESULTS_PATH, true);
+    request.setRequestHeader('Content-Type', 'application/json; charset=UTF-8');
+    request.send(toJson(results));
+  };
+
+  // Not JSON.stringify, which older browsers lack and some libraries (e.g.
+  // older versions of Prototype) break.
+  var toJson = function(value) {
+    if (value === null || value === undefined || (typeof value === 'number' && !isFinite(value))) {
+      return 'null';
+    } else if (typeof value === 'number' || typeof value === 'boolean') {
+      return String(value);
+    } else if (typeof value === 'string') {
+      return '"' + value.replace(/[\\"\u0000-\u001f\u2028\u2029]/g, function(c) {
+        return '\\u' + ('0000' + c.charCodeAt(0).toString(16)).slice(-4);
+      }) + '"';
+    } else if (value instanceof Array) {
+      var items = [];
+      for (var i = 0; i < value.length; i++) {
+        items.push(toJson(value[i]));
+      }
+      return '[' + items.join(',') + ']';
+    }
+    var members = [];
+    for (var key in value) {
+      if (value.hasOwnProperty(key) && typeof value[key] !== 'function') {
+        members.push(toJson(key) + ':' + toJson(value[key]));
+      }
+    }
+    return '{' + members.join(',') + '}';
+  };
+
+  jasmine.getEnv().addReporter(new ResultsCollector());
+})();
@@ -0,0 +1,207 @@
+(function(global, href) {
+  // The little of a browser window that Jasmine, specResultQueue.js and
+  // RhinoEngine expect, for running specs in bare Rhino (see RhinoPage): the window itself, timers, load events, location and
+  // navigator, and a document without any elements that lets scripts append
+  // to its body. Specs that need a real DOM have to run in HtmlUnit.
+  //
+  // Timers run in real time, when RhinoPage gives them the chance (i.e.
+  // while it waits on an asynchronous script); ones due at the same time run
+  // in the order they were set.
+  var RealDate = global.Date;
+  var timers = [];
+  var pending = {};
+  var nextId = 1;
+  var listeners = {};
+  var errors = [];
+
+  var now = function() {
+    return new RealDate().getTime();
+  };
+
+  var schedule = function(fn, millis, args, repeat) {
+    var code = fn;
+    if (typeof fn !== 'function') {
+      fn = function() {
+        global.eval(String(code));
+      };
+    }
+    var delay = Math.max(0, Number(millis) || 0);
+    var timer = {id: nextId++, fn: fn, args: args, delay: delay, due: now() + delay, repeat: repeat};
+    pending[timer.id] = timer;
+    add(timer);
+    return timer.id;
+  };
+
+  var add = function(timer) {
+    var i = timers.length;
+    while (i > 0 && timers[i - 1].due > timer.due) {
+      i--;
+    }
+    timers.splice(i, 0, timer);
+  };
+
+  // Cancelled timers are only marked, since they may be due in the very run of
+  // timers that cancels them; they're dropped when they come up.
+  var cancel = function(id) {
+    if (pending[id]) {
+      pending[id].cancelled = true;
+      delete pending[id];
+    }
+  };
+
+  var dropCancelled = function() {
+    while (timers.length > 0 && timers[0].cancelled) {
+      timers.shift();
+    }
+  };
+
+  var report = function(e) {
+    if (typeof global.onerror === 'function') {
+      global.onerror(String(e), href, e && e.lineNumber);
+    } else {
+      errors.push(String(e));
+    }
+  };
+
+  global.window = global.self = global.top = global.parent = global;
+
+  global.setTimeout = function(fn, millis) {
+    return schedule(fn, millis, Array.prototype.slice.call(arguments, 2), false);
+  };
+  global.setInterval = function(fn, millis) {
+    return schedule(fn, millis, Array.prototype.slice.call(arguments, 2), true);
+  };
+  global.clearTimeout = global.clearInterval = cancel;
+
+  global.addEventListener = function(type, listener) {
+    (listeners[type] = listeners[type] || []).push(listener);
+  };
+  global.removeEventListener = function(type, listener) {
+    var typeListeners = listeners[type] || [];
+    for (var i = 0; i < typeListeners.length; i++) {
+      if (typeListeners[i] === listener) {
+        typeListeners.splice(i, 1);
+        return;
+      }
+    }
+  };
+
+  var node = function(name) {
+    return {
+      nodeName: name,
+      childNodes: [],
+      style: {},
+      appendChild: function(child) {
+        this.childNodes.push(child);
+        return child;
+      },
+      removeChild: function(child) {
+        for (var i = 0; i < this.childNodes.length; i++) {
+          if (this.childNodes[i] === child) {
+            this.childNodes.splice(i, 1);
+          }
+        }
+        return child;
+      },
+      setAttribute: function(name, value) {
+        this[name] = String(value);
+      },
+      getAttribute: function(name) {
+        return this[name] === undefined ? null : this[name];
+      }
+    };
+  };
+
+  var location = {href: href, toString: function() { return href; }};
+  var protocolAndRest = /^([^:]+:)\/\/([^\/]*)([^?#]*)(\?[^#]*)?(#.*)?$/.exec(href);
+  location.protocol = protocolAndRest ? protocolAndRest[1] : '';
+  location.host = location.hostname = protocolAndRest ? protocolAndRest[2] : '';
+  location.pathname = protocolAndRest ? protocolAndRest[3] : '';
+  location.search = protocolAndRest && protocolAndRest[4] || '';
+  location.hash = protocolAndRest && protocolAndRest[5] || '';
+  global.location = location;
+
+  global.navigator = {userAgent: 'Rhino', appName: 'Rhino', platform: ''};
+
+  var body = node('BODY');
+  global.document = {
+    location: location,
+    readyState: 'loading',
+    documentElement: node('HTML'),
+    body: body,
+    createElement: function(name) {
+      return node(String(name).toUpperCase());
+    },
+    createTextNode: function(text) {
+      return {nodeName: '#text', nodeValue: String(text)};
+    },
+    getElementById: function() {
+      return null;
+    },
+    getElementsByTagName: function(name) {
+      return String(name).toUpperCase() === 'BODY' ? [body] : [];
+    },
+    addEventListener: global.addEventListener,
+    removeEventListener: global.removeEventListener
+  };
+
+  // What RhinoPage drives the window with; the rest of the page gets no
+  // access to it.
+  return {
+    // Fires the given event at its listeners, as a browser does once the page
+    // has loaded (DOMContentLoaded, then load).
+    fire: function(type) {
+      if (type === 'DOMContentLoaded') {
+        global.document.readyState = 'complete';
+      }
+      var typeListeners = (listeners[type] || []).slice();
+      if (typeof global['on' + type] === 'function') {
+        typeListeners.push(global['on' + type]);
+      }
+      for (var i = 0; i < typeListeners.length; i++) {
+        try {
+          typeListeners[i].call(global, {type: type, target: global.document});
+        } catch (e) {
+          report(e);
+        }
+      }
+    },
+
+    // Runs the timers that are due, but none set (or, for intervals, set
+    // again) while they run, and returns how many milliseconds until the next
+    // timer is due, or -1 if there are no timers left.
+    runDueTimers: function() {
+      var until = now(), last = nextId, due = [];
+      dropCancelled();
+      while (timers.length > 0 && timers[0].due <= until && timers[0].id < last) {
+        due.push(timers.shift());
+        dropCancelled();
+      }
+      for (var i = 0; i < due.length; i++) {
+        var timer = due[i];
+        if (timer.cancelled) {
+          continue;
+        }
+        if (timer.repeat) {
+          timer.due = now() + Math.max(1, timer.delay);
+          add(timer);
+        } else {
+          delete pending[timer.id];
+        }
+        try {
+          timer.fn.apply(global, timer.args);
+        } catch (e) {
+          report(e);
+        }
+      }
+      dropCancelled();
+      return timers.length > 0 ? Math.max(0, timers[0].due - now()) : -1;
+    },
+
+    // Reports (and forgets) the errors thrown by timers and event listeners
+    // since the last call, when the page doesn't handle them with onerror.
+    takeErrors: function() {
+      return errors.splice(0, errors.length);
+    }
+  };
+})
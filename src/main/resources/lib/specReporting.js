@@ -0,0 +1,97 @@
+(function() {
+  var jasmineMavenPlugin = window.jasmineMavenPlugin = window.jasmineMavenPlugin || {};
+  // Set when specs run on a virtual clock (see virtualClock.js); durations
+  // still go by the real one.
+  var virtualClock = jasmineMavenPlugin.virtualClock;
+
+  // Times specs and suites, and extracts their results, for the reporters that
+  // hand results over to the plugin: specResultQueue.js (jasmine:test) and
+  // resultsCollector.js (jasmine:bdd). Durations are in milliseconds. What
+  // they need later on is kept on the specs and suites themselves (see
+  // STATE), so reporters hold nothing per spec.
+  var reporting = jasmineMavenPlugin.reporting = {};
+
+  // The name of the property holding a spec's or suite's {startedAt, duration,
+  // filtered} state.
+  var STATE = 'jasmineMavenPlugin';
+
+  reporting.state = function(item) {
+    return item[STATE] || (item[STATE] = {});
+  };
+
+  reporting.now = function() {
+    return new (virtualClock ? virtualClock.RealDate : Date)().getTime();
+  };
+
+  // Starts timing the spec, and each of its suites that hasn't started yet.
+  reporting.specStarting = function(spec) {
+    var startedAt = reporting.now();
+    reporting.state(spec).startedAt = startedAt;
+    for (var suite = spec.suite; suite; suite = suite.parentSuite) {
+      if (reporting.state(suite).startedAt === undefined) {
+        reporting.state(suite).startedAt = startedAt;
+      }
+    }
+  };
+
+  // Returns (and keeps) the duration of the spec or suite that just finished.
+  reporting.finished = function(item) {
+    var state = reporting.state(item);
+    state.duration = state.startedAt === undefined ? 0 : reporting.now() - state.startedAt;
+    return state.duration;
+  };
+
+  reporting.result = function(spec) {
+    var results = spec.results();
+    return results.skipped ? 'skipped' : (results.failedCount > 0 ? 'failed' : 'passed');
+  };
+
+  // Returns the tree of suites and specs, leaving out filtered specs (and
+  // suites whose specs were all filtered).
+  reporting.extractItems = function(items) {
+    var extracted = [];
+    for (var i = 0; i < items.length; i++) {
+      var item = items[i];
+      if (item instanceof jasmine.Suite) {
+        var children = reporting.extractItems(item.children());
+        if (children.length > 0 || item.children().length === 0) {
+          extracted.push({
+            type: 'suite',
+            name: item.description,
+            duration: reporting.state(item).duration || 0,
+            children: children
+          });
+        }
+      } else if (!reporting.state(item).filtered) {
+        extracted.push(reporting.extractSpec(item));
+      }
+    }
+    return extracted;
+  };
+
+  reporting.extractSpec = function(spec) {
+    var duration = reporting.state(spec).duration;
+    var result = duration === undefined ? 'missing' : reporting.result(spec);
+    return {
+      type: 'spec',
+      id: spec.id,
+      name: spec.description,
+      result: result,
+      duration: duration || 0,
+      messages: result === 'failed' ? reporting.summarizeMessages(spec.results().getItems()) : []
+    };
+  };
+
+  reporting.summarizeMessages = function(items) {
+    var messages = [];
+    for (var i = 0; i < items.length; i++) {
+      var item = items[i];
+      messages.push({
+        message: item.type == 'log' ? item.toString() : item.message,
+        type: item.type,
+        matcherName: item.matcherName
+      });
+    }
+    return messages;
+  };
+})();
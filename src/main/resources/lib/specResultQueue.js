@@ -0,0 +1,259 @@
+(function() {
+  var jasmineMavenPlugin = window.jasmineMavenPlugin = window.jasmineMavenPlugin || {};
+  var config = jasmineMavenPlugin.config || {};
+  // Set when specs run on a virtual clock (see virtualClock.js); the timers
+  // handing results over to jasmine:test still go by the real one.
+  var virtualClock = jasmineMavenPlugin.virtualClock;
+  // Times specs and extracts their results (see specReporting.js).
+  var reporting = jasmineMavenPlugin.reporting;
+
+  // Queues the result of each spec (and the duration of each suite) as it
+  // finishes, so jasmine:test can drain them in batches while the rest of the
+  // suite is still running. The queue holds nothing per spec once it has been
+  // drained.
+  var SpecResultQueue = function() {
+    this.results = [];
+    this.suites = [];
+    this.finished = false;
+    this.waiting = null;
+    this.runnerDuration = 0;
+    this.failureCount = 0;
+    this.stopped = false;
+  };
+
+  // Skips every spec that hasn't run yet.
+  SpecResultQueue.prototype.stop = function() {
+    this.stopped = true;
+  };
+
+  SpecResultQueue.prototype.shouldRun = function(spec) {
+    if (!this.stopped && config.maxFailures > 0 && this.failureCount >= config.maxFailures) {
+      this.stop();
+    }
+    return !this.stopped;
+  };
+
+  // Whether the spec's full name leaves it out of a focused run (see
+  // jasmine.specFilter). Filtered specs aren't reported at all.
+  SpecResultQueue.prototype.filters = function(spec) {
+    if (config.specFilter && spec.getFullName().indexOf(config.specFilter) === -1) {
+      reporting.state(spec).filtered = true;
+      return true;
+    }
+    return false;
+  };
+
+  SpecResultQueue.prototype.reportRunnerStarting = function(runner) {
+    this.runnerStartedAt = reporting.now();
+  };
+
+  SpecResultQueue.prototype.reportSpecStarting = function(spec) {
+    reporting.specStarting(spec);
+    if (config.specTimeoutMillis > 0) {
+      watch(spec, config.specTimeoutMillis);
+    }
+    var fail = spec.fail;
+    spec.fail = function(e) {
+      specFailed();
+      return fail.apply(this, arguments);
+    };
+    specStarted();
+  };
+
+  SpecResultQueue.prototype.reportSpecResults = function(spec) {
+    if (reporting.state(spec).filtered) {
+      return;
+    }
+    specFinished();
+    var result = reporting.result(spec);
+    var duration = reporting.finished(spec);
+    if (result === 'failed') {
+      this.failureCount++;
+    }
+    this.results.push({
+      id: spec.id,
+      name: spec.description,
+      suite: spec.suite.getFullName(),
+      result: result,
+      duration: duration,
+      messages: result === 'failed' ? reporting.summarizeMessages(spec.results().getItems()) : []
+    });
+    this.notify(false);
+  };
+
+  SpecResultQueue.prototype.reportSuiteResults = function(suite) {
+    this.suites.push({
+      id: suite.id,
+      name: suite.getFullName(),
+      duration: reporting.finished(suite)
+    });
+  };
+
+  SpecResultQueue.prototype.reportRunnerResults = function(runner) {
+    var self = this;
+    this.runnerDuration = this.runnerStartedAt === undefined ? 0 : reporting.now() - this.runnerStartedAt;
+    // Let the rest of the reporters (i.e. window.reporter) finish first.
+    realSetTimeout(function() {
+      self.finished = true;
+      self.notify(true);
+    }, 0);
+  };
+
+  SpecResultQueue.prototype.drain = function(max) {
+    return this.results.splice(0, max);
+  };
+
+  // Calls back with {finished, results} once max results are queued, the
+  // runner has finished, or wait millis passed since the first queued result.
+  SpecResultQueue.prototype.whenReady = function(max, wait, callback) {
+    this.waiting = {max: max, wait: wait, callback: callback, timer: null};
+    this.notify(false);
+  };
+
+  SpecResultQueue.prototype.notify = function(force) {
+    var waiting = this.waiting;
+    if (!waiting) {
+      return;
+    }
+    if (force || this.finished || this.results.length >= waiting.max) {
+      this.waiting = null;
+      if (waiting.timer !== null) {
+        realClearTimeout(waiting.timer);
+      }
+      waiting.callback({finished: this.finished, results: this.drain(waiting.max), suites: this.suites.splice(0, this.suites.length)});
+    } else if (this.results.length > 0 && waiting.timer === null) {
+      var self = this;
+      waiting.timer = realSetTimeout(function() {
+        waiting.timer = null;
+        self.notify(true);
+      }, waiting.wait);
+    }
+  };
+
+  // Returns the whole suite tree with every spec's result, so jasmine:test can
+  // read the final results in one call.
+  SpecResultQueue.prototype.extract = function() {
+    return {
+      stopped: this.stopped,
+      duration: this.runnerDuration,
+      suites: reporting.extractItems(jasmine.getEnv().currentRunner().topLevelSuites())
+    };
+  };
+
+  var realSetTimeout = function(fn, millis) {
+    if (virtualClock) {
+      return virtualClock.setTimeout(fn, millis);
+    }
+    return jasmine.Clock.real.setTimeout.apply(jasmine.getGlobal(), [fn, millis]);
+  };
+
+  var realClearTimeout = function(id) {
+    if (virtualClock) {
+      virtualClock.clearTimeout(id);
+    } else {
+      jasmine.Clock.real.clearTimeout.apply(jasmine.getGlobal(), [id]);
+    }
+  };
+
+  // jasmine:test counts the instructions Rhino runs between the first two
+  // calls against jasmine.specInstructionBudget, and stops aborting a spec once
+  // Jasmine has caught what it threw (see SpecInstructionBudget), so their
+  // names matter.
+  var specStarted = function jasmineMavenPluginSpecStarted() {};
+  var specFinished = function jasmineMavenPluginSpecFinished() {};
+  var specFailed = function jasmineMavenPluginSpecFailed() {};
+
+  // Fails the spec if it hasn't finished within millis (of real time, even on
+  // a virtual clock) and is waiting on an async block, and finishes it right
+  // away, skipping its remaining blocks. Must be called before the spec starts
+  // its queue.
+  var watch = function(spec, millis) {
+    var queue = spec.queue;
+    var start = queue.start;
+    queue.start = function(onComplete) {
+      var finished = false;
+      var timer = null;
+      var finish = function() {
+        if (!finished) {
+          finished = true;
+          realClearTimeout(timer);
+          onComplete();
+        }
+      };
+      var check = function() {
+        var block = queue.blocks[queue.index];
+        if (finished) {
+          return;
+        } else if (!(block instanceof jasmine.WaitsBlock || block instanceof jasmine.WaitsForBlock)) {
+          // HtmlUnit runs timers on a thread of their own, so the spec may well
+          // still be running; stopping that is up to specInstructionBudget.
+          timer = realSetTimeout(check, 100);
+          return;
+        }
+        spec.fail({
+          name: 'timeout',
+          message: 'timed out after ' + millis + ' msec (jasmine.specTimeout)'
+        });
+        block.execute = function() {};
+        queue.abort = true;
+        finish();
+      };
+      timer = realSetTimeout(check, millis);
+      start.call(queue, finish);
+    };
+  };
+
+  // Reports env's specs to a new queue, and lets that queue skip them (see
+  // SpecResultQueue#stop).
+  var install = function(env) {
+    var queue = jasmineMavenPlugin.specResults = new SpecResultQueue();
+    env.addReporter(queue);
+
+    var specFilter = env.specFilter;
+    env.specFilter = function(spec) {
+      return !queue.filters(spec) && queue.shouldRun(spec) && specFilter.apply(this, arguments);
+    };
+
+    // HtmlUnit runs timers on a thread of their own, so on a virtual clock the
+    // specs are started from one too; otherwise the clock could skip ahead
+    // while a spec started by the page's onload is still running.
+    if (virtualClock) {
+      var execute = env.execute;
+      env.execute = function() {
+        var self = this;
+        jasmine.getGlobal().setTimeout(function() {
+          execute.apply(self);
+        }, 0);
+      };
+    }
+  };
+
+  // Runs each block of a spec through the function jasmine:test defines when
+  // it budgets specs (see SpecInstructionBudget), so a spec can't catch its
+  // abort and keep running; Jasmine still gets to catch it.
+  var catchAbort = window.jasmineMavenPluginCatchAbort;
+  if (catchAbort) {
+    jasmine.Block.prototype.execute = function(onComplete) {
+      try {
+        catchAbort(this.func, this.spec);
+      } catch (e) {
+        this.spec.fail(e);
+      }
+      onComplete();
+    };
+  }
+
+  install(jasmine.getEnv());
+
+  // Starts a batch of specs on a page that has already run (a runner without
+  // any specs, with Jasmine, the preloads and the sources loaded): the batch
+  // gets a new Jasmine environment, queue and window.reporter, so nothing
+  // carries over from the batch before. jasmine:test then loads the batch's
+  // spec files, in a scope of their own, and executes the environment.
+  jasmineMavenPlugin.startBatch = function() {
+    var env = jasmine.currentEnv_ = new jasmine.Env();
+    install(env);
+    window.reporter = new jasmine.JsApiReporter();
+    env.addReporter(window.reporter);
+  };
+})();
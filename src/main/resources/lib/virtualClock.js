@@ -0,0 +1,143 @@
+(function() {
+  var global = this;
+  var jasmineMavenPlugin = global.jasmineMavenPlugin = global.jasmineMavenPlugin || {};
+
+  // Replaces setTimeout, setInterval and Date with a virtual clock, so specs
+  // that wait on timers don't have to wait in real time. Timers run one after
+  // the other in the order they're due (in the order they were set when due at
+  // the same time). When the next timer isn't due yet, the clock skips straight
+  // to it instead of waiting. Every SLICE_MILLIS of running timers, the clock
+  // gives whatever else the page has to do (e.g. real network callbacks) a
+  // chance to run.
+  //
+  // Loaded before jasmine.js, so Jasmine's waits, waitsFor and its own breaks
+  // between specs run on the same clock as the code under test.
+  //
+  // The real Date, setTimeout and clearTimeout are kept in
+  // jasmineMavenPlugin.virtualClock for the plugin's own use.
+  var SLICE_MILLIS = 50;
+  var RealDate = global.Date;
+  var realSetTimeout = global.setTimeout;
+  var realClearTimeout = global.clearTimeout;
+  var skipped = 0;
+  var timers = [];
+  var nextId = 1;
+  var ticking = false;
+
+  var realNow = function() {
+    return new RealDate().getTime();
+  };
+
+  var now = function() {
+    return realNow() + skipped;
+  };
+
+  var schedule = function(fn, millis, args, repeat) {
+    var code = fn;
+    if (typeof fn !== 'function') {
+      fn = function() {
+        global.eval(String(code));
+      };
+    }
+    var delay = Math.max(0, Number(millis) || 0);
+    var timer = {id: nextId++, fn: fn, args: args, delay: delay, due: now() + delay, repeat: repeat};
+    add(timer);
+    return timer.id;
+  };
+
+  // Keeps timers sorted by when they're due, ties in the order they were set.
+  var add = function(timer) {
+    var i = timers.length;
+    while (i > 0 && timers[i - 1].due > timer.due) {
+      i--;
+    }
+    timers.splice(i, 0, timer);
+    tickSoon();
+  };
+
+  var cancel = function(id) {
+    for (var i = 0; i < timers.length; i++) {
+      if (timers[i].id === id) {
+        timers.splice(i, 1);
+        return;
+      }
+    }
+  };
+
+  var tickSoon = function() {
+    if (!ticking && timers.length > 0) {
+      ticking = true;
+      realSetTimeout.apply(global, [tick, 0]);
+    }
+  };
+
+  var tick = function() {
+    var until = realNow() + SLICE_MILLIS;
+    try {
+      while (timers.length > 0 && realNow() < until) {
+        runNext();
+      }
+    } finally {
+      ticking = false;
+      tickSoon();
+    }
+  };
+
+  var runNext = function() {
+    var timer = timers.shift();
+    var behind = timer.due - now();
+    if (behind > 0) {
+      skipped += behind;
+    }
+    if (timer.repeat) {
+      timer.due += Math.max(timer.delay, 1);
+      add(timer);
+    }
+    timer.fn.apply(global, timer.args);
+  };
+
+  var slice = Array.prototype.slice;
+
+  global.setTimeout = function(fn, millis) {
+    return schedule(fn, millis, slice.call(arguments, 2), false);
+  };
+
+  global.setInterval = function(fn, millis) {
+    return schedule(fn, millis, slice.call(arguments, 2), true);
+  };
+
+  global.clearTimeout = global.clearInterval = function(id) {
+    cancel(id);
+  };
+
+  var VirtualDate = function(year, month, day, hours, minutes, seconds, millis) {
+    if (!(this instanceof VirtualDate)) {
+      return new RealDate(now()).toString();
+    }
+    switch (arguments.length) {
+      case 0: return new RealDate(now());
+      case 1: return new RealDate(year);
+      case 2: return new RealDate(year, month);
+      case 3: return new RealDate(year, month, day);
+      case 4: return new RealDate(year, month, day, hours);
+      case 5: return new RealDate(year, month, day, hours, minutes);
+      case 6: return new RealDate(year, month, day, hours, minutes, seconds);
+      default: return new RealDate(year, month, day, hours, minutes, seconds, millis);
+    }
+  };
+  VirtualDate.prototype = RealDate.prototype;
+  VirtualDate.parse = RealDate.parse;
+  VirtualDate.UTC = RealDate.UTC;
+  VirtualDate.now = now;
+  global.Date = VirtualDate;
+
+  jasmineMavenPlugin.virtualClock = {
+    RealDate: RealDate,
+    setTimeout: function(fn, millis) {
+      return realSetTimeout.apply(global, [fn, millis]);
+    },
+    clearTimeout: function(id) {
+      realClearTimeout.apply(global, [id]);
+    }
+  };
+})();
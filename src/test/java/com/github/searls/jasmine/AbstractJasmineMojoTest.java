@@ -7,6 +7,7 @@ import static org.mockito.Mockito.*;
 
 import java.io.File;
 import java.util.HashMap;
+import java.util.concurrent.Callable;
 
 import org.apache.maven.plugin.MojoFailureException;
 import org.codehaus.plexus.util.ReflectionUtils;
@@ -86,9 +87,46 @@ public class AbstractJasmineMojoTest {
   public void systemProperties() throws Exception {
     HashMap<String, String> systemProperties = new HashMap<String, String>();
     systemProperties.put("testProperty", "foo");
+    ReflectionUtils.setVariableValueInObject(subject, "systemProperties",
+        systemProperties);
+    String property = subject.withSystemProperties(new Callable<String>() {
+      public String call() {
+        return System.getProperty("testProperty");
+      }
+    });
+    assertThat(property, is("foo"));
+  }
+
+  @Test
+  public void executeLeavesSystemPropertiesAlone() throws Exception {
+    HashMap<String, String> systemProperties = new HashMap<String, String>();
+    systemProperties.put("untouchedTestProperty", "foo");
     ReflectionUtils.setVariableValueInObject(subject, "systemProperties",
         systemProperties);
     subject.execute();
-    assertThat(System.getProperty("testProperty"), is("foo"));
+    assertThat(System.getProperty("untouchedTestProperty"), is(nullValue()));
+  }
+
+  @Test
+  public void systemPropertiesGetTheirPreviousValuesBack() throws Exception {
+    HashMap<String, String> systemProperties = new HashMap<String, String>();
+    systemProperties.put("restoredTestProperty", "foo");
+    systemProperties.put("clearedTestProperty", "bar");
+    ReflectionUtils.setVariableValueInObject(subject, "systemProperties",
+        systemProperties);
+    System.setProperty("restoredTestProperty", "previous");
+    try {
+      subject.withSystemProperties(new Callable<String>() {
+        public String call() {
+          throw new IllegalStateException("no driver");
+        }
+      });
+      fail();
+    } catch (IllegalStateException e) {
+      assertThat(System.getProperty("restoredTestProperty"), is("previous"));
+      assertThat(System.getProperty("clearedTestProperty"), is(nullValue()));
+    } finally {
+      System.clearProperty("restoredTestProperty");
+    }
   }
 }
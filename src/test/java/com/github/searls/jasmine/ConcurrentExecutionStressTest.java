@@ -0,0 +1,191 @@
+package com.github.searls.jasmine;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.codehaus.plexus.util.ReflectionUtils;
+import org.junit.Test;
+import org.openqa.selenium.WebDriver;
+
+import com.gargoylesoftware.htmlunit.BrowserVersion;
+import com.github.searls.jasmine.coffee.CoffeeScript;
+import com.github.searls.jasmine.io.CreatesTempDirectories;
+import com.github.searls.jasmine.io.ScansDirectory;
+import com.github.searls.jasmine.model.JasmineResult;
+import com.github.searls.jasmine.runner.JasmineHtmlUnitDriver;
+import com.github.searls.jasmine.runner.SpecRunnerExecutor;
+import com.github.searls.jasmine.runner.WebDriverPool;
+
+/** Hammers what concurrent executions (e.g. of a reactor build with -T) share within
+ * one JVM, from several threads at once.
+ */
+public class ConcurrentExecutionStressTest {
+
+  private static final int THREADS = 4;
+
+  private final Log log = new SystemStreamLog() {
+    @Override
+    public void info(CharSequence content) {}
+  };
+
+  @Test
+  public void runsSpecRunnersConcurrentlyOnPooledDrivers() throws Exception {
+    final URL runner = getClass().getResource("/example_nested_specrunner.html");
+    final WebDriverPool pool = new WebDriverPool(THREADS);
+    final WebDriverPool.Factory factory = new WebDriverPool.Factory() {
+      public WebDriver create() {
+        return new JasmineHtmlUnitDriver(BrowserVersion.INTERNET_EXPLORER_8, false);
+      }
+    };
+    try {
+      List<String> descriptions = runConcurrently(new Task<String>() {
+        public String run(int thread) throws Exception {
+          StringBuilder descriptions = new StringBuilder();
+          for (int i = 0; i < 3; i++) {
+            WebDriver driver = pool.acquire("stress", factory);
+            JasmineResult result = new SpecRunnerExecutor().execute(runner, driver, 300, false, log, null);
+            pool.release("stress", driver);
+            descriptions.append(result.getDescription()).append(';');
+          }
+          return descriptions.toString();
+        }
+      });
+
+      for (String description : descriptions) {
+        assertThat(description, is("Results: 5 specs, 4 failures;Results: 5 specs, 4 failures;Results: 5 specs, 4 failures;"));
+      }
+    } finally {
+      pool.quitAll();
+    }
+  }
+
+  @Test
+  public void compilesCoffeeScriptConcurrently() throws Exception {
+    final CoffeeScript shared = new CoffeeScript();
+
+    List<String> compiled = runConcurrently(new Task<String>() {
+      public String run(int thread) throws Exception {
+        StringBuilder compiled = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+          compiled.append(shared.compile("thread" + thread + "Value" + i + " = " + i)).append(new CoffeeScript().compile("shared = 42"));
+        }
+        return compiled.toString();
+      }
+    });
+
+    for (int thread = 0; thread < THREADS; thread++) {
+      for (int i = 0; i < 10; i++) {
+        assertThat(compiled.get(thread), containsString("thread" + thread + "Value" + i + " = " + i + ";"));
+      }
+      assertThat(compiled.get(thread), containsString("shared = 42;"));
+    }
+  }
+
+  @Test
+  public void scansDirectoriesConcurrently() throws Exception {
+    final ScansDirectory shared = new ScansDirectory();
+    final List<File> directories = new ArrayList<File>();
+    for (int thread = 0; thread < THREADS; thread++) {
+      File directory = new CreatesTempDirectories().create("stress" + thread);
+      FileUtils.writeStringToFile(new File(directory, "spec" + thread + ".js"), "");
+      directories.add(directory);
+    }
+
+    List<String> scanned = runConcurrently(new Task<String>() {
+      public String run(int thread) throws Exception {
+        List<String> files = new ArrayList<String>();
+        for (int i = 0; i < 50; i++) {
+          files.addAll(shared.scan(directories.get(thread), ScansDirectory.DEFAULT_INCLUDES, Collections.<String>emptyList()));
+        }
+        return new TreeSet<String>(files).toString();
+      }
+    });
+
+    for (int thread = 0; thread < THREADS; thread++) {
+      assertThat(scanned.get(thread), is("[spec" + thread + ".js]"));
+    }
+  }
+
+  @Test
+  public void registersEachExecutionsSystemPropertiesForItsOwnDriversOnly() throws Exception {
+    final List<AbstractJasmineMojo> mojos = new ArrayList<AbstractJasmineMojo>();
+    for (int thread = 0; thread < THREADS; thread++) {
+      AbstractJasmineMojo mojo = new AbstractJasmineMojo() {
+        @Override
+        public void run() throws Exception {}
+      };
+      Map<String, String> systemProperties = new HashMap<String, String>();
+      systemProperties.put("jasmine.stressTest", "execution" + thread);
+      ReflectionUtils.setVariableValueInObject(mojo, "systemProperties", systemProperties);
+      mojos.add(mojo);
+    }
+
+    List<String> seen = runConcurrently(new Task<String>() {
+      public String run(final int thread) throws Exception {
+        StringBuilder seen = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+          seen.append(mojos.get(thread).withSystemProperties(new Callable<String>() {
+            public String call() throws Exception {
+              Thread.yield();
+              return System.getProperty("jasmine.stressTest");
+            }
+          })).append(',');
+        }
+        return seen.toString();
+      }
+    });
+
+    for (int thread = 0; thread < THREADS; thread++) {
+      assertThat(seen.get(thread).replace("execution" + thread + ",", ""), is(""));
+    }
+  }
+
+  private interface Task<T> {
+    T run(int thread) throws Exception;
+  }
+
+  /** Runs the task on THREADS threads, released all at once, and returns what each returned. */
+  private <T> List<T> runConcurrently(final Task<T> task) throws Exception {
+    final CountDownLatch start = new CountDownLatch(1);
+    ExecutorService threads = Executors.newFixedThreadPool(THREADS);
+    try {
+      List<Future<T>> futures = new ArrayList<Future<T>>();
+      for (int thread = 0; thread < THREADS; thread++) {
+        final int index = thread;
+        futures.add(threads.submit(new Callable<T>() {
+          public T call() throws Exception {
+            start.await();
+            return task.run(index);
+          }
+        }));
+      }
+      start.countDown();
+      List<T> results = new ArrayList<T>();
+      for (Future<T> future : futures) {
+        results.add(future.get());
+      }
+      return results;
+    } finally {
+      threads.shutdownNow();
+    }
+  }
+
+}
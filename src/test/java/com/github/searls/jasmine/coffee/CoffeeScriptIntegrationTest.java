@@ -9,6 +9,8 @@ import java.util.Collections;
 import java.util.Map;
 
 import org.apache.commons.lang.StringEscapeUtils;
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Test;
 
 public class CoffeeScriptIntegrationTest {
@@ -32,6 +34,18 @@ public class CoffeeScriptIntegrationTest {
 
   private CoffeeScript subject = new CoffeeScript();
 
+  private Object realCache;
+
+  @Before
+  public void rememberTheCache() throws Exception {
+    realCache = cacheField().get(subject);
+  }
+
+  @After
+  public void restoreTheCache() throws Exception {
+    cacheField().set(subject, realCache);
+  }
+
   @Test
   public void itCompiles() throws IOException {
     String result = subject.compile(COFFEE);
@@ -51,9 +65,13 @@ public class CoffeeScriptIntegrationTest {
   }
 
   private void injectFakeCache(Map<String,String> cacheMap) throws Exception {
+    cacheField().set(subject, cacheMap);
+  }
+
+  private Field cacheField() throws Exception {
     Field cache = subject.getClass().getDeclaredField("cache");
     cache.setAccessible(true);
-    cache.set(subject, cacheMap);
+    return cache;
   }
 
 }
@@ -0,0 +1,77 @@
+package com.github.searls.jasmine.daemon;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.plugin.logging.Log;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.github.searls.jasmine.io.CreatesTempDirectories;
+import com.github.searls.jasmine.runner.RemoteSpecRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ConnectsToDaemonTest {
+
+  private static final long IDLE_MILLIS = 2000;
+
+  private File directory = new CreatesTempDirectories().create("daemons");
+
+  @Mock private Log log;
+
+  @Test
+  public void startsTheDaemonOnceAndConnectsToItAfterwards() throws Exception {
+    ConnectsToDaemon subject = new ConnectsToDaemon("-Xmx128m", getClass().getClassLoader(), IDLE_MILLIS, directory);
+
+    RemoteSpecRunner first = subject.connect(log);
+    String portAndToken = FileUtils.readFileToString(subject.getPortFile());
+    first.close();
+    RemoteSpecRunner second = subject.connect(log);
+    second.close();
+
+    assertThat(FileUtils.readFileToString(subject.getPortFile()), is(portAndToken));
+    assertThat(new ConnectsToDaemon("-Xmx128m", getClass().getClassLoader(), IDLE_MILLIS, directory).getVersion(), is(subject.getVersion()));
+  }
+
+  @Test
+  public void startsAnotherDaemonForOtherJvmArguments() {
+    ConnectsToDaemon subject = new ConnectsToDaemon("-Xmx128m", getClass().getClassLoader(), IDLE_MILLIS, directory);
+
+    assertThat(new ConnectsToDaemon("-Xmx256m", getClass().getClassLoader(), IDLE_MILLIS, directory).getVersion(), is(not(subject.getVersion())));
+  }
+
+  @Test
+  public void startsAnotherDaemonWhenTheOneInThePortFileIsGone() throws Exception {
+    ConnectsToDaemon subject = new ConnectsToDaemon("-Xmx128m", getClass().getClassLoader(), IDLE_MILLIS, directory);
+    FileUtils.writeStringToFile(subject.getPortFile(), "1 stale");
+
+    RemoteSpecRunner remote = subject.connect(log);
+    try {
+      assertThat(remote.compileCoffee("x = 1"), containsString("x = 1;"));
+    } finally {
+      remote.close();
+    }
+    assertThat(FileUtils.readFileToString(subject.getPortFile()), not(containsString("stale")));
+  }
+
+  @Test
+  public void keepsWhatTheDaemonsJvmPrintsItselfInItsLog() throws Exception {
+    ConnectsToDaemon subject = new ConnectsToDaemon("-Xmx128m -verbose:class", getClass().getClassLoader(), IDLE_MILLIS, directory);
+
+    RemoteSpecRunner remote = subject.connect(log);
+    try {
+      assertThat(remote.compileCoffee("x = 1"), containsString("x = 1;"));
+    } finally {
+      remote.close();
+    }
+    assertThat(FileUtils.readFileToString(new File(subject.getPortFile().getPath() + ".log")), containsString("java.lang.Object"));
+  }
+
+}
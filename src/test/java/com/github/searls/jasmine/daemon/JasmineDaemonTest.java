@@ -0,0 +1,96 @@
+package com.github.searls.jasmine.daemon;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.net.URL;
+import java.util.Collections;
+
+import org.apache.maven.plugin.logging.Log;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.github.searls.jasmine.io.CreatesTempDirectories;
+import com.github.searls.jasmine.model.JasmineResult;
+import com.github.searls.jasmine.runner.HtmlUnitEngine;
+import com.github.searls.jasmine.runner.RemoteSpecRunner;
+import com.github.searls.jasmine.runner.SpecResultListener;
+import com.github.searls.jasmine.runner.SpecRun;
+
+@RunWith(MockitoJUnitRunner.class)
+public class JasmineDaemonTest {
+
+  private static final long IDLE_MILLIS = 1000;
+
+  private URL resource = getClass().getResource("/example_nested_specrunner.html");
+
+  private ConnectsToDaemon connectsToDaemon;
+  private Thread daemon;
+
+  @Mock private Log log;
+
+  @Before
+  public void startDaemon() throws Exception {
+    connectsToDaemon = new ConnectsToDaemon(null, getClass().getClassLoader(), IDLE_MILLIS, new CreatesTempDirectories().create("daemon"));
+    final JasmineDaemon subject = new JasmineDaemon(connectsToDaemon.getPortFile(), IDLE_MILLIS, connectsToDaemon.getVersion());
+    daemon = new Thread() {
+      @Override
+      public void run() {
+        try {
+          subject.serve();
+        } catch (Exception e) {
+          throw new RuntimeException(e);
+        }
+      }
+    };
+    daemon.start();
+    while (!connectsToDaemon.getPortFile().exists()) {
+      Thread.sleep(10);
+    }
+  }
+
+  @After
+  public void awaitIdleExit() throws InterruptedException {
+    daemon.join();
+  }
+
+  @Test
+  public void runsSpecsForEachConnection() throws Exception {
+    for (int i = 0; i < 2; i++) {
+      RemoteSpecRunner remote = connectsToDaemon.connect(log);
+      try {
+        JasmineResult result = remote.execute(new SpecRun(resource, Collections.<URL>emptyList(), HtmlUnitEngine.NAME, "INTERNET_EXPLORER_8", null, 300, false, null, 0, 0, 0, null, false, true, false), Collections.<SpecResultListener>emptyList(), log);
+
+        assertThat(result.getDescription(), is("Results: 5 specs, 4 failures"));
+      } finally {
+        remote.close();
+      }
+    }
+  }
+
+  @Test
+  public void compilesCoffeeScript() throws Exception {
+    DaemonCoffeeScript coffeeScript = new DaemonCoffeeScript(connectsToDaemon, log);
+    try {
+      assertThat(coffeeScript.compile("square = (x) -> x * x"), containsString("return x * x;"));
+    } finally {
+      coffeeScript.close();
+    }
+  }
+
+  @Test
+  public void exitsOnceIdleRemovingItsPortFile() throws Exception {
+    File portFile = connectsToDaemon.getPortFile();
+
+    daemon.join();
+
+    assertThat(portFile.exists(), is(false));
+  }
+
+}
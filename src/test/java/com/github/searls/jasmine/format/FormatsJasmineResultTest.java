@@ -0,0 +1,116 @@
+package com.github.searls.jasmine.format;
+
+import static java.util.Arrays.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import com.github.searls.jasmine.model.JasmineItem;
+import com.github.searls.jasmine.model.JasmineResult;
+import com.github.searls.jasmine.model.JasmineSpec;
+import com.github.searls.jasmine.model.JasmineSpec.Status;
+import com.github.searls.jasmine.model.JasmineSuite;
+import com.github.searls.jasmine.model.SpecMessage;
+
+public class FormatsJasmineResultTest {
+
+  private FormatsJasmineResult subject = new FormatsJasmineResult();
+
+  @Test
+  public void formatsNestedDocumentation() {
+    JasmineResult result = result(1, 0, suite("A", suite("B", spec("passes", Status.PASSED))));
+
+    assertThat(subject.format(result, "documentation"), is("\nA\n  B\n    passes\n\nResults: 1 specs, 0 failures\n"));
+  }
+
+  @Test
+  public void separatesTopLevelSuitesWithABlankLine() {
+    JasmineResult result = result(2, 0, suite("A", spec("a", Status.PASSED)), suite("B", spec("b", Status.PASSED)));
+
+    assertThat(subject.format(result, null), startsWith("\nA\n  a\n\nB\n  b\n"));
+  }
+
+  @Test
+  public void describesFailures() {
+    JasmineSpec failed = new JasmineSpec(1, "fails", Status.FAILED, 0, asList(new SpecMessage("expect", "Expected true to be false.", "toBe")));
+    JasmineResult result = result(1, 1, suite("A", failed));
+
+    assertThat(subject.format(result, "documentation"), is(
+        "\nA\n  fails <<< FAILURE!\n    * Expected true to be false." +
+        "\n\n1 failure:" +
+        "\n\n  1.) A it fails <<< FAILURE!\n    * Expected true to be false." +
+        "\n\nResults: 1 specs, 1 failures\n"));
+  }
+
+  @Test
+  public void describesMissingResults() {
+    JasmineResult result = result(1, 1, suite("A", spec("never ran", Status.MISSING)));
+
+    assertThat(subject.format(result, "documentation"), containsString("never ran <<< FAILURE! (Result is missing! Perhaps this spec did not execute?)"));
+  }
+
+  @Test
+  public void leavesOutSkippedSpecsAndTheirSuites() {
+    JasmineResult result = result(1, 0, suite("A", spec("a", Status.PASSED)), suite("B", spec("skipped", Status.SKIPPED)));
+
+    assertThat(subject.format(result, "documentation"), is("\nA\n  a\n\nResults: 1 specs, 0 failures\n"));
+  }
+
+  @Test
+  public void formatsProgress() {
+    JasmineResult result = result(3, 1, suite("A", spec("a", Status.PASSED), spec("b", Status.MISSING), spec("c", Status.SKIPPED), spec("d", Status.PASSED)));
+
+    assertThat(subject.format(result, FormatsJasmineResult.PROGRESS_FORMAT), startsWith("\n.F.\n\n1 failure:"));
+  }
+
+  @Test
+  public void wrapsLongProgressRows() {
+    JasmineItem[] specs = new JasmineItem[100];
+    for (int i = 0; i < specs.length; i++) {
+      specs[i] = spec("spec " + i, Status.PASSED);
+    }
+    JasmineResult result = result(100, 0, suite("A", specs));
+
+    String progress = subject.format(result, FormatsJasmineResult.PROGRESS_FORMAT);
+
+    assertThat(progress, startsWith("\n" + repeat('.', 80) + "\n" + repeat('.', 20) + "\n"));
+  }
+
+  @Test
+  public void mentionsThatTheRunStopped() {
+    JasmineResult result = result(1, 1, suite("A", spec("fails", Status.FAILED), spec("skipped", Status.SKIPPED)));
+    result.setSkippedCount(1);
+    result.setStopped(true);
+
+    assertThat(subject.format(result, "documentation"), containsString("\n\nStopped after 1 failures; skipped the remaining 1 specs.\n\nResults: 1 specs, 1 failures\n"));
+  }
+
+  private JasmineResult result(int specs, int failures, JasmineSuite... suites) {
+    JasmineResult result = new JasmineResult();
+    result.setSuites(asList(suites));
+    result.setSpecCount(specs);
+    result.setFailureCount(failures);
+    return result;
+  }
+
+  private JasmineSuite suite(String name, JasmineItem... children) {
+    return new JasmineSuite(name, 0, new ArrayList<JasmineItem>(asList(children)));
+  }
+
+  private JasmineSpec spec(String name, Status status) {
+    return new JasmineSpec(1, name, status, 0, Collections.<SpecMessage>emptyList());
+  }
+
+  private String repeat(char c, int times) {
+    StringBuilder repeated = new StringBuilder();
+    for (int i = 0; i < times; i++) {
+      repeated.append(c);
+    }
+    return repeated.toString();
+  }
+
+}
@@ -0,0 +1,32 @@
+package com.github.searls.jasmine.format;
+
+import static java.util.Arrays.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Collections;
+
+import org.apache.maven.plugin.logging.Log;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.github.searls.jasmine.model.Timing;
+
+
+@RunWith(MockitoJUnitRunner.class)
+public class SlowestSpecsLoggerTest {
+
+  @InjectMocks private SlowestSpecsLogger subject = new SlowestSpecsLogger();
+
+  @Mock private Log log;
+
+  @Test
+  public void shouldLogATableOfSpecsAndSuites() {
+    subject.log(asList(new Timing("A slow spec", 1500)), Collections.<Timing>emptyList());
+
+    verify(log).info("\nSlowest 1 specs:\n     1.500s  A slow spec\n\nSlowest 0 suites:");
+  }
+
+}
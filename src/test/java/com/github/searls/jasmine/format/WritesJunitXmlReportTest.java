@@ -0,0 +1,97 @@
+package com.github.searls.jasmine.format;
+
+import static java.util.Arrays.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.github.searls.jasmine.model.JasmineItem;
+import com.github.searls.jasmine.model.JasmineResult;
+import com.github.searls.jasmine.model.JasmineSpec;
+import com.github.searls.jasmine.model.JasmineSpec.Status;
+import com.github.searls.jasmine.model.JasmineSuite;
+import com.github.searls.jasmine.model.SpecMessage;
+
+public class WritesJunitXmlReportTest {
+
+  private WritesJunitXmlReport subject = new WritesJunitXmlReport();
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @Test
+  public void writesATestcasePerSpec() throws Exception {
+    String xml = write(result(suite("A", suite("B", new JasmineSpec(1, "passes", Status.PASSED, 1250, Collections.<SpecMessage>emptyList())))));
+
+    assertThat(xml, startsWith("<?xml version=\"1.0\" encoding=\"UTF-8\"?>"));
+    assertThat(xml, containsString("<testsuite errors=\"0\" name=\"jasmine.specs\" tests=\"1\" failures=\"0\" skipped=\"0\" hostname=\"localhost\" time=\"2.000\""));
+    assertThat(xml, containsString("<testcase classname=\"jasmine\" name=\"A B passes\" time=\"1.250\" failure=\"false\"></testcase>"));
+  }
+
+  @Test
+  public void namesTestcasesAfterTheGivenClassname() throws Exception {
+    subject = new WritesJunitXmlReport("jasmine.FIREFOX_3_6");
+
+    String xml = write(result(suite("A", new JasmineSpec(1, "passes", Status.PASSED, 0, Collections.<SpecMessage>emptyList()))));
+
+    assertThat(xml, containsString("<testsuite errors=\"0\" name=\"jasmine.FIREFOX_3_6.specs\""));
+    assertThat(xml, containsString("<testcase classname=\"jasmine.FIREFOX_3_6\" name=\"A passes\""));
+  }
+
+  @Test
+  public void writesAnErrorForFailedSpecs() throws Exception {
+    String xml = write(result(suite("A", new JasmineSpec(1, "fails", Status.FAILED, 0, asList(new SpecMessage("expect", "Expected 1 to be <2>.", "toBe"))))));
+
+    assertThat(xml, containsString("failure=\"true\"><error type=\"expect.toBe\" message=\"Expected 1 to be &lt;2&gt;.\">Expected 1 to be &lt;2&gt;.</error>"));
+  }
+
+  @Test
+  public void marksSkippedSpecs() throws Exception {
+    String xml = write(result(suite("A", new JasmineSpec(1, "skipped", Status.SKIPPED, 0, Collections.<SpecMessage>emptyList()))));
+
+    assertThat(xml, containsString("failure=\"false\"><skipped/></testcase>"));
+  }
+
+  @Test
+  public void writesAReportPerTopLevelSuite() throws Exception {
+    JasmineResult result = new JasmineResult();
+    result.setSuites(asList(
+        suite("Hello World", new JasmineSpec(1, "passes", Status.PASSED, 0, Collections.<SpecMessage>emptyList())),
+        suite("Hello World", new JasmineSpec(2, "fails", Status.FAILED, 0, Collections.<SpecMessage>emptyList()))));
+
+    List<File> reports = subject.writeSuites(result, new File(tempFolder.getRoot(), "TEST-jasmine.xml"));
+
+    assertThat(reports.get(0).getName(), is("TEST-jasmine.Hello_World.xml"));
+    assertThat(reports.get(1).getName(), is("TEST-jasmine.Hello_World-2.xml"));
+    String second = FileUtils.readFileToString(reports.get(1), "UTF-8");
+    assertThat(second, containsString("name=\"Hello World\" tests=\"1\" failures=\"1\""));
+    assertThat(second, containsString("name=\"Hello World fails\""));
+    assertThat(second, not(containsString("passes")));
+  }
+
+  private String write(JasmineResult result) throws Exception {
+    File report = new File(tempFolder.getRoot(), "TEST-jasmine.xml");
+    subject.write(result, report);
+    return FileUtils.readFileToString(report, "UTF-8");
+  }
+
+  private JasmineResult result(JasmineSuite suite) {
+    JasmineResult result = new JasmineResult();
+    result.setSuites(asList(suite));
+    result.setSpecCount(1);
+    result.setDuration(2000);
+    return result;
+  }
+
+  private JasmineSuite suite(String name, JasmineItem... children) {
+    return new JasmineSuite(name, 0, asList(children));
+  }
+
+}
@@ -0,0 +1,34 @@
+package com.github.searls.jasmine.io;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class HashesContentTest {
+
+  private HashesContent subject = new HashesContent();
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @Test
+  public void hashesStrings() {
+    assertThat(subject.hash("panda"), is(subject.hash("panda")));
+    assertThat(subject.hash("panda"), is(not(subject.hash("pandas"))));
+    assertThat(subject.hash("").length(), is(40));
+  }
+
+  @Test
+  public void hashesFilesTheSameAsTheirContent() throws Exception {
+    File file = tempFolder.newFile("panda.js");
+    FileUtils.writeStringToFile(file, "var panda = true;", "UTF-8");
+
+    assertThat(subject.hash(file), is(subject.hash("var panda = true;")));
+  }
+
+}
@@ -0,0 +1,33 @@
+package com.github.searls.jasmine.io.scripts;
+
+import static java.util.Arrays.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class ParsesAmdDependenciesTest {
+
+  private ParsesAmdDependencies subject = new ParsesAmdDependencies();
+
+  @Test
+  public void findsTheDependenciesOfADefine() {
+    assertThat(subject.parse("define(['lib/dep', \"foo\"], function(dep, foo) {});"), is(asList("lib/dep", "foo")));
+  }
+
+  @Test
+  public void findsTheDependenciesOfANamedDefine() {
+    assertThat(subject.parse("define('named', ['a'], function(a) {});"), is(asList("a")));
+  }
+
+  @Test
+  public void findsTheDependenciesOfEveryRequire() {
+    assertThat(subject.parse("require(['a'], function(a) {\n  require([ 'b',\n 'text!c.html' ], function() {});\n});"), is(asList("a", "b", "text!c.html")));
+  }
+
+  @Test
+  public void ignoresSpecialDependenciesAndDefinesWithoutDependencies() {
+    assertThat(subject.parse("define(['require', 'exports', 'module'], function() {}); define(function() { return {}; });").isEmpty(), is(true));
+  }
+
+}
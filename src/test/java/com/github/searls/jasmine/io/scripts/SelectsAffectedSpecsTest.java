@@ -0,0 +1,117 @@
+package com.github.searls.jasmine.io.scripts;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SelectsAffectedSpecsTest {
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private File src;
+  private File spec;
+  private ScriptResolver resolver = mock(ScriptResolver.class);
+  private SelectsAffectedSpecs subject;
+
+  @Before
+  public void createProject() throws IOException {
+    src = tempFolder.newFolder("src");
+    spec = tempFolder.newFolder("spec");
+    write(src, "lib/dep.js", "define(function() { return {}; });");
+    write(src, "greeter.js", "define(['lib/dep'], function(dep) { return {}; });");
+    write(src, "foo.js", "define(['./lib/other'], function() { return {}; });");
+    write(src, "lib/other.js", "define(function() { return {}; });");
+    write(spec, "greeterSpec.js", "require(['greeter'], function(greeter) {});");
+    write(spec, "fooSpec.js", "require(['foo', 'text!templates/foo.html'], function(foo) {});");
+    write(src, "templates/foo.html", "<p>foo</p>");
+
+    when(resolver.getSourceDirectory()).thenReturn(src.toURI().toURL().toString());
+    when(resolver.getPreloads()).thenReturn(Collections.<String>emptySet());
+    when(resolver.getSpecs()).thenReturn(scripts(new File(spec, "greeterSpec.js"), new File(spec, "fooSpec.js")));
+    when(resolver.getAllScripts()).thenReturn(scripts(
+        new File(src, "lib/dep.js"), new File(src, "greeter.js"), new File(src, "foo.js"), new File(src, "lib/other.js"),
+        new File(spec, "greeterSpec.js"), new File(spec, "fooSpec.js")));
+    subject = new SelectsAffectedSpecs(new File(tempFolder.getRoot(), SelectsAffectedSpecs.SNAPSHOT_FILE_NAME), "UTF-8");
+  }
+
+  @Test
+  public void selectsEverySpecWithoutASnapshot() throws Exception {
+    assertThat(subject.select(resolver, false).size(), is(2));
+  }
+
+  @Test
+  public void selectsNothingWhenNothingChanged() throws Exception {
+    saveSnapshot();
+
+    assertThat(subject.select(resolver, false).isEmpty(), is(true));
+  }
+
+  @Test
+  public void selectsSpecsThatTransitivelyDependOnAChangedModule() throws Exception {
+    saveSnapshot();
+    write(src, "lib/dep.js", "define(function() { return {changed: true}; });");
+
+    assertThat(subject.select(resolver, false), is(scripts(new File(spec, "greeterSpec.js"))));
+  }
+
+  @Test
+  public void resolvesRelativeModuleIdsAgainstTheRequiringScript() throws Exception {
+    saveSnapshot();
+    write(src, "lib/other.js", "define(function() { return {changed: true}; });");
+
+    assertThat(subject.select(resolver, false), is(scripts(new File(spec, "fooSpec.js"))));
+  }
+
+  @Test
+  public void selectsSpecsThatDependOnAChangedPluginResource() throws Exception {
+    saveSnapshot();
+    write(src, "templates/foo.html", "<p>changed</p>");
+
+    assertThat(subject.select(resolver, false), is(scripts(new File(spec, "fooSpec.js"))));
+  }
+
+  @Test
+  public void selectsAChangedSpec() throws Exception {
+    saveSnapshot();
+    write(spec, "greeterSpec.js", "require(['greeter'], function(greeter) { /* changed */ });");
+
+    assertThat(subject.select(resolver, false), is(scripts(new File(spec, "greeterSpec.js"))));
+  }
+
+  @Test
+  public void selectsEverySpecWhenForced() throws Exception {
+    saveSnapshot();
+
+    assertThat(subject.select(resolver, true).size(), is(2));
+  }
+
+  private void saveSnapshot() throws IOException {
+    subject.select(resolver, false);
+    subject.saveSnapshot();
+  }
+
+  private Set<String> scripts(File... files) throws IOException {
+    Set<String> scripts = new LinkedHashSet<String>();
+    for (File file : files) {
+      scripts.add(file.toURI().toURL().toString());
+    }
+    return scripts;
+  }
+
+  private void write(File dir, String name, String content) throws IOException {
+    FileUtils.writeStringToFile(new File(dir, name), content, "UTF-8");
+  }
+
+}
@@ -0,0 +1,48 @@
+package com.github.searls.jasmine.io.scripts;
+
+import static java.util.Arrays.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class SelectsSpecFilesTest {
+
+  private static final String SPEC_DIRECTORY = "file:/project/spec/";
+
+  private Set<String> specs = new LinkedHashSet<String>(asList(
+    SPEC_DIRECTORY + "PlayerSpec.js",
+    SPEC_DIRECTORY + "player/SongSpec.coffee",
+    SPEC_DIRECTORY + "player/PlaylistSpec.js",
+    SPEC_DIRECTORY + "util/FormatSpec.js"));
+
+  @Test
+  public void matchesAFileNameWithoutExtensionInAnyDirectory() {
+    assertThat(select("SongSpec"), is(asList(SPEC_DIRECTORY + "player/SongSpec.coffee")));
+  }
+
+  @Test
+  public void matchesPathPatterns() {
+    assertThat(select("player/**"), is(asList(SPEC_DIRECTORY + "player/SongSpec.coffee", SPEC_DIRECTORY + "player/PlaylistSpec.js")));
+  }
+
+  @Test
+  public void matchesAnyOfSeveralPatternsInTheSpecsOrder() {
+    assertThat(select("FormatSpec.js, Play*"), is(asList(SPEC_DIRECTORY + "PlayerSpec.js", SPEC_DIRECTORY + "player/PlaylistSpec.js", SPEC_DIRECTORY + "util/FormatSpec.js")));
+  }
+
+  @Test
+  public void matchesNothingForAPatternNoFileMatches() {
+    assertThat(select("NoSuchSpec").isEmpty(), is(true));
+  }
+
+  private List<String> select(String patterns) {
+    return new ArrayList<String>(new SelectsSpecFiles(patterns).select(specs, SPEC_DIRECTORY));
+  }
+
+}
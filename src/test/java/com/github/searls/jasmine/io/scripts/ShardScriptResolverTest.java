@@ -0,0 +1,71 @@
+package com.github.searls.jasmine.io.scripts;
+
+import static java.util.Arrays.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ShardScriptResolverTest {
+
+  @Mock private ScriptResolver delegate;
+
+  private ShardScriptResolver subject;
+
+  @Before
+  public void stubDelegate() throws IOException {
+    when(delegate.getPreloads()).thenReturn(set("file:/z.js"));
+    when(delegate.getSources()).thenReturn(set("file:/a.js"));
+    when(delegate.getSpecs()).thenReturn(set("file:/spec/ASpec.js", "file:/spec/BSpec.js", "file:/spec/CSpec.js"));
+    when(delegate.getPreloadsRelativePath()).thenReturn(set("z.js"));
+    when(delegate.getSourcesRelativePath()).thenReturn(set("a.js"));
+    when(delegate.getSpecsRelativePath()).thenReturn(set("spec/ASpec.js", "spec/BSpec.js", "spec/CSpec.js"));
+    subject = new ShardScriptResolver(delegate, set("file:/spec/ASpec.js", "file:/spec/CSpec.js"));
+  }
+
+  @Test
+  public void onlyIncludesSpecsOfTheShard() {
+    assertThat(new ArrayList<String>(subject.getSpecs()), is(asList("file:/spec/ASpec.js", "file:/spec/CSpec.js")));
+  }
+
+  @Test
+  public void keepsTheOrderTheSpecsWereGivenIn() throws IOException {
+    subject = new ShardScriptResolver(delegate, set("file:/spec/CSpec.js", "file:/spec/ASpec.js"));
+
+    assertThat(new ArrayList<String>(subject.getSpecs()), is(asList("file:/spec/CSpec.js", "file:/spec/ASpec.js")));
+    assertThat(new ArrayList<String>(subject.getSpecsRelativePath()), is(asList("spec/CSpec.js", "spec/ASpec.js")));
+  }
+
+  @Test
+  public void includesAllPreloadsAndSources() {
+    assertThat(new ArrayList<String>(subject.getAllScripts()), is(asList("file:/z.js", "file:/a.js", "file:/spec/ASpec.js", "file:/spec/CSpec.js")));
+  }
+
+  @Test
+  public void narrowsRelativeSpecsToTheShard() throws IOException {
+    assertThat(new ArrayList<String>(subject.getAllScriptsRelativePath()), is(asList("z.js", "a.js", "spec/ASpec.js", "spec/CSpec.js")));
+  }
+
+  @Test
+  public void doesNotResolveTheDelegateAgain() throws IOException {
+    subject.resolveScripts();
+
+    verify(delegate, never()).resolveScripts();
+  }
+
+  private Set<String> set(String... items) {
+    return new LinkedHashSet<String>(asList(items));
+  }
+
+}
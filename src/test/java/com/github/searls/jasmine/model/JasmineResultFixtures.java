@@ -0,0 +1,28 @@
+package com.github.searls.jasmine.model;
+
+import static java.util.Arrays.*;
+
+import java.util.Collections;
+
+import com.github.searls.jasmine.model.JasmineSpec.Status;
+
+/** Results made of top level suites, for the tests of what reads spec files' suites out of a run. */
+public class JasmineResultFixtures {
+
+  public static JasmineResult result(JasmineSuite... suites) {
+    JasmineResult result = new JasmineResult();
+    result.setSuites(asList(suites));
+    return result;
+  }
+
+  public static JasmineSuite suite(String name, long duration) {
+    return new JasmineSuite(name, duration, Collections.<JasmineItem>emptyList());
+  }
+
+  /** @return a suite with a single spec of the given status. */
+  public static JasmineSuite suite(String name, Status status) {
+    JasmineSpec spec = new JasmineSpec(1, "does something", status, 0, Collections.<SpecMessage>emptyList());
+    return new JasmineSuite(name, 0, asList((JasmineItem) spec));
+  }
+
+}
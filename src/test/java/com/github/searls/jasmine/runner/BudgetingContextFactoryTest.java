@@ -0,0 +1,92 @@
+package com.github.searls.jasmine.runner;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.net.URL;
+
+import org.apache.commons.logging.LogFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.gargoylesoftware.htmlunit.MockWebConnection;
+import com.gargoylesoftware.htmlunit.WebClient;
+import com.gargoylesoftware.htmlunit.html.HtmlPage;
+
+public class BudgetingContextFactoryTest {
+
+  private static final String PAGE = "<html><head><script type=\"text/javascript\">" +
+    "var started = function " + SpecInstructionBudget.SPEC_STARTED_FUNCTION + "() {};" +
+    "var finished = function " + SpecInstructionBudget.SPEC_FINISHED_FUNCTION + "() {};" +
+    "var spin = function(times) { for (var i = 0; i < times; i++) {} };" +
+    "var spec = function(body) {" +
+    "  started();" +
+    "  try { " + SpecInstructionBudget.CATCH_ABORT_FUNCTION + "(body); return 'finished'; } catch (e) { return e.message; } finally { finished(); }" +
+    "};" +
+    "</script></head><body></body></html>";
+
+  static {
+    LogFactory.getFactory().setAttribute("org.apache.commons.logging.Log", "org.apache.commons.logging.impl.NoOpLog");
+  }
+
+  private WebClient webClient = new WebClient();
+  private CachingJavaScriptEngine engine;
+  private HtmlPage page;
+
+  @Before
+  public void loadPage() throws Exception {
+    MockWebConnection webConnection = new MockWebConnection();
+    webConnection.setDefaultResponse(PAGE);
+    webClient.setWebConnection(webConnection);
+    engine = new CachingJavaScriptEngine(webClient, new CompiledScriptCache(10));
+    webClient.setJavaScriptEngine(engine);
+    page = webClient.getPage(new URL("http://localhost/budget.html"));
+  }
+
+  @Test
+  public void abortsASpecThatRunsOverItsBudget() {
+    engine.setSpecInstructionBudget(100000);
+
+    assertThat(run("spec(function() { while (true) {} })"), is((Object) "Aborted after running more than 100000 JavaScript instructions (jasmine.specInstructionBudget)"));
+  }
+
+  @Test
+  public void keepsAbortingASpecThatCatchesTheAbort() {
+    engine.setSpecInstructionBudget(100000);
+
+    assertThat(run("spec(function() { while (true) { try { spin(10); } catch (e) {} } })"), is((Object) "Aborted after running more than 100000 JavaScript instructions (jasmine.specInstructionBudget)"));
+  }
+
+  @Test
+  public void stopsAbortingOnceTheScriptItWasThrownIntoReturns() {
+    engine.setSpecInstructionBudget(100000);
+    run("started(); try { while (true) {} } catch (e) {}");
+
+    assertThat(run("spin(5000); 'finished'"), is((Object) "finished"));
+  }
+
+  @Test
+  public void letsTheNextSpecRunAfterAnAbortedOne() {
+    engine.setSpecInstructionBudget(100000);
+    run("spec(function() { while (true) {} })");
+
+    assertThat(run("spec(function() { spin(10); })"), is((Object) "finished"));
+  }
+
+  @Test
+  public void doesNotCountInstructionsRunOutsideOfSpecs() {
+    engine.setSpecInstructionBudget(100000);
+
+    assertThat(run("spin(100000); 'finished'"), is((Object) "finished"));
+  }
+
+  @Test
+  public void doesNotLimitSpecsWithoutABudget() {
+    assertThat(run("spec(function() { spin(100000); })"), is((Object) "finished"));
+  }
+
+  private Object run(String script) {
+    return page.executeJavaScript(script).getJavaScriptResult();
+  }
+
+}
@@ -0,0 +1,45 @@
+package com.github.searls.jasmine.runner;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.net.URL;
+
+import org.apache.commons.logging.LogFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.gargoylesoftware.htmlunit.MockWebConnection;
+import com.gargoylesoftware.htmlunit.WebClient;
+import com.gargoylesoftware.htmlunit.html.HtmlPage;
+
+public class CachingJavaScriptEngineTest {
+
+  private static final String PAGE = "<html><head><script type=\"text/javascript\">window.answer = 40 + 2;</script></head><body></body></html>";
+
+  static {
+    LogFactory.getFactory().setAttribute("org.apache.commons.logging.Log", "org.apache.commons.logging.impl.NoOpLog");
+  }
+
+  private CompiledScriptCache cache = new CompiledScriptCache(10);
+  private WebClient webClient = new WebClient();
+
+  @Before
+  public void installEngine() {
+    MockWebConnection webConnection = new MockWebConnection();
+    webConnection.setDefaultResponse(PAGE);
+    webClient.setWebConnection(webConnection);
+    webClient.setJavaScriptEngine(new CachingJavaScriptEngine(webClient, cache));
+  }
+
+  @Test
+  public void compilesEachScriptOnce() throws Exception {
+    HtmlPage first = webClient.getPage(new URL("http://localhost/first.html"));
+    HtmlPage second = webClient.getPage(new URL("http://localhost/second.html"));
+
+    assertThat(first.executeJavaScript("window.answer").getJavaScriptResult(), is((Object) 42.0));
+    assertThat(second.executeJavaScript("window.answer").getJavaScriptResult(), is((Object) 42.0));
+    assertThat(cache.statistics(), is("2 cached, 2 hits, 2 misses"));
+  }
+
+}
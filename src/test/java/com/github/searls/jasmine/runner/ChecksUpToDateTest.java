@@ -0,0 +1,120 @@
+package com.github.searls.jasmine.runner;
+
+import static java.util.Arrays.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.github.searls.jasmine.io.scripts.ScriptResolver;
+import com.github.searls.jasmine.model.JasmineResult;
+
+public class ChecksUpToDateTest {
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private File script;
+  private File report;
+  private File template;
+  private ScriptResolver resolver = mock(ScriptResolver.class);
+  private Map<String, Object> configuration = new LinkedHashMap<String, Object>();
+  private ChecksUpToDate subject;
+
+  @Before
+  public void createInputs() throws IOException {
+    script = tempFolder.newFile("answer.js");
+    FileUtils.writeStringToFile(script, "window.answer = 42;");
+    report = tempFolder.newFile("TEST-jasmine.xml");
+    template = tempFolder.newFile("runner.template");
+    configuration.put("browserVersion", "FIREFOX_3");
+    when(resolver.getAllScripts()).thenReturn(new LinkedHashSet<String>(asList(script.toURI().toURL().toString())));
+    subject = new ChecksUpToDate(new File(tempFolder.getRoot(), ChecksUpToDate.FILE_NAME));
+  }
+
+  @Test
+  public void hasNoLastPassingRunAtFirst() throws Exception {
+    assertThat(subject.lastPassingRun(fingerprint()), is(nullValue()));
+  }
+
+  @Test
+  public void returnsTheLastPassingRunWhenNothingChanged() throws Exception {
+    subject.record(fingerprint(), result(0), asList(report));
+
+    JasmineResult lastRun = subject.lastPassingRun(fingerprint());
+
+    assertThat(lastRun.getDetails(), is("\nResults: 1 specs, 0 failures\n"));
+    assertThat(lastRun.didPass(), is(true));
+  }
+
+  @Test
+  public void isOutOfDateWhenAScriptChanges() throws Exception {
+    subject.record(fingerprint(), result(0), asList(report));
+    FileUtils.writeStringToFile(script, "window.answer = 43;");
+
+    assertThat(subject.lastPassingRun(fingerprint()), is(nullValue()));
+  }
+
+  @Test
+  public void isOutOfDateWhenTheConfigurationChanges() throws Exception {
+    subject.record(fingerprint(), result(0), asList(report));
+    configuration.put("browserVersion", "INTERNET_EXPLORER_8");
+
+    assertThat(subject.lastPassingRun(fingerprint()), is(nullValue()));
+  }
+
+  @Test
+  public void isOutOfDateWhenAConfiguredFileChanges() throws Exception {
+    subject.record(fingerprint(), result(0), asList(report));
+    FileUtils.writeStringToFile(template, "<html>$specs$</html>");
+
+    assertThat(subject.lastPassingRun(fingerprint()), is(nullValue()));
+  }
+
+  @Test
+  public void isOutOfDateWhenAReportIsGone() throws Exception {
+    subject.record(fingerprint(), result(0), asList(report));
+    report.delete();
+
+    assertThat(subject.lastPassingRun(fingerprint()), is(nullValue()));
+  }
+
+  @Test
+  public void forgetsTheLastPassingRunAfterAFailingOne() throws Exception {
+    subject.record(fingerprint(), result(0), asList(report));
+    subject.record(fingerprint(), result(1), asList(report));
+
+    assertThat(subject.lastPassingRun(fingerprint()), is(nullValue()));
+  }
+
+  @Test
+  public void cannotFingerprintScriptsLoadedFromTheWeb() throws Exception {
+    when(resolver.getAllScripts()).thenReturn(Collections.singleton("http://example.com/lib.js"));
+
+    assertThat(fingerprint(), is(nullValue()));
+  }
+
+  private String fingerprint() throws IOException {
+    return subject.fingerprint(resolver, configuration, asList(template, null));
+  }
+
+  private JasmineResult result(int failures) {
+    JasmineResult result = new JasmineResult();
+    result.setSpecCount(1);
+    result.setFailureCount(failures);
+    result.setDetails("\nResults: 1 specs, " + failures + " failures\n");
+    return result;
+  }
+
+}
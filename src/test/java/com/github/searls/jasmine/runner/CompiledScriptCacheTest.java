@@ -0,0 +1,49 @@
+package com.github.searls.jasmine.runner;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import net.sourceforge.htmlunit.corejs.javascript.Script;
+
+import org.junit.Test;
+
+import com.gargoylesoftware.htmlunit.BrowserVersion;
+
+public class CompiledScriptCacheTest {
+
+  private CompiledScriptCache subject = new CompiledScriptCache(2);
+
+  @Test
+  public void keysByBrowserVersionAndContent() {
+    String key = subject.key(BrowserVersion.FIREFOX_3, "var a;");
+
+    assertThat(subject.key(BrowserVersion.FIREFOX_3, "var a;"), is(key));
+    assertThat(subject.key(BrowserVersion.FIREFOX_3, "var b;"), is(not(key)));
+    assertThat(subject.key(BrowserVersion.INTERNET_EXPLORER_8, "var a;"), is(not(key)));
+  }
+
+  @Test
+  public void returnsCachedScripts() {
+    Script script = mock(Script.class);
+    subject.put("a", script);
+
+    assertThat(subject.get("a"), is(script));
+    assertThat(subject.get("b"), is(nullValue()));
+    assertThat(subject.statistics(), is("1 cached, 1 hits, 1 misses"));
+  }
+
+  @Test
+  public void evictsTheLeastRecentlyUsedScript() {
+    subject.put("a", mock(Script.class));
+    subject.put("b", mock(Script.class));
+    subject.get("a");
+
+    subject.put("c", mock(Script.class));
+
+    assertThat(subject.size(), is(2));
+    assertThat(subject.get("a"), is(notNullValue()));
+    assertThat(subject.get("b"), is(nullValue()));
+  }
+
+}
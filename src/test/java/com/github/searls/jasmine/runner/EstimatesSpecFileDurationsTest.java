@@ -0,0 +1,82 @@
+package com.github.searls.jasmine.runner;
+
+import static java.util.Arrays.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class EstimatesSpecFileDurationsTest {
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private File specDir;
+  private String specDirectory;
+  private Set<String> specs = new LinkedHashSet<String>();
+  private Map<String, Long> remembered = new HashMap<String, Long>();
+  private EstimatesSpecFileDurations subject = new EstimatesSpecFileDurations("UTF-8");
+
+  @Before
+  public void createSpecs() throws IOException {
+    specDir = tempFolder.newFolder("spec");
+    specDirectory = specDir.toURI().toURL().toString();
+    specs.add(spec("ASpec.js", "describe('A', function() { it('a', f); it('b', f); });"));
+    specs.add(spec("BSpec.js", "describe('B', function() { it('a', f); it('b', f); it('c', f); it('d', f); });"));
+    specs.add(spec("CSpec.js", "describe('C', function() { it(\"a\", f); });"));
+  }
+
+  @Test
+  public void countsEachSpecAsTheDefaultWithoutAnyTimedSpecFiles() throws Exception {
+    Map<String, Long> durations = subject.estimate(specs, specDirectory, remembered);
+
+    assertThat(new ArrayList<Long>(durations.values()), is(asList(20L, 40L, 10L)));
+    assertThat(subject.getTimedCount(), is(0));
+  }
+
+  @Test
+  public void takesTheRememberedDurationsOfTimedSpecFiles() throws Exception {
+    remembered.put("ASpec.js", 500L);
+    remembered.put("BSpec.js", 700L);
+    remembered.put("CSpec.js", 90L);
+
+    Map<String, Long> durations = subject.estimate(specs, specDirectory, remembered);
+
+    assertThat(new ArrayList<Long>(durations.values()), is(asList(500L, 700L, 90L)));
+    assertThat(subject.getTimedCount(), is(3));
+  }
+
+  @Test
+  public void estimatesTheOthersByTheAverageDurationPerSpecOfTheTimedOnes() throws Exception {
+    remembered.put("ASpec.js", 100L);
+    remembered.put("CSpec.js", 200L);
+
+    Map<String, Long> durations = subject.estimate(specs, specDirectory, remembered);
+
+    assertThat(durations.get(specDirectory + "BSpec.js"), is(400L));
+    assertThat(subject.getTimedCount(), is(2));
+  }
+
+  @Test
+  public void keepsTheSpecsOrder() throws Exception {
+    assertThat(subject.estimate(specs, specDirectory, remembered).keySet(), is(specs));
+  }
+
+  private String spec(String name, String content) throws IOException {
+    File spec = new File(specDir, name);
+    FileUtils.writeStringToFile(spec, content);
+    return spec.toURI().toURL().toString();
+  }
+
+}
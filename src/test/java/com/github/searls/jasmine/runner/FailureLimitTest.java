@@ -0,0 +1,46 @@
+package com.github.searls.jasmine.runner;
+
+import static java.util.Arrays.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class FailureLimitTest {
+
+  @Test
+  public void isReachedOnceEnoughSpecsFailed() {
+    FailureLimit subject = new FailureLimit(2);
+
+    subject.resultsDrained(asList(spec("failed"), spec("passed")), noSuites());
+    assertThat(subject.isReached(), is(false));
+
+    subject.resultsDrained(asList(spec("skipped"), spec("failed")), noSuites());
+    assertThat(subject.isReached(), is(true));
+  }
+
+  @Test
+  public void isNeverReachedWithoutALimit() {
+    FailureLimit subject = new FailureLimit(0);
+
+    subject.resultsDrained(asList(spec("failed")), noSuites());
+
+    assertThat(subject.isReached(), is(false));
+  }
+
+  private Map<String, Object> spec(String result) {
+    Map<String, Object> spec = new HashMap<String, Object>();
+    spec.put("result", result);
+    return spec;
+  }
+
+  private List<Map<String, Object>> noSuites() {
+    return Collections.emptyList();
+  }
+
+}
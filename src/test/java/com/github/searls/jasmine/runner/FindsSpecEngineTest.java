@@ -0,0 +1,28 @@
+package com.github.searls.jasmine.runner;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class FindsSpecEngineTest {
+
+  private FindsSpecEngine subject = new FindsSpecEngine();
+
+  @Test
+  public void findsTheRegisteredEnginesByTheirName() {
+    assertThat(subject.find("htmlunit", getClass().getClassLoader()), is(instanceOf(HtmlUnitEngine.class)));
+    assertThat(subject.find(" Rhino ", getClass().getClassLoader()), is(instanceOf(RhinoEngine.class)));
+  }
+
+  @Test
+  public void rejectsAnUnknownEngineNamingTheKnownOnes() {
+    try {
+      subject.find("nashorn", getClass().getClassLoader());
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e.getMessage(), is("Unknown engine 'nashorn'; use one of htmlunit, rhino"));
+    }
+  }
+
+}
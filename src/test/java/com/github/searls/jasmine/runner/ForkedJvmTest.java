@@ -0,0 +1,85 @@
+package com.github.searls.jasmine.runner;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.Collections;
+
+import org.apache.maven.plugin.logging.Log;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.github.searls.jasmine.model.JasmineResult;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ForkedJvmTest {
+
+  private URL resource = getClass().getResource("/example_nested_specrunner.html");
+
+  private ForkedJvm subject;
+
+  @Mock private Log log;
+
+  @Before
+  public void fork() throws IOException {
+    subject = new ForkedJvm(ForkedJvm.command("-Xmx256m", getClass().getClassLoader()));
+  }
+
+  @After
+  public void close() {
+    subject.close();
+  }
+
+  @Test
+  public void runsSpecsInTheForkedJvmOneRunAfterTheOther() throws Exception {
+    JasmineResult first = subject.execute(run("INTERNET_EXPLORER_8"), Collections.<SpecResultListener>emptyList(), log);
+    JasmineResult second = subject.execute(run("FIREFOX_3_6"), Collections.<SpecResultListener>emptyList(), log);
+
+    assertThat(first.getDescription(), is("Results: 5 specs, 4 failures"));
+    assertThat(first.getSuites().size(), is(2));
+    assertThat(second.getDescription(), is("Results: 5 specs, 4 failures"));
+  }
+
+  @Test
+  public void reportsWhatKeptARunFromFinishing() throws Exception {
+    try {
+      subject.execute(run("NO_SUCH_BROWSER"), Collections.<SpecResultListener>emptyList(), log);
+      fail();
+    } catch (RuntimeException e) {
+      assertThat(e.getMessage(), containsString("NoSuchFieldException: NO_SUCH_BROWSER"));
+    }
+    assertThat(subject.isAlive(), is(true));
+  }
+
+  @Test
+  public void keepsItsResultsApartFromWhatTheJvmPrints() throws Exception {
+    ForkedJvm verbose = new ForkedJvm(ForkedJvm.command("-Xmx256m -verbose:gc -XX:+PrintCommandLineFlags", getClass().getClassLoader()));
+    try {
+      JasmineResult result = verbose.execute(run("FIREFOX_3_6"), Collections.<SpecResultListener>emptyList(), log);
+
+      assertThat(result.getDescription(), is("Results: 5 specs, 4 failures"));
+    } finally {
+      verbose.close();
+    }
+  }
+
+  @Test
+  public void exitsOnceClosed() {
+    subject.close();
+
+    assertThat(subject.isAlive(), is(false));
+  }
+
+  private SpecRun run(String browserVersion) {
+    return new SpecRun(resource, Collections.<URL>emptyList(), HtmlUnitEngine.NAME, browserVersion, null, 300, false, null, 0, 0, 0, null, false, false, false);
+  }
+
+}
@@ -0,0 +1,50 @@
+package com.github.searls.jasmine.runner;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectOutputStream;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import org.junit.Test;
+
+public class ForkedRequestInputStreamTest {
+
+  @Test
+  public void readsRuns() throws Exception {
+    SpecRun run = new SpecRun(new URL("file:/tmp/SpecRunner.html"), Arrays.asList(new URL("file:/tmp/src/a.js"), new URL("file:/tmp/spec/aSpec.js")),
+      HtmlUnitEngine.NAME, "FIREFOX_3_6", "UTF-8", 300, false, "documentation", 0, 0, 0, null, false, true, false);
+
+    SpecRun read = (SpecRun) read(run);
+
+    assertThat(read.getRunner(), is(run.getRunner()));
+    assertThat(read.getScripts(), is(run.getScripts()));
+    assertThat(read.getEngine(), is(HtmlUnitEngine.NAME));
+  }
+
+  @Test
+  public void readsCoffeeToCompile() throws Exception {
+    ForkedSpecRunner.CompileCoffee read = (ForkedSpecRunner.CompileCoffee) read(new ForkedSpecRunner.CompileCoffee("x = 1"));
+
+    assertThat(read.getCoffee(), is("x = 1"));
+  }
+
+  @Test(expected = InvalidClassException.class)
+  public void refusesAnythingElse() throws Exception {
+    read(new HashMap<String, String>());
+  }
+
+  private Object read(Object written) throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    ObjectOutputStream out = new ObjectOutputStream(bytes);
+    out.writeObject(written);
+    out.close();
+    return new ForkedRequestInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+  }
+
+}
@@ -9,6 +9,8 @@ import org.junit.Test;
 import java.io.File;
 import java.io.IOException;
 
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
 public class HtmlGeneratorConfigurationTest {
@@ -37,6 +39,15 @@ public class HtmlGeneratorConfigurationTest {
 
   }
 
+  @Test
+  public void shouldOnlyBeLeanForTheJsApiReporter() throws IOException {
+    AbstractJasmineMojo mock = mock(AbstractJasmineMojo.class);
+    when(mock.isLean()).thenReturn(true);
+
+    assertThat(new HtmlGeneratorConfiguration(ReporterType.JsApiReporter, mock, mock(ScriptResolver.class)).isLean(), is(true));
+    assertThat(new HtmlGeneratorConfiguration(ReporterType.HtmlReporter, mock, mock(ScriptResolver.class)).isLean(), is(false));
+  }
+
   private HtmlGeneratorConfiguration initGenerator(File expectedCustomRunnerTemplate) throws IOException {
     AbstractJasmineMojo mock = mock(AbstractJasmineMojo.class);
     when(mock.getCustomRunnerTemplate()).thenReturn(expectedCustomRunnerTemplate);
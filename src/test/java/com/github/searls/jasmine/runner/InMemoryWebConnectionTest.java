@@ -0,0 +1,88 @@
+package com.github.searls.jasmine.runner;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.net.URL;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.logging.LogFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.gargoylesoftware.htmlunit.MockWebConnection;
+import com.gargoylesoftware.htmlunit.WebClient;
+import com.gargoylesoftware.htmlunit.WebRequest;
+import com.gargoylesoftware.htmlunit.WebResponse;
+import com.gargoylesoftware.htmlunit.html.HtmlPage;
+
+public class InMemoryWebConnectionTest {
+
+  static {
+    LogFactory.getFactory().setAttribute("org.apache.commons.logging.Log", "org.apache.commons.logging.impl.NoOpLog");
+  }
+
+  private File baseDir;
+  private InMemoryWebConnection subject;
+
+  @Before
+  public void createProject() throws Exception {
+    baseDir = File.createTempFile("in-memory", "");
+    baseDir.delete();
+    FileUtils.writeStringToFile(new File(baseDir, "src/main/javascript/answer.js"), "window.answer = 40 + 2;");
+    FileUtils.writeStringToFile(new File(baseDir, "src/test/javascript/answer spec.js"), "window.spec = 'ran';");
+    subject = new InMemoryWebConnection(baseDir, "UTF-8");
+  }
+
+  @After
+  public void deleteProject() {
+    FileUtils.deleteQuietly(baseDir);
+  }
+
+  @Test
+  public void servesPagesAtTheirFileName() throws Exception {
+    URL url = subject.addPage("SpecRunner.html", "<html></html>");
+
+    WebResponse response = subject.getResponse(new WebRequest(url));
+
+    assertThat(url.toString(), is("http://" + InMemoryWebConnection.HOST + "/SpecRunner.html"));
+    assertThat(response.getContentAsString(), is("<html></html>"));
+    assertThat(response.getContentType(), is("text/html"));
+  }
+
+  @Test
+  public void servesFilesRelativeToTheBaseDir() throws Exception {
+    WebResponse response = subject.getResponse(new WebRequest(new URL("http://" + InMemoryWebConnection.HOST + "/src/test/javascript/answer%20spec.js")));
+
+    assertThat(response.getStatusCode(), is(200));
+    assertThat(response.getContentAsString(), is("window.spec = 'ran';"));
+    assertThat(response.getContentType(), is("text/javascript"));
+  }
+
+  @Test
+  public void answersMissingFilesWithNotFound() throws Exception {
+    WebResponse response = subject.getResponse(new WebRequest(new URL("http://" + InMemoryWebConnection.HOST + "/nope.js")));
+
+    assertThat(response.getStatusCode(), is(404));
+  }
+
+  @Test
+  public void runsARunnerWithRelativeScripts() throws Exception {
+    MockWebConnection network = new MockWebConnection();
+    network.setResponse(new URL("http://example.com/lib.js"), "window.lib = 'remote';", "text/javascript");
+    WebClient webClient = new WebClient();
+    webClient.setWebConnection(subject.withFallback(network));
+    URL url = subject.addPage("SpecRunner.html", "<html><head>"
+      + "<script type=\"text/javascript\" src=\"http://example.com/lib.js\"></script>"
+      + "<script type=\"text/javascript\" src=\"src/main/javascript/answer.js\"></script>"
+      + "</head><body></body></html>");
+
+    HtmlPage page = webClient.getPage(url);
+
+    assertThat(page.executeJavaScript("window.answer").getJavaScriptResult(), is((Object) 42.0));
+    assertThat(page.executeJavaScript("window.lib").getJavaScriptResult(), is((Object) "remote"));
+  }
+
+}
@@ -0,0 +1,194 @@
+package com.github.searls.jasmine.runner;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.net.URL;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.Test;
+
+import com.gargoylesoftware.htmlunit.BrowserVersion;
+import com.github.searls.jasmine.AbstractJasmineMojo;
+import com.github.searls.jasmine.io.CreatesTempDirectories;
+import com.github.searls.jasmine.io.scripts.ScriptResolver;
+import com.github.searls.jasmine.model.JasmineResult;
+
+/** Compares jasmine:test's current runner with the lean one (see jasmine.lean): how long
+ * a new driver takes to load a runner without specs (startup), how long a warm driver
+ * takes to load it again (the fixed cost of every run), and what each spec costs on top
+ * of that, for specs that don't touch the DOM and for specs that add (and style) an
+ * element. Not a test, so the build doesn't run it; run it with
+ * mvn test -Dtest=LeanProfileBenchmark.
+ */
+public class LeanProfileBenchmark {
+
+  private static final int SPECS = 1000;
+  private static final int STARTUPS = 10;
+  private static final int RELOADS = 20;
+  private static final int ROUNDS = 5;
+
+  private static final String PLAIN_SPEC = "it('adds %d', function() { expect(1 + %1$d).toBe(%1$d + 1); });\n";
+  private static final String DOM_SPEC = "it('styles %d', function() {\n"
+    + "  var div = document.createElement('div'); div.className = 'spec'; div.style.width = '%1$dpx';\n"
+    + "  document.body.appendChild(div);\n"
+    + "  expect(div.style.width).toBe('%1$dpx');\n"
+    + "  document.body.removeChild(div);\n"
+    + "});\n";
+
+  private final Log log = new SystemStreamLog() {
+    @Override
+    public void info(CharSequence content) {}
+  };
+
+  private final SpecRunnerExecutor executor = new SpecRunnerExecutor();
+
+  @Test
+  public void comparesTheCurrentRunnerWithTheLeanOne() throws Exception {
+    File directory = new CreatesTempDirectories().create("leanProfileBenchmark");
+    try {
+      URL plainSpec = writeSpec(directory, "PlainSpec.js", PLAIN_SPEC);
+      URL domSpec = writeSpec(directory, "DomSpec.js", DOM_SPEC);
+      Profile current = new Profile("current", false, directory, plainSpec, domSpec);
+      Profile lean = new Profile("lean", true, directory, plainSpec, domSpec);
+
+      // Warm up the JIT and the compiled script cache for both before timing either.
+      current.measure(false);
+      lean.measure(false);
+      for (int round = 0; round < ROUNDS; round++) {
+        current.measure(true);
+        lean.measure(true);
+      }
+
+      System.out.println(String.format(Locale.US, "%-8s %9s %9s %9s %9s %9s", "runner", "size (kB)", "startup", "reload", "plain/spec", "dom/spec"));
+      for (Profile profile : new Profile[] {current, lean}) {
+        System.out.println(profile);
+      }
+      System.out.println(String.format(Locale.US, "lean saves %.0f%% of startup, %.0f%% of each reload, %.0f%% of each plain spec and %.0f%% of each DOM spec",
+        saving(current.startup, lean.startup), saving(current.reload, lean.reload), saving(current.plainPerSpec, lean.plainPerSpec), saving(current.domPerSpec, lean.domPerSpec)));
+    } finally {
+      FileUtils.deleteQuietly(directory);
+    }
+  }
+
+  private URL writeSpec(File directory, String name, String spec) throws Exception {
+    StringBuilder specs = new StringBuilder("describe('" + name + "', function() {\n");
+    for (int i = 0; i < SPECS; i++) {
+      specs.append(String.format(Locale.US, spec, i));
+    }
+    File file = new File(directory, name);
+    FileUtils.writeStringToFile(file, specs.append("});\n").toString(), "UTF-8");
+    return file.toURI().toURL();
+  }
+
+  private double saving(double current, double lean) {
+    return 100 * (current - lean) / current;
+  }
+
+  private class Profile {
+
+    private final String name;
+    private final boolean lean;
+    private final URL empty;
+    private final URL plain;
+    private final URL dom;
+    private final long size;
+    private double startup;
+    private double reload;
+    private double plainPerSpec;
+    private double domPerSpec;
+    private int rounds;
+
+    Profile(String name, boolean lean, File directory, URL plainSpec, URL domSpec) throws Exception {
+      this.name = name;
+      this.lean = lean;
+      this.empty = writeRunner(directory, name + "Empty.html", Collections.<String>emptySet());
+      this.plain = writeRunner(directory, name + "Plain.html", Collections.singleton(plainSpec.toExternalForm()));
+      this.dom = writeRunner(directory, name + "Dom.html", Collections.singleton(domSpec.toExternalForm()));
+      this.size = FileUtils.toFile(empty).length();
+    }
+
+    /** Times each, adding the times to the averages if the measurement counts. */
+    void measure(boolean counts) throws Exception {
+      long started = System.nanoTime();
+      for (int i = 0; i < STARTUPS; i++) {
+        JasmineHtmlUnitDriver driver = driver();
+        run(driver, empty, 0);
+        driver.quit();
+      }
+      double startupMillis = millisSince(started) / STARTUPS;
+
+      JasmineHtmlUnitDriver driver = driver();
+      try {
+        run(driver, empty, 0);
+        started = System.nanoTime();
+        for (int i = 0; i < RELOADS; i++) {
+          run(driver, empty, 0);
+        }
+        double reloadMillis = millisSince(started) / RELOADS;
+
+        started = System.nanoTime();
+        run(driver, plain, SPECS);
+        double plainMillis = (millisSince(started) - reloadMillis) / SPECS;
+
+        started = System.nanoTime();
+        run(driver, dom, SPECS);
+        double domMillis = (millisSince(started) - reloadMillis) / SPECS;
+
+        if (counts) {
+          rounds++;
+          startup += (startupMillis - startup) / rounds;
+          reload += (reloadMillis - reload) / rounds;
+          plainPerSpec += (plainMillis - plainPerSpec) / rounds;
+          domPerSpec += (domMillis - domPerSpec) / rounds;
+        }
+      } finally {
+        driver.quit();
+      }
+    }
+
+    private JasmineHtmlUnitDriver driver() {
+      JasmineHtmlUnitDriver driver = new JasmineHtmlUnitDriver(BrowserVersion.FIREFOX_3_6, false);
+      driver.runLean(lean);
+      return driver;
+    }
+
+    private void run(JasmineHtmlUnitDriver driver, URL runner, int specs) {
+      JasmineResult result = executor.execute(runner, driver, 300, false, log, null);
+      assertThat(name + " " + result.getDescription(), result.getSpecCount(), is(specs));
+      assertThat(name + " " + result.getDetails(), result.didPass(), is(true));
+    }
+
+    private URL writeRunner(File directory, String name, Set<String> specs) throws Exception {
+      AbstractJasmineMojo configuration = mock(AbstractJasmineMojo.class);
+      when(configuration.getSourceEncoding()).thenReturn("UTF-8");
+      when(configuration.isLean()).thenReturn(lean);
+      ScriptResolver scriptResolver = mock(ScriptResolver.class);
+      when(scriptResolver.getAllScripts()).thenReturn(new LinkedHashSet<String>(specs));
+      String html = new DefaultSpecRunnerHtmlGenerator(new HtmlGeneratorConfiguration(ReporterType.JsApiReporter, configuration, scriptResolver)).generate();
+      File file = new File(directory, name);
+      FileUtils.writeStringToFile(file, html, "UTF-8");
+      return file.toURI().toURL();
+    }
+
+    private double millisSince(long started) {
+      return (System.nanoTime() - started) / 1e6;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(Locale.US, "%-8s %9.1f %7.1fms %7.2fms %8.3fms %7.3fms", name, size / 1024.0, startup, reload, plainPerSpec, domPerSpec);
+    }
+
+  }
+
+}
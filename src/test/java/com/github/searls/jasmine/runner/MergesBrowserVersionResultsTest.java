@@ -0,0 +1,75 @@
+package com.github.searls.jasmine.runner;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.github.searls.jasmine.model.JasmineItem;
+import com.github.searls.jasmine.model.JasmineResult;
+import com.github.searls.jasmine.model.JasmineSuite;
+
+public class MergesBrowserVersionResultsTest {
+
+  private MergesBrowserVersionResults subject = new MergesBrowserVersionResults();
+
+  @Test
+  public void sumsTheCountsOfEveryVersion() {
+    JasmineResult result = subject.merge(results(result("a", 3, 0, 100), result("a", 3, 1, 250)));
+
+    assertThat(result.getSpecCount(), is(6));
+    assertThat(result.getFailureCount(), is(1));
+    assertThat(result.didPass(), is(false));
+    assertThat(result.getDescription(), is("Results: 6 specs, 1 failures"));
+  }
+
+  @Test
+  public void takesAsLongAsTheSlowestVersion() {
+    JasmineResult result = subject.merge(results(result("a", 3, 0, 100), result("a", 3, 0, 250)));
+
+    assertThat(result.getDuration(), is(250L));
+  }
+
+  @Test
+  public void keepsTheSuitesOfEveryVersion() {
+    JasmineResult result = subject.merge(results(result("a", 1, 0, 0), result("b", 1, 0, 0)));
+
+    assertThat(result.getSuites().size(), is(2));
+    assertThat(result.getSuites().get(1).getName(), is("b"));
+  }
+
+  @Test
+  public void listsTheDetailsAndResultsOfEachVersion() {
+    JasmineResult result = subject.merge(results(result("a", 3, 0, 0), result("a", 3, 1, 0)));
+
+    assertThat(result.getDetails(), containsString("[FIREFOX_3_6]\nDetails of 3 specs\n\nResults: 3 specs, 0 failures\n"));
+    assertThat(result.getDetails(), containsString("[INTERNET_EXPLORER_8]\nDetails of 3 specs\n\nResults: 3 specs, 1 failures\n"));
+    assertThat(result.getDetails(), containsString("Browser versions:\n"
+      + "  FIREFOX_3_6: Results: 3 specs, 0 failures\n"
+      + "  INTERNET_EXPLORER_8: Results: 3 specs, 1 failures\n"));
+  }
+
+  private Map<String, JasmineResult> results(JasmineResult firefox, JasmineResult explorer) {
+    Map<String, JasmineResult> results = new LinkedHashMap<String, JasmineResult>();
+    results.put("FIREFOX_3_6", firefox);
+    results.put("INTERNET_EXPLORER_8", explorer);
+    return results;
+  }
+
+  private JasmineResult result(String suiteName, int specs, int failures, long duration) {
+    JasmineSuite suite = new JasmineSuite(suiteName, duration, Collections.<JasmineItem>emptyList());
+    JasmineResult result = new JasmineResult();
+    result.setSuites(Arrays.asList(suite));
+    result.setSpecCount(specs);
+    result.setFailureCount(failures);
+    result.setDuration(duration);
+    result.setDetails("\nDetails of " + specs + " specs\n\nResults: " + specs + " specs, " + failures + " failures\n");
+    return result;
+  }
+
+}
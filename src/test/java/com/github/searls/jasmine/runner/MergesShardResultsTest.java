@@ -0,0 +1,66 @@
+package com.github.searls.jasmine.runner;
+
+import static java.util.Arrays.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+
+import org.junit.Test;
+
+import com.github.searls.jasmine.model.JasmineItem;
+import com.github.searls.jasmine.model.JasmineResult;
+import com.github.searls.jasmine.model.JasmineSuite;
+
+public class MergesShardResultsTest {
+
+  private MergesShardResults subject = new MergesShardResults();
+
+  @Test
+  public void sumsTheResultsOfEachShard() {
+    JasmineResult result = subject.merge(asList(
+        result("\nA\n  passes\n\nResults: 1 specs, 0 failures\n", 1, 0),
+        result("\nB\n  fails <<< FAILURE!\n\nResults: 2 specs, 1 failures\n", 2, 1)));
+
+    assertThat(result.getDetails(), containsString("passes"));
+    assertThat(result.getDetails(), containsString("fails"));
+    assertThat(result.getDescription(), is("Results: 3 specs, 1 failures"));
+    assertThat(result.getSpecCount(), is(3));
+    assertThat(result.getFailureCount(), is(1));
+    assertThat(result.didPass(), is(false));
+  }
+
+  @Test
+  public void passesWhenEveryShardPasses() {
+    JasmineResult result = subject.merge(asList(
+        result("\nResults: 1 specs, 0 failures\n", 1, 0),
+        result("\nResults: 4 specs, 0 failures\n", 4, 0)));
+
+    assertThat(result.didPass(), is(true));
+  }
+
+  @Test
+  public void concatenatesTheSuitesAndSumsTheDurationOfEachShard() {
+    JasmineResult first = result("\nResults: 1 specs, 0 failures\n", 1, 0);
+    first.setSuites(asList(new JasmineSuite("A", 0, Collections.<JasmineItem>emptyList())));
+    first.setDuration(250);
+    JasmineResult second = result("\nResults: 1 specs, 0 failures\n", 1, 0);
+    second.setSuites(asList(new JasmineSuite("B", 0, Collections.<JasmineItem>emptyList())));
+    second.setDuration(1500);
+
+    JasmineResult result = subject.merge(asList(first, second));
+
+    assertThat(result.getSuites().size(), is(2));
+    assertThat(result.getSuites().get(1).getName(), is("B"));
+    assertThat(result.getDuration(), is(1750L));
+  }
+
+  private JasmineResult result(String details, int specs, int failures) {
+    JasmineResult result = new JasmineResult();
+    result.setDetails(details);
+    result.setSpecCount(specs);
+    result.setFailureCount(failures);
+    return result;
+  }
+
+}
@@ -0,0 +1,93 @@
+package com.github.searls.jasmine.runner;
+
+import static com.github.searls.jasmine.model.JasmineResultFixtures.*;
+import static java.util.Arrays.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.plugin.logging.Log;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PlansShardsTest {
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @Mock private Log log;
+
+  private File specDir;
+  private String specDirectory;
+  private Set<String> specs = new LinkedHashSet<String>();
+  private RemembersSpecFileDurations remembersSpecFileDurations;
+  private PlansShards subject;
+
+  @Before
+  public void createSpecs() throws IOException {
+    specDir = tempFolder.newFolder("spec");
+    specDirectory = specDir.toURI().toURL().toString();
+    specs.add(spec("ASpec.js", "describe('A', function() { it('a', f); });"));
+    specs.add(spec("BSpec.js", "describe('B', function() { it('a', f); });"));
+    specs.add(spec("CSpec.js", "describe('C', function() { it('a', f); });"));
+    specs.add(spec("DSpec.js", "describe('D', function() { it('a', f); });"));
+    remembersSpecFileDurations = new RemembersSpecFileDurations(new File(tempFolder.getRoot(), RemembersSpecFileDurations.FILE_NAME), "UTF-8");
+    subject = new PlansShards(remembersSpecFileDurations, "UTF-8");
+  }
+
+  @Test
+  public void balancesTheShardsByTheRememberedDurations() throws Exception {
+    remembersSpecFileDurations.remember(result(suite("A", 3000), suite("B", 1000), suite("C", 1000), suite("D", 1000)), specs, specDirectory);
+
+    List<Set<String>> shards = subject.plan(specs, specDirectory, 2, 2, log);
+
+    assertThat(new ArrayList<String>(shards.get(0)), is(asList(specDirectory + "ASpec.js")));
+    assertThat(new ArrayList<String>(shards.get(1)), is(asList(specDirectory + "BSpec.js", specDirectory + "CSpec.js", specDirectory + "DSpec.js")));
+  }
+
+  @Test
+  public void logsThePlan() throws Exception {
+    remembersSpecFileDurations.remember(result(suite("A", 3000), suite("B", 1000), suite("C", 1000)), specs, specDirectory);
+
+    subject.plan(specs, specDirectory, 2, 1, log);
+
+    verify(log).info("Planned 2 shards by the durations of 3 of 4 spec files (estimating the rest by their number of specs); expected makespan ~6.7s on 1 browsers:");
+    verify(log).info("  shard 1: 1 spec files, ~3.0s");
+    verify(log).info("  shard 2: 3 spec files, ~3.7s");
+  }
+
+  @Test
+  public void theMakespanIsTheSumOfTheShardsOnOneBrowser() {
+    assertThat(subject.makespan(asList(3L, 2L, 4L), 1), is(9L));
+  }
+
+  @Test
+  public void theMakespanIsTheLongestShardWithABrowserForEach() {
+    assertThat(subject.makespan(asList(3L, 2L, 4L), 8), is(4L));
+  }
+
+  @Test
+  public void theMakespanStartsEachShardOnTheFirstFreeBrowser() {
+    assertThat(subject.makespan(asList(3L, 2L, 4L, 1L), 2), is(6L));
+  }
+
+  private String spec(String name, String content) throws IOException {
+    File spec = new File(specDir, name);
+    FileUtils.writeStringToFile(spec, content);
+    return spec.toURI().toURL().toString();
+  }
+
+}
@@ -0,0 +1,100 @@
+package com.github.searls.jasmine.runner;
+
+import static java.util.Arrays.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.github.searls.jasmine.model.JasmineResult;
+import com.github.searls.jasmine.model.JasmineSpec;
+import com.github.searls.jasmine.model.JasmineSuite;
+
+public class ReadsJasmineResultTest {
+
+  private ReadsJasmineResult subject = new ReadsJasmineResult();
+
+  @Test
+  public void readsTheSuiteTree() {
+    JasmineResult result = subject.read(extracted(suite("A", suite("B", spec(1, "passes", "passed")))));
+
+    JasmineSuite a = result.getSuites().get(0);
+    JasmineSuite b = (JasmineSuite) a.getChildren().get(0);
+    JasmineSpec spec = (JasmineSpec) b.getChildren().get(0);
+    assertThat(a.getName(), is("A"));
+    assertThat(b.getName(), is("B"));
+    assertThat(spec.getName(), is("passes"));
+    assertThat(spec.getStatus(), is(JasmineSpec.Status.PASSED));
+    assertThat(spec.getDuration(), is(12L));
+  }
+
+  @Test
+  public void countsSpecsFailuresAndSkippedSpecs() {
+    JasmineResult result = subject.read(extracted(suite("A",
+        spec(1, "passes", "passed"),
+        spec(2, "fails", "failed"),
+        spec(3, "never ran", "missing"),
+        spec(4, "skipped", "skipped"))));
+
+    assertThat(result.getSpecCount(), is(3));
+    assertThat(result.getFailureCount(), is(2));
+    assertThat(result.getSkippedCount(), is(1));
+    assertThat(result.didPass(), is(false));
+  }
+
+  @Test
+  public void readsTheMessagesOfFailedSpecs() {
+    Map<String, Object> failed = spec(1, "fails", "failed");
+    Map<String, Object> message = new HashMap<String, Object>();
+    message.put("type", "expect");
+    message.put("message", "Expected true to be false.");
+    message.put("matcherName", "toBe");
+    failed.put("messages", asList(message));
+
+    JasmineSpec spec = (JasmineSpec) subject.read(extracted(suite("A", failed))).getSuites().get(0).getChildren().get(0);
+
+    assertThat(spec.getMessages().get(0).getMessage(), is("Expected true to be false."));
+    assertThat(spec.getMessages().get(0).getMatcherName(), is("toBe"));
+  }
+
+  @Test
+  public void readsUnknownResultsAsMissing() {
+    JasmineResult result = subject.read(extracted(suite("A", spec(1, "weird", null))));
+
+    assertThat(((JasmineSpec) result.getSuites().get(0).getChildren().get(0)).getStatus(), is(JasmineSpec.Status.MISSING));
+  }
+
+  private Map<String, Object> extracted(Map<String, Object>... suites) {
+    Map<String, Object> extracted = new HashMap<String, Object>();
+    extracted.put("stopped", false);
+    extracted.put("duration", 30L);
+    extracted.put("suites", asList(suites));
+    return extracted;
+  }
+
+  private Map<String, Object> suite(String name, Map<String, Object>... children) {
+    Map<String, Object> suite = new HashMap<String, Object>();
+    suite.put("type", "suite");
+    suite.put("name", name);
+    suite.put("duration", 20L);
+    suite.put("children", asList(children));
+    return suite;
+  }
+
+  private Map<String, Object> spec(long id, String name, String result) {
+    Map<String, Object> spec = new HashMap<String, Object>();
+    spec.put("type", "spec");
+    spec.put("id", id);
+    spec.put("name", name);
+    spec.put("result", result);
+    spec.put("duration", 12.0);
+    spec.put("messages", Collections.<List<Object>>emptyList());
+    return spec;
+  }
+
+}
@@ -0,0 +1,94 @@
+package com.github.searls.jasmine.runner;
+
+import static com.github.searls.jasmine.model.JasmineResultFixtures.*;
+import static java.util.Arrays.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.github.searls.jasmine.model.JasmineSpec.Status;
+
+public class RemembersFailingSpecsTest {
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private File specDir;
+  private String specDirectory;
+  private Set<String> specs = new LinkedHashSet<String>();
+  private RemembersFailingSpecs subject;
+
+  @Before
+  public void createSpecs() throws IOException {
+    specDir = tempFolder.newFolder("spec");
+    specDirectory = specDir.toURI().toURL().toString();
+    specs.add(spec("ASpec.js", "describe('A', function() {});"));
+    specs.add(spec("nested/BSpec.js", "describe('B', function() {});"));
+    specs.add(spec("CSpec.js", "describe('C', function() {});"));
+    subject = new RemembersFailingSpecs(new File(tempFolder.getRoot(), RemembersFailingSpecs.FILE_NAME), "UTF-8");
+  }
+
+  @Test
+  public void keepsTheOriginalOrderWithoutFailures() throws Exception {
+    assertThat(subject.failingFirst(specs, specDirectory), is(specs));
+  }
+
+  @Test
+  public void putsTheSpecsThatFailedLastTimeFirst() throws Exception {
+    subject.remember(result(suite("A", Status.PASSED), suite("B", Status.FAILED), suite("C", Status.MISSING)), specs, specDirectory);
+
+    assertThat(new ArrayList<String>(subject.failingFirst(specs, specDirectory)), is(asList(
+        specDirectory + "nested/BSpec.js", specDirectory + "CSpec.js", specDirectory + "ASpec.js")));
+  }
+
+  @Test
+  public void keepsFilesThatDefineNoSuitesAheadOfTheFailingOnes() throws Exception {
+    Set<String> withHelper = new LinkedHashSet<String>();
+    withHelper.add(spec("SpecHelper.js", "beforeEach(function() { this.addMatchers({}); });"));
+    withHelper.addAll(specs);
+    subject.remember(result(suite("C", Status.FAILED)), withHelper, specDirectory);
+
+    assertThat(new ArrayList<String>(subject.failingFirst(withHelper, specDirectory)), is(asList(
+        specDirectory + "SpecHelper.js", specDirectory + "CSpec.js", specDirectory + "ASpec.js", specDirectory + "nested/BSpec.js")));
+  }
+
+  @Test
+  public void onlyCountsFilesThatDescribeTheFailingSuite() throws Exception {
+    specs.add(spec("DSpec.js", "describe('D', function() { it('mentions', function() { expect(name).not.toBe('C'); }); });"));
+    subject.remember(result(suite("C", Status.FAILED)), specs, specDirectory);
+
+    assertThat(FileUtils.readFileToString(new File(tempFolder.getRoot(), RemembersFailingSpecs.FILE_NAME)).trim(), is("CSpec.js"));
+  }
+
+  @Test
+  public void forgetsFailuresOnceTheyPass() throws Exception {
+    subject.remember(result(suite("C", Status.FAILED)), specs, specDirectory);
+    subject.remember(result(suite("C", Status.PASSED)), specs, specDirectory);
+
+    assertThat(subject.failingFirst(specs, specDirectory), is(specs));
+  }
+
+  @Test
+  public void remembersSpecFilesRelativeToTheSpecDirectory() throws Exception {
+    subject.remember(result(suite("B", Status.FAILED)), specs, specDirectory);
+
+    assertThat(FileUtils.readFileToString(new File(tempFolder.getRoot(), RemembersFailingSpecs.FILE_NAME)).trim(), is("nested/BSpec.js"));
+  }
+
+  private String spec(String name, String content) throws IOException {
+    File spec = new File(specDir, name);
+    FileUtils.writeStringToFile(spec, content);
+    return spec.toURI().toURL().toString();
+  }
+
+}
@@ -0,0 +1,88 @@
+package com.github.searls.jasmine.runner;
+
+import static com.github.searls.jasmine.model.JasmineResultFixtures.*;
+import static java.util.Arrays.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class RemembersSpecFileDurationsTest {
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private File specDir;
+  private String specDirectory;
+  private Set<String> specs = new LinkedHashSet<String>();
+  private RemembersSpecFileDurations subject;
+
+  @Before
+  public void createSpecs() throws IOException {
+    specDir = tempFolder.newFolder("spec");
+    specDirectory = specDir.toURI().toURL().toString();
+    specs.add(spec("ASpec.js", "describe('A', function() {});"));
+    specs.add(spec("nested/BSpec.js", "describe(\"B's\", function() { describe('inner', function() {}); });"));
+    specs.add(spec("SharedSpec.js", "describe('A', function() {});"));
+    subject = new RemembersSpecFileDurations(new File(tempFolder.getRoot(), RemembersSpecFileDurations.FILE_NAME), "UTF-8");
+  }
+
+  @Test
+  public void remembersNothingAtFirst() throws Exception {
+    assertThat(subject.durations().isEmpty(), is(true));
+  }
+
+  @Test
+  public void creditsEachSpecFileWithTheSuitesItDescribes() throws Exception {
+    subject.remember(result(suite("A", 300), suite("B's", 120)), specs, specDirectory);
+
+    assertThat(subject.durations().get("nested/BSpec.js"), is(120L));
+  }
+
+  @Test
+  public void splitsASuiteDescribedInSeveralSpecFilesBetweenThem() throws Exception {
+    subject.remember(result(suite("A", 300)), specs, specDirectory);
+
+    assertThat(subject.durations().get("ASpec.js"), is(150L));
+    assertThat(subject.durations().get("SharedSpec.js"), is(150L));
+  }
+
+  @Test
+  public void takesTheLongestOfSeveralBrowserVersionsForEachSpecFile() throws Exception {
+    subject.remember(asList(result(suite("A", 300), suite("B's", 120)), result(suite("A", 500), suite("B's", 90))), specs, specDirectory);
+
+    assertThat(subject.durations().get("ASpec.js"), is(250L));
+    assertThat(subject.durations().get("nested/BSpec.js"), is(120L));
+  }
+
+  @Test
+  public void keepsTheDurationsOfSpecFilesThatDidNotRun() throws Exception {
+    subject.remember(result(suite("A", 300), suite("B's", 120)), specs, specDirectory);
+    subject.remember(result(suite("B's", 80)), specs, specDirectory);
+
+    assertThat(subject.durations().get("ASpec.js"), is(150L));
+    assertThat(subject.durations().get("nested/BSpec.js"), is(80L));
+  }
+
+  @Test
+  public void ignoresSuitesNoSpecFileDescribes() throws Exception {
+    subject.remember(result(suite("Elsewhere", 50)), specs, specDirectory);
+
+    assertThat(new File(tempFolder.getRoot(), RemembersSpecFileDurations.FILE_NAME).exists(), is(false));
+  }
+
+  private String spec(String name, String content) throws IOException {
+    File spec = new File(specDir, name);
+    FileUtils.writeStringToFile(spec, content);
+    return spec.toURI().toURL().toString();
+  }
+
+}
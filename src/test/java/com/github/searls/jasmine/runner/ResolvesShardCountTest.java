@@ -0,0 +1,50 @@
+package com.github.searls.jasmine.runner;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class ResolvesShardCountTest {
+
+  private ResolvesShardCount subject = new ResolvesShardCount();
+
+  @Rule public ExpectedException expectedException = ExpectedException.none();
+
+  @Test
+  public void defaultsToASingleShard() {
+    assertThat(subject.resolve(null, 10), is(1));
+  }
+
+  @Test
+  public void usesTheConfiguredCount() {
+    assertThat(subject.resolve("3", 10), is(3));
+  }
+
+  @Test
+  public void capsTheCountAtTheNumberOfSpecs() {
+    assertThat(subject.resolve("8", 2), is(2));
+  }
+
+  @Test
+  public void autoPicksAtLeastOneShard() {
+    assertThat(subject.resolve("auto", 1000), is(greaterThanOrEqualTo(1)));
+  }
+
+  @Test
+  public void rejectsNonsense() {
+    expectedException.expect(IllegalArgumentException.class);
+
+    subject.resolve("lots", 10);
+  }
+
+  @Test
+  public void rejectsZero() {
+    expectedException.expect(IllegalArgumentException.class);
+
+    subject.resolve("0", 10);
+  }
+
+}
@@ -0,0 +1,119 @@
+package com.github.searls.jasmine.runner;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.plugin.logging.Log;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Matchers;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.github.searls.jasmine.model.JasmineResult;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RhinoEngineTest {
+
+  private RhinoEngine subject = new RhinoEngine();
+
+  private SpecRunnerExecutor specRunnerExecutor = new SpecRunnerExecutor();
+
+  @Mock private Log log;
+
+  @Test
+  public void runsTheScriptsWithoutABrowser() throws Exception {
+    JasmineResult result = subject.execute(run(0, null, specs("")), specRunnerExecutor, log);
+
+    assertThat(result.getDescription(), is("Results: 3 specs, 1 failures"));
+    assertThat(result.getDetails(), containsString(".F."));
+    assertThat(result.getSuites().get(0).getName(), is("rhino"));
+  }
+
+  @Test
+  public void runsTimersInTheOrderTheyAreDue() throws Exception {
+    JasmineResult result = subject.execute(run(0, null, specs(
+      "it('runs timers', function() {" +
+      "  var log = [];" +
+      "  runs(function() {" +
+      "    setTimeout(function() { log.push('b'); }, 60);" +
+      "    setTimeout(function() { log.push('a'); }, 20);" +
+      "    var cancelled = setTimeout(function() { log.push('x'); }, 40);" +
+      "    clearTimeout(cancelled);" +
+      "  });" +
+      "  waitsFor(function() { return log.length == 2; }, 'the timers', 5000);" +
+      "  runs(function() { expect(log.join()).toEqual('a,b'); });" +
+      "});")), specRunnerExecutor, log);
+
+    assertThat(result.getDescription(), is("Results: 4 specs, 1 failures"));
+  }
+
+  @Test
+  public void abortsASpecThatRunsOverItsInstructionBudget() throws Exception {
+    JasmineResult result = subject.execute(run(1000000, null, specs("it('loops forever', function() { while (true) {} });")), specRunnerExecutor, log);
+
+    assertThat(result.getDescription(), is("Results: 4 specs, 2 failures"));
+    assertThat(result.getDetails(), containsString("Aborted after running more than 1000000 JavaScript instructions"));
+  }
+
+  @Test
+  public void abortsASpecThatCatchesEverythingItsThrown() throws Exception {
+    JasmineResult result = subject.execute(run(1000000, null,
+      specs("it('loops forever', function() { while (true) { try { while (true) {} } catch (e) {} } });")), specRunnerExecutor, log);
+
+    assertThat(result.getDescription(), is("Results: 4 specs, 2 failures"));
+    assertThat(result.getDetails(), containsString("Aborted after running more than 1000000 JavaScript instructions"));
+  }
+
+  @Test
+  public void runsOnlyTheSpecsMatchingTheSpecFilter() throws Exception {
+    JasmineResult result = subject.execute(run(0, "passes", specs("")), specRunnerExecutor, log);
+
+    assertThat(result.getDescription(), is("Results: 2 specs, 0 failures"));
+  }
+
+  @Test
+  public void logsScriptErrorsAndRunsTheRest() throws Exception {
+    URL broken = script("broken", "var broken = ;");
+
+    JasmineResult result = subject.execute(run(0, null, broken, specs("")), specRunnerExecutor, log);
+
+    verify(log).warn(Matchers.startsWith("Error in " + broken));
+    assertThat(result.getDescription(), is("Results: 3 specs, 1 failures"));
+  }
+
+  private SpecRun run(long specInstructionBudget, String specFilter, URL... scripts) throws IOException {
+    List<URL> scriptList = new ArrayList<URL>();
+    for (URL script : scripts) {
+      scriptList.add(script);
+    }
+    return new SpecRun(new File(FileUtils.getTempDirectory(), "SpecRunner.html").toURI().toURL(), scriptList, RhinoEngine.NAME, "FIREFOX_3", "UTF-8",
+      300, false, "progress", specInstructionBudget, 0, 0, specFilter, false, false, false);
+  }
+
+  private URL specs(String extraSpec) throws IOException {
+    return script("rhinoSpec",
+      "describe('rhino', function() {" +
+      "  it('passes', function() { expect(true).toBe(true); });" +
+      "  it('fails', function() { expect(true).toBe(false); });" +
+      "  " + extraSpec +
+      "  it('passes again', function() { expect(1).toBe(1); });" +
+      "});");
+  }
+
+  private URL script(String name, String source) throws IOException {
+    File script = File.createTempFile(name, ".js");
+    script.deleteOnExit();
+    FileUtils.writeStringToFile(script, source);
+    return script.toURI().toURL();
+  }
+
+}
@@ -0,0 +1,58 @@
+package com.github.searls.jasmine.runner;
+
+import static java.util.Arrays.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.maven.plugin.logging.Log;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Matchers;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RhinoPageTest {
+
+  @Mock private Log log;
+
+  private RhinoPage subject;
+
+  @Test
+  public void logsScriptErrorsAndRunsTheRest() throws Exception {
+    subject = new RhinoPage(new URL("file:/tmp/SpecRunner.html"), log);
+
+    subject.runScript("var broken = ;", "broken.js");
+    subject.runScript("var fine = true;", "fine.js");
+
+    verify(log).warn(Matchers.startsWith("Error in broken.js"));
+    assertThat(subject.executeScript("return fine;"), is((Object) true));
+  }
+
+  @Test
+  public void logsErrorsThrownByLoadListeners() throws Exception {
+    subject = new RhinoPage(new URL("file:/tmp/SpecRunner.html"), log);
+    subject.runScript("addEventListener('load', function() { throw 'oops'; }, false);", "listener.js");
+
+    subject.fire("load");
+
+    verify(log).warn("Error in file:/tmp/SpecRunner.html: oops");
+  }
+
+  @Test
+  public void returnsScriptResultsAsWebDriverDoes() throws Exception {
+    subject = new RhinoPage(new URL("file:/tmp/SpecRunner.html"), log);
+
+    Map<String, Object> expected = new LinkedHashMap<String, Object>();
+    expected.put("count", 2L);
+    expected.put("items", asList("a", 1.5, null));
+    expected.put("nested", new LinkedHashMap<String, Object>());
+    assertThat(subject.executeScript("return {count: arguments[0] + 1, items: ['a', 1.5, null], nested: {}};", 1), is((Object) expected));
+  }
+
+}
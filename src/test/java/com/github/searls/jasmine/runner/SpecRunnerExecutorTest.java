@@ -2,70 +2,229 @@ package com.github.searls.jasmine.runner;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertThat;
-import static org.mockito.Matchers.isA;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
 
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.util.Arrays;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.maven.plugin.logging.Log;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.openqa.selenium.htmlunit.HtmlUnitDriver;
 
 import com.gargoylesoftware.htmlunit.BrowserVersion;
-import com.github.searls.jasmine.io.FileUtilsWrapper;
-import com.github.searls.jasmine.io.IOUtilsWrapper;
 import com.github.searls.jasmine.model.JasmineResult;
 
 
 @RunWith(MockitoJUnitRunner.class)
 public class SpecRunnerExecutorTest {
 
-  private static final String BUILD_REPORT_JS_CONTENTS = "var jasmineMavenPlugin = {printReport: function(){ return 'pants\\nkaka'; }};";
-  private static final String JUNIT_RESULTS = "var junitXmlReporter = { report: function(reporter) { return '<xml/>'; }};";
   private static HtmlUnitDriver driver;
 
-  @InjectMocks private SpecRunnerExecutor subject = new SpecRunnerExecutor();
+  private SpecRunnerExecutor subject = new SpecRunnerExecutor();
 
-  @Mock private IOUtilsWrapper ioUtilsWrapper;
-  @Mock private FileUtilsWrapper fileUtilsWrapper;
-
-  @Mock private File file;
   @Mock private Log log;
 
   private URL resource = getClass().getResource("/example_nested_specrunner.html");
 
   @Before
-  public void stubResourceStreams() throws IOException {
-    when(ioUtilsWrapper.toString(isA(String.class))).thenReturn(BUILD_REPORT_JS_CONTENTS,JUNIT_RESULTS);
+  public void createDriver() throws IOException {
     driver = new HtmlUnitDriver(BrowserVersion.INTERNET_EXPLORER_8);
     driver.setJavascriptEnabled(true);
   }
 
   @Test
   public void shouldFindSpecsInResults() throws Exception {
-    JasmineResult result = subject.execute(resource, file, driver, 300, false, log, null);
+    JasmineResult result = subject.execute(resource, driver, 300, false, log, null);
 
     assertThat(result,is(not(nullValue())));
-    assertThat(result.getDescription(),containsString("kaka"));
-    assertThat(result.getDetails(),containsString("pants"));
+    assertThat(result.getDescription(),is("Results: 5 specs, 4 failures"));
+    assertThat(result.getDetails(),containsString("NestedFail"));
+    assertThat(result.getSpecCount(),is(5));
+    assertThat(result.getFailureCount(),is(4));
+    assertThat(result.getSuites().size(),is(2));
     assertThat(result.didPass(),is(false));
   }
 
   @Test
-  public void shouldExportJUnitResults() throws Exception {
-    subject.execute(resource, file, driver, 300, false, log, null);
+  public void shouldExtractTimedResultsFromTheQueue() throws Exception {
+    JasmineResult result = subject.execute(streamingRunner("{}"), driver, 300, false, log, "progress");
+
+    assertThat(result.getDetails(), containsString(".F."));
+    assertThat(result.getDescription(), is("Results: 3 specs, 1 failures"));
+    assertThat(result.getSuites().get(0).getName(), is("streaming"));
+  }
+
+  @Test
+  public void shouldLogProgressAsSpecResultsStreamIn() throws Exception {
+    subject.execute(streamingRunner("{}"), driver, 300, false, log, null);
+
+    assertThat(lastLoggedInfo(), containsString(".F. (3 specs, 1 failures)"));
+  }
+
+  @Test
+  public void shouldSkipTheRemainingSpecsOnceMaxFailuresIsReached() throws Exception {
+    JasmineResult result = subject.execute(streamingRunner("{maxFailures: 1}"), driver, 300, false, log, null);
+
+    assertThat(lastLoggedInfo(), containsString(".F* (3 specs, 1 failures)"));
+    assertThat(result.isStopped(), is(true));
+    assertThat(result.getSkippedCount(), is(1));
+    assertThat(result.getDescription(), is("Results: 2 specs, 1 failures"));
+  }
+
+  @Test
+  public void shouldLeaveSpecsOutsideTheSpecFilterOutOfTheResults() throws Exception {
+    JasmineResult result = subject.execute(streamingRunner("{specFilter: 'streaming passes'}"), driver, 300, false, log, "progress");
+
+    assertThat(lastLoggedInfo(), containsString(".. (2 specs, 0 failures)"));
+    assertThat(result.getSkippedCount(), is(0));
+    assertThat(result.getDescription(), is("Results: 2 specs, 0 failures"));
+  }
+
+  @Test
+  public void shouldFailASpecStuckInAnAsyncBlockOnceItTimesOut() throws Exception {
+    JasmineResult result = subject.execute(streamingRunner("{specTimeoutMillis: 200}",
+      "it('never finishes', function() { waitsFor(function() { return false; }, 'Godot', 60000); });"), driver, 300, false, log, null);
+
+    assertThat(result.getDescription(), is("Results: 4 specs, 2 failures"));
+    assertThat(result.getDetails(), containsString("timed out after 200 msec (jasmine.specTimeout)"));
+  }
+
+  @Test
+  public void shouldTimeSpecsOutInRealTimeOnAVirtualClock() throws Exception {
+    JasmineResult result = subject.execute(streamingRunner("{specTimeoutMillis: 30000}", true,
+      "it('waits on a long timer', function() {" +
+      "  var done = false;" +
+      "  runs(function() { setTimeout(function() { done = true; }, 60000); });" +
+      "  waitsFor(function() { return done; }, 'the timer', 120000);" +
+      "});"), driver, 300, false, log, null);
+
+    assertThat(result.getDescription(), is("Results: 4 specs, 1 failures"));
+    assertThat(result.getDetails(), not(containsString("jasmine.specTimeout")));
+  }
+
+  @Test
+  public void shouldAbortASpecThatRunsOverItsInstructionBudget() throws Exception {
+    JasmineHtmlUnitDriver budgetedDriver = new JasmineHtmlUnitDriver(BrowserVersion.INTERNET_EXPLORER_8, false);
+    budgetedDriver.limitSpecInstructions(1000000);
+
+    JasmineResult result = subject.execute(streamingRunner("{}", "it('loops forever', function() { while (true) {} });"), budgetedDriver, 300, false, log, null);
+
+    assertThat(result.getDescription(), is("Results: 4 specs, 2 failures"));
+    assertThat(result.getDetails(), containsString("Aborted after running more than 1000000 JavaScript instructions"));
+  }
+
+  @Test
+  public void shouldAbortASpecThatCatchesEverythingItsThrown() throws Exception {
+    JasmineHtmlUnitDriver budgetedDriver = new JasmineHtmlUnitDriver(BrowserVersion.INTERNET_EXPLORER_8, false);
+    budgetedDriver.limitSpecInstructions(1000000);
+
+    JasmineResult result = subject.execute(streamingRunner("{}", "it('loops forever', function() { while (true) { try { while (true) {} } catch (e) {} } });"), budgetedDriver, 300, false, log, null);
+
+    assertThat(result.getDescription(), is("Results: 4 specs, 2 failures"));
+    assertThat(result.getDetails(), containsString("Aborted after running more than 1000000 JavaScript instructions"));
+  }
+
+  @Test
+  public void shouldRunTimersOnAVirtualClock() throws Exception {
+    long startedAt = System.currentTimeMillis();
+
+    JasmineResult result = subject.execute(streamingRunner("{}", true,
+      "it('runs timers in the order they are due', function() {" +
+      "  var log = [], ticks = 0;" +
+      "  runs(function() {" +
+      "    setTimeout(function() { log.push('a'); setTimeout(function() { log.push('c'); }, 1500); }, 1000);" +
+      "    setTimeout(function() { log.push('b'); }, 2000);" +
+      "    var interval = setInterval(function() { log.push('i' + (++ticks)); if (ticks == 3) { clearInterval(interval); } }, 700);" +
+      "  });" +
+      "  waits(5000);" +
+      "  runs(function() { expect(log.join()).toEqual('i1,a,i2,b,i3,c'); });" +
+      "});" +
+      "it('moves Date along with the timers', function() {" +
+      "  var start = new Date().getTime(), waited;" +
+      "  runs(function() { setTimeout(function() { waited = new Date().getTime() - start; }, 60000); });" +
+      "  waitsFor(function() { return waited !== undefined; }, 'the timer', 120000);" +
+      "  runs(function() { expect(waited).not.toBeLessThan(60000); });" +
+      "});"), driver, 300, false, log, null);
+
+    assertThat(result.getDescription(), is("Results: 5 specs, 1 failures"));
+    assertThat(System.currentTimeMillis() - startedAt, is(lessThan(30000L)));
+  }
+
+  @Test
+  public void shouldRunBatchesOfSpecsInFreshScopesOnAWarmPage() throws Exception {
+    JasmineHtmlUnitDriver warmDriver = new JasmineHtmlUnitDriver(BrowserVersion.INTERNET_EXPLORER_8, false);
+    subject.loadWarmPage(streamingRunner("{}"), warmDriver, 300, false, log);
+
+    JasmineResult first = subject.executeBatch(Arrays.asList(specFile(
+      "var declared = 'first';" +
+      "describe('first batch', function() {" +
+      "  it('sees its own top-level declarations', function() { expect(declared).toBe('first'); });" +
+      "  it('keeps them off the window', function() { expect(window.declared).toBeUndefined(); });" +
+      "});")), warmDriver, 300, false, log, null);
+    JasmineResult second = subject.executeBatch(Arrays.asList(specFile(
+      "describe('second batch', function() {" +
+      "  it('does not see the batch before', function() { expect(typeof declared).toBe('undefined'); });" +
+      "  it('fails', function() { expect(true).toBe(false); });" +
+      "});")), warmDriver, 300, false, log, null);
+
+    assertThat(first.getDescription(), is("Results: 2 specs, 0 failures"));
+    assertThat(second.getDescription(), is("Results: 2 specs, 1 failures"));
+    assertThat(second.getSuites().size(), is(1));
+    assertThat(second.getSuites().get(0).getName(), is("second batch"));
+  }
+
+  private URL specFile(String spec) throws IOException {
+    File file = File.createTempFile("spec", ".js");
+    file.deleteOnExit();
+    FileUtils.writeStringToFile(file, spec);
+    return file.toURI().toURL();
+  }
+
+  private URL streamingRunner(String config) throws IOException {
+    return streamingRunner(config, "");
+  }
+
+  private URL streamingRunner(String config, String extraSpec) throws IOException {
+    return streamingRunner(config, false, extraSpec);
+  }
+
+  private URL streamingRunner(String config, boolean virtualClock, String extraSpec) throws IOException {
+    File runner = File.createTempFile("streaming", ".html");
+    runner.deleteOnExit();
+    FileUtils.writeStringToFile(runner, "<html><head>" +
+      "<script type=\"text/javascript\">window.jasmineMavenPlugin = {config: " + config + "};</script>" +
+      (virtualClock ? "<script type=\"text/javascript\" src=\"" + getClass().getResource(SpecRunnerHtmlGenerator.VIRTUAL_CLOCK_JS) + "\"></script>" : "") +
+      "<script type=\"text/javascript\" src=\"" + getClass().getResource(SpecRunnerHtmlGenerator.JASMINE_JS) + "\"></script>" +
+      "<script type=\"text/javascript\" src=\"" + getClass().getResource(SpecRunnerHtmlGenerator.SPEC_REPORTING_JS) + "\"></script>" +
+      "<script type=\"text/javascript\" src=\"" + getClass().getResource(SpecRunnerHtmlGenerator.SPEC_RESULT_QUEUE_JS) + "\"></script>" +
+      "<script type=\"text/javascript\">" +
+      "  describe('streaming', function() {" +
+      "    it('passes', function() { expect(true).toBe(true); });" +
+      "    it('fails', function() { expect(true).toBe(false); });" +
+      "    " + extraSpec +
+      "    it('passes again', function() { expect(1).toBe(1); });" +
+      "  });" +
+      "  window.onload = function() { window.reporter = new jasmine.JsApiReporter(); jasmine.getEnv().addReporter(reporter); jasmine.getEnv().execute(); };" +
+      "</script></head><body></body></html>");
+    return runner.toURI().toURL();
+  }
 
-    verify(fileUtilsWrapper).writeStringToFile(file, "<xml/>", "UTF-8");
+  private String lastLoggedInfo() {
+    ArgumentCaptor<CharSequence> info = ArgumentCaptor.forClass(CharSequence.class);
+    verify(log, atLeastOnce()).info(info.capture());
+    return info.getValue().toString();
   }
 }
\ No newline at end of file
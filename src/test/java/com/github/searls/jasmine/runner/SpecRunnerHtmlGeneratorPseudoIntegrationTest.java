@@ -128,6 +128,23 @@ public class SpecRunnerHtmlGeneratorPseudoIntegrationTest {
     assertThat(html, containsScriptTagWithSource(expected));
   }
 
+  @Test
+  public void leavesOutJasmineHtmlSourceAndCSSWhenLean() throws Exception {
+    when(generatorConfiguration.isLean()).thenReturn(true);
+    when(generatorConfiguration.getRunnerTemplate(LEAN_RUNNER_HTML_TEMPLATE_FILE)).thenReturn(new IOUtilsWrapper().toString(LEAN_RUNNER_HTML_TEMPLATE_FILE));
+    when(generatorConfiguration.IOtoString(eq(JASMINE_JS))).thenReturn("jasmine()");
+    when(generatorConfiguration.IOtoString(eq(JASMINE_HTML_JS))).thenReturn("jasmineHtml()");
+    when(generatorConfiguration.IOtoString(eq(JASMINE_CSS))).thenReturn("h1 { background-color: awesome}");
+
+    String html = subject.generate();
+
+    assertThat(html, containsScriptTagWith("jasmine()"));
+    assertThat(html, not(containsString("jasmineHtml()")));
+    assertThat(html, not(containsString("<style")));
+    assertThat(html, not(containsString("<title>")));
+    assertThat(getPage(html).getDoctype().getName(), is("html"));
+  }
+
   private HtmlPage getPage(String html) throws Exception {
     MockWebConnection webConnection = new MockWebConnection();
     webConnection.setDefaultResponse(html);
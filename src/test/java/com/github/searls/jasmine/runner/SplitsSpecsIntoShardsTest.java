@@ -0,0 +1,81 @@
+package com.github.searls.jasmine.runner;
+
+import static java.util.Arrays.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class SplitsSpecsIntoShardsTest {
+
+  private SplitsSpecsIntoShards subject = new SplitsSpecsIntoShards();
+
+  @Test
+  public void splitsIntoContiguousShardsOfNearlyEqualSize() {
+    List<Set<String>> shards = subject.split(set("a", "b", "c", "d", "e"), 2);
+
+    assertThat(shards.size(), is(2));
+    assertThat(new ArrayList<String>(shards.get(0)), is(asList("a", "b", "c")));
+    assertThat(new ArrayList<String>(shards.get(1)), is(asList("d", "e")));
+  }
+
+  @Test
+  public void neverCreatesMoreShardsThanSpecs() {
+    List<Set<String>> shards = subject.split(set("a", "b"), 4);
+
+    assertThat(shards.size(), is(2));
+  }
+
+  @Test
+  public void returnsASingleEmptyShardWhenThereAreNoSpecs() {
+    List<Set<String>> shards = subject.split(Collections.<String>emptySet(), 3);
+
+    assertThat(shards.size(), is(1));
+    assertThat(shards.get(0).isEmpty(), is(true));
+  }
+
+  @Test
+  public void putsTheLongestSpecsFirstOntoTheShardWithTheLeastTimeSoFar() {
+    List<Set<String>> shards = subject.split(set("a", "b", "c", "d", "e"), 2, durations("a", 1L, "b", 5L, "c", 2L, "d", 3L, "e", 1L));
+
+    assertThat(new ArrayList<String>(shards.get(0)), is(asList("a", "b")));
+    assertThat(new ArrayList<String>(shards.get(1)), is(asList("c", "d", "e")));
+  }
+
+  @Test
+  public void keepsTheOriginalOrderWithinEachShard() {
+    List<Set<String>> shards = subject.split(set("a", "b", "c", "d"), 2, durations("a", 1L, "b", 1L, "c", 1L, "d", 9L));
+
+    assertThat(new ArrayList<String>(shards.get(0)), is(asList("d")));
+    assertThat(new ArrayList<String>(shards.get(1)), is(asList("a", "b", "c")));
+  }
+
+  @Test
+  public void countsSpecsWithoutADurationAsInstant() {
+    List<Set<String>> shards = subject.split(set("a", "b", "c"), 3, durations("c", 5L));
+
+    assertThat(shards.size(), is(3));
+    assertThat(new ArrayList<String>(shards.get(0)), is(asList("c")));
+  }
+
+  private Map<String, Long> durations(Object... specsAndDurations) {
+    Map<String, Long> durations = new HashMap<String, Long>();
+    for (int i = 0; i < specsAndDurations.length; i += 2) {
+      durations.put((String) specsAndDurations[i], (Long) specsAndDurations[i + 1]);
+    }
+    return durations;
+  }
+
+  private Set<String> set(String... items) {
+    return new LinkedHashSet<String>(asList(items));
+  }
+
+}
@@ -0,0 +1,74 @@
+package com.github.searls.jasmine.runner;
+
+import static java.util.Arrays.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.github.searls.jasmine.model.Timing;
+
+public class TracksSlowestSpecsTest {
+
+  private TracksSlowestSpecs subject = new TracksSlowestSpecs(2);
+
+  @Test
+  public void keepsTheSlowestSpecsSlowestFirst() {
+    subject.resultsDrained(asList(spec("a", 5L), spec("b", 30L)), noSuites());
+    subject.resultsDrained(asList(spec("c", 10L), spec("d", 1L)), noSuites());
+
+    assertThat(names(subject.getSlowestSpecs()), is(asList("suite b", "suite c")));
+    assertThat(subject.getSlowestSpecs().get(0).getMillis(), is(30L));
+  }
+
+  @Test
+  public void keepsTheSlowestSuites() {
+    subject.resultsDrained(Collections.<Map<String, Object>>emptyList(), asList(suite("x", 100L), suite("y", 10L), suite("z", 50L)));
+
+    assertThat(names(subject.getSlowestSuites()), is(asList("x", "z")));
+  }
+
+  @Test
+  public void treatsMissingDurationsAsZero() {
+    Map<String, Object> spec = spec("a", 0L);
+    spec.remove("duration");
+
+    subject.resultsDrained(asList(spec), noSuites());
+
+    assertThat(subject.getSlowestSpecs().get(0).getMillis(), is(0L));
+  }
+
+  private Map<String, Object> spec(String name, long duration) {
+    Map<String, Object> spec = new HashMap<String, Object>();
+    spec.put("suite", "suite");
+    spec.put("name", name);
+    spec.put("duration", duration);
+    return spec;
+  }
+
+  private Map<String, Object> suite(String name, long duration) {
+    Map<String, Object> suite = new HashMap<String, Object>();
+    suite.put("name", name);
+    suite.put("duration", duration);
+    return suite;
+  }
+
+  private List<Map<String, Object>> noSuites() {
+    return Collections.emptyList();
+  }
+
+  private List<String> names(List<Timing> timings) {
+    List<String> names = new ArrayList<String>();
+    for (Timing timing : timings) {
+      names.add(timing.getName());
+    }
+    return names;
+  }
+
+}
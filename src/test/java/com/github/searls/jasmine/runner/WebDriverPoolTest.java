@@ -0,0 +1,103 @@
+package com.github.searls.jasmine.runner;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriver.Options;
+
+@RunWith(MockitoJUnitRunner.class)
+public class WebDriverPoolTest {
+
+  private static final String KEY = "HtmlUnitDriver:FIREFOX_3";
+
+  private WebDriverPool subject = new WebDriverPool(1);
+
+  @Mock private WebDriver driver;
+  @Mock private WebDriver otherDriver;
+  @Mock private Options options;
+  @Mock private WebDriverPool.Factory factory;
+
+  @Before
+  public void stubDrivers() {
+    when(driver.manage()).thenReturn(options);
+    when(otherDriver.manage()).thenReturn(options);
+    when(factory.create()).thenReturn(driver, otherDriver);
+  }
+
+  @Test
+  public void createsADriverWhenNoneIsIdle() {
+    WebDriver result = subject.acquire(KEY, factory);
+
+    assertThat(result, is(driver));
+    assertThat(subject.getCreated(), is(1));
+  }
+
+  @Test
+  public void reusesAReleasedDriver() {
+    subject.release(KEY, subject.acquire(KEY, factory));
+
+    WebDriver result = subject.acquire(KEY, factory);
+
+    assertThat(result, is(driver));
+    assertThat(subject.getReused(), is(1));
+    verify(factory, times(1)).create();
+  }
+
+  @Test
+  public void resetsDriversWhenTheyAreReleased() {
+    subject.release(KEY, subject.acquire(KEY, factory));
+
+    verify(options).deleteAllCookies();
+    verify(driver).get(WebDriverPool.BLANK_PAGE);
+    verify(driver, never()).quit();
+  }
+
+  @Test
+  public void doesNotShareDriversBetweenKeys() {
+    subject.release(KEY, subject.acquire(KEY, factory));
+
+    WebDriver result = subject.acquire("FirefoxDriver:FIREFOX_3", factory);
+
+    assertThat(result, is(otherDriver));
+  }
+
+  @Test
+  public void quitsDriversThatCannotBeReset() {
+    doThrow(new RuntimeException("gone")).when(driver).get(WebDriverPool.BLANK_PAGE);
+
+    subject.release(KEY, subject.acquire(KEY, factory));
+
+    verify(driver).quit();
+    assertThat(subject.getIdle(), is(0));
+  }
+
+  @Test
+  public void quitsDriversBeyondThePoolSize() {
+    WebDriver first = subject.acquire(KEY, factory);
+    WebDriver second = subject.acquire(KEY, factory);
+
+    subject.release(KEY, first);
+    subject.release(KEY, second);
+
+    verify(otherDriver).quit();
+    assertThat(subject.getIdle(), is(1));
+  }
+
+  @Test
+  public void quitAllQuitsIdleDrivers() {
+    subject.release(KEY, subject.acquire(KEY, factory));
+
+    subject.quitAll();
+
+    verify(driver).quit();
+    assertThat(subject.statistics(), is("1 created, 0 reused, 0 idle"));
+  }
+
+}
@@ -0,0 +1,110 @@
+package com.github.searls.jasmine.server;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.io.File;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.plugin.logging.Log;
+import org.junit.After;
+import org.junit.Test;
+
+import com.github.searls.jasmine.io.CreatesTempDirectories;
+import com.github.searls.jasmine.model.JasmineResult;
+
+public class CollectsSpecResultsTest {
+
+  private static final String FIREFOX = "Mozilla/5.0 (X11; Linux x86_64; rv:10.0) Gecko/20100101 Firefox/10.0";
+  private static final String CHROME = "Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/535.19 (KHTML, like Gecko) Chrome/18.0.1025.142 Safari/535.19";
+  private static final String OTHER_CHROME = "Mozilla/5.0 (Windows NT 6.1) AppleWebKit/535.19 (KHTML, like Gecko) Chrome/18.0.1025.162 Safari/535.19";
+
+  private static final String RESULTS = "{\"duration\": 12, \"suites\": [{\"type\": \"suite\", \"name\": \"Player\", \"duration\": 10, \"children\": ["
+    + "{\"type\": \"spec\", \"id\": 0, \"name\": \"plays\", \"result\": \"passed\", \"duration\": 4, \"messages\": []},"
+    + "{\"type\": \"spec\", \"id\": 1, \"name\": \"pauses\", \"result\": \"failed\", \"duration\": 6, \"messages\": [{\"type\": \"expect\", \"message\": \"Expected true to be false.\", \"matcherName\": \"toBe\"}]}"
+    + "]}]}";
+
+  private File directory = new CreatesTempDirectories().create("collectsSpecResults");
+  private Log log = mock(Log.class);
+
+  private CollectsSpecResults subject = new CollectsSpecResults(directory, "TEST-jasmine.xml", "documentation", log);
+
+  @After
+  public void deleteDirectory() {
+    FileUtils.deleteQuietly(directory);
+  }
+
+  @Test
+  public void handlesResultsPostedToItsPath() {
+    assertThat(subject.handles(CollectsSpecResults.PATH, "POST"), is(true));
+    assertThat(subject.handles(CollectsSpecResults.PATH, "GET"), is(false));
+    assertThat(subject.handles("/", "POST"), is(false));
+  }
+
+  @Test
+  public void readsThePostedResults() throws Exception {
+    JasmineResult result = subject.collect(RESULTS, FIREFOX);
+
+    assertThat(result.getSpecCount(), is(2));
+    assertThat(result.getFailureCount(), is(1));
+    assertThat(result.getDuration(), is(12L));
+    assertThat(result.getSuites().get(0).getName(), is("Player"));
+    assertThat(result.getDetails(), containsString("Expected true to be false."));
+  }
+
+  @Test
+  public void writesAReportNamedAfterTheBrowser() throws Exception {
+    subject.collect(RESULTS, FIREFOX);
+
+    String report = FileUtils.readFileToString(new File(directory, "TEST-jasmine-firefox-10.xml"), "UTF-8");
+    assertThat(report, containsString("classname=\"jasmine.firefox-10\""));
+    assertThat(report, containsString("Expected true to be false."));
+  }
+
+  @Test
+  public void tellsBrowsersThatWouldShareANameApart() throws Exception {
+    subject.collect(RESULTS, CHROME);
+    subject.collect(RESULTS, OTHER_CHROME);
+    subject.collect(RESULTS, CHROME);
+
+    assertThat(new File(directory, "TEST-jasmine-chrome-18.xml").exists(), is(true));
+    assertThat(new File(directory, "TEST-jasmine-chrome-18-2.xml").exists(), is(true));
+    assertThat(directory.list().length, is(2));
+  }
+
+  @Test
+  public void tellsClientsWithTheSameUserAgentApart() throws Exception {
+    subject.collect(fromClient("a"), CHROME);
+    subject.collect(fromClient("b"), CHROME);
+    subject.collect(fromClient("a"), CHROME);
+
+    assertThat(new File(directory, "TEST-jasmine-chrome-18.xml").exists(), is(true));
+    assertThat(new File(directory, "TEST-jasmine-chrome-18-2.xml").exists(), is(true));
+    assertThat(directory.list().length, is(2));
+    verify(log, atLeastOnce()).info("Last runs of 2 browsers (2 failing): chrome-18: 2 specs, 1 failures; chrome-18-2: 2 specs, 1 failures");
+  }
+
+  @Test
+  public void logsATallyOfTheLastRunOfEachBrowser() throws Exception {
+    subject.collect(RESULTS, FIREFOX);
+    subject.collect(RESULTS.replace("\"failed\"", "\"passed\""), CHROME);
+
+    verify(log).info("Last runs of 2 browsers (1 failing): firefox-10: 2 specs, 1 failures; chrome-18: 2 specs, 0 failures");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsResultsThatAreNotJson() throws Exception {
+    subject.collect("<html>", FIREFOX);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsResultsWithoutSuites() throws Exception {
+    subject.collect("{\"duration\": 12}", FIREFOX);
+  }
+
+  private String fromClient(String client) {
+    return RESULTS.replaceFirst("\\{", "{\"client\": \"" + client + "\", ");
+  }
+
+}
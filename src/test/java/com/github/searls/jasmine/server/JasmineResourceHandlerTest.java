@@ -4,7 +4,9 @@ import static org.hamcrest.Matchers.is;
 import static org.powermock.api.mockito.PowerMockito.whenNew;
 import static org.mockito.Mockito.*;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.StringReader;
 import java.net.MalformedURLException;
 
 import javax.servlet.ServletException;
@@ -35,6 +37,7 @@ public class JasmineResourceHandlerTest {
   @Mock private DetectsCoffee detectsCoffee;
   @Mock private HandlesRequestsForCoffee handlesRequestsForCoffee;
   @Mock private CreatesManualRunner createsManualRunner;
+  @Mock private CollectsSpecResults collectsSpecResults;
 
   @Mock AbstractJasmineMojo config;
   @Mock Request baseRequest;
@@ -124,4 +127,33 @@ public class JasmineResourceHandlerTest {
     verify(handlesRequestsForCoffee, never()).handle(any(Request.class), any(HttpServletResponse.class), any(Resource.class));
   }
 
+  @Test
+  public void whenResultsArePostedDelegatesToTheCollector() throws IOException, ServletException {
+    postResults("{\"suites\": []}");
+
+    subject.handle(CollectsSpecResults.PATH, baseRequest,request,response);
+
+    verify(collectsSpecResults).collect("{\"suites\": []}", "Firefox/10.0");
+    verify(response).setStatus(HttpServletResponse.SC_NO_CONTENT);
+    verify(baseRequest).setHandled(true);
+    verify(createsManualRunner,never()).create();
+  }
+
+  @Test
+  public void whenPostedResultsAreInvalidRespondsWithBadRequest() throws IOException, ServletException {
+    postResults("nope");
+    when(collectsSpecResults.collect("nope", "Firefox/10.0")).thenThrow(new IllegalArgumentException("not JSON"));
+
+    subject.handle(CollectsSpecResults.PATH, baseRequest,request,response);
+
+    verify(response).sendError(HttpServletResponse.SC_BAD_REQUEST, "not JSON");
+  }
+
+  private void postResults(String json) throws IOException {
+    when(request.getMethod()).thenReturn("POST");
+    when(collectsSpecResults.handles(CollectsSpecResults.PATH, "POST")).thenReturn(true);
+    when(request.getReader()).thenReturn(new BufferedReader(new StringReader(json)));
+    when(request.getHeader("User-Agent")).thenReturn("Firefox/10.0");
+  }
+
 }